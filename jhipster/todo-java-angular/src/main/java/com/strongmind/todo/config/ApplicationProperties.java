@@ -1,6 +1,11 @@
 package com.strongmind.todo.config;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
 
 /**
  * Properties specific to Todo.
@@ -9,4 +14,881 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  * See {@link tech.jhipster.config.JHipsterProperties} for a good example.
  */
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
-public class ApplicationProperties {}
+public class ApplicationProperties {
+
+    private final Export export = new Export();
+
+    private final Security security = new Security();
+
+    private final ConcurrencyLimit concurrencyLimit = new ConcurrencyLimit();
+
+    private final Management management = new Management();
+
+    private final VirtualThreads virtualThreads = new VirtualThreads();
+
+    private final Async async = new Async();
+
+    private final MailOutbox mailOutbox = new MailOutbox();
+
+    private final UserPurge userPurge = new UserPurge();
+
+    private final Cache cache = new Cache();
+
+    public Export getExport() {
+        return export;
+    }
+
+    public Security getSecurity() {
+        return security;
+    }
+
+    public ConcurrencyLimit getConcurrencyLimit() {
+        return concurrencyLimit;
+    }
+
+    public Management getManagement() {
+        return management;
+    }
+
+    public VirtualThreads getVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public Async getAsync() {
+        return async;
+    }
+
+    public MailOutbox getMailOutbox() {
+        return mailOutbox;
+    }
+
+    public UserPurge getUserPurge() {
+        return userPurge;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public static class Export {
+
+        /**
+         * Number of rows the JDBC driver fetches per round-trip while streaming an export.
+         */
+        private int fetchSize = 500;
+
+        /**
+         * Number of exported rows after which the persistence context is cleared.
+         */
+        private int clearInterval = 500;
+
+        public int getFetchSize() {
+            return fetchSize;
+        }
+
+        public void setFetchSize(int fetchSize) {
+            this.fetchSize = fetchSize;
+        }
+
+        public int getClearInterval() {
+            return clearInterval;
+        }
+
+        public void setClearInterval(int clearInterval) {
+            this.clearInterval = clearInterval;
+        }
+    }
+
+    public static class Security {
+
+        /**
+         * Maximum number of verified JWT tokens whose authentication is kept in memory; {@code 0} disables the cache.
+         */
+        private int tokenCacheMaxSize = 10_000;
+
+        private final Login login = new Login();
+
+        public int getTokenCacheMaxSize() {
+            return tokenCacheMaxSize;
+        }
+
+        public void setTokenCacheMaxSize(int tokenCacheMaxSize) {
+            this.tokenCacheMaxSize = tokenCacheMaxSize;
+        }
+
+        public Login getLogin() {
+            return login;
+        }
+
+        public static class Login {
+
+            /**
+             * Number of threads hashing the passwords of the login attempts.
+             */
+            private int hashingThreads = Runtime.getRuntime().availableProcessors();
+
+            /**
+             * Number of login attempts waiting for a hashing thread, beyond which attempts are rejected.
+             */
+            private int hashingQueueCapacity = 100;
+
+            /**
+             * Number of login attempts a client address can make in a burst.
+             */
+            private int ipBurst = 20;
+
+            /**
+             * Number of login attempts per minute a client address can make after a burst.
+             */
+            private int ipAttemptsPerMinute = 60;
+
+            /**
+             * Number of failed login attempts a login can have in a burst.
+             */
+            private int loginFailuresBurst = 5;
+
+            /**
+             * Number of failed login attempts per minute a login can have after a burst.
+             */
+            private int loginFailuresPerMinute = 1;
+
+            /**
+             * Maximum number of client addresses, and of logins, whose attempts are tracked. Beyond it, the attempts
+             * from untracked addresses or for untracked logins are rejected until a tracked one is no longer throttled.
+             */
+            private int trackedKeysMaxSize = 100_000;
+
+            public int getHashingThreads() {
+                return hashingThreads;
+            }
+
+            public void setHashingThreads(int hashingThreads) {
+                this.hashingThreads = hashingThreads;
+            }
+
+            public int getHashingQueueCapacity() {
+                return hashingQueueCapacity;
+            }
+
+            public void setHashingQueueCapacity(int hashingQueueCapacity) {
+                this.hashingQueueCapacity = hashingQueueCapacity;
+            }
+
+            public int getIpBurst() {
+                return ipBurst;
+            }
+
+            public void setIpBurst(int ipBurst) {
+                this.ipBurst = ipBurst;
+            }
+
+            public int getIpAttemptsPerMinute() {
+                return ipAttemptsPerMinute;
+            }
+
+            public void setIpAttemptsPerMinute(int ipAttemptsPerMinute) {
+                this.ipAttemptsPerMinute = ipAttemptsPerMinute;
+            }
+
+            public int getLoginFailuresBurst() {
+                return loginFailuresBurst;
+            }
+
+            public void setLoginFailuresBurst(int loginFailuresBurst) {
+                this.loginFailuresBurst = loginFailuresBurst;
+            }
+
+            public int getLoginFailuresPerMinute() {
+                return loginFailuresPerMinute;
+            }
+
+            public void setLoginFailuresPerMinute(int loginFailuresPerMinute) {
+                this.loginFailuresPerMinute = loginFailuresPerMinute;
+            }
+
+            public int getTrackedKeysMaxSize() {
+                return trackedKeysMaxSize;
+            }
+
+            public void setTrackedKeysMaxSize(int trackedKeysMaxSize) {
+                this.trackedKeysMaxSize = trackedKeysMaxSize;
+            }
+        }
+    }
+
+    public static class ConcurrencyLimit {
+
+        /**
+         * Whether the requests to {@code /api/**} beyond the adaptive concurrency limit are rejected.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Concurrency limit of each group of requests at startup.
+         */
+        private int initialLimit = 20;
+
+        /**
+         * Lowest concurrency limit of each group of requests.
+         */
+        private int minLimit = 4;
+
+        /**
+         * Highest concurrency limit of each group of requests.
+         */
+        private int maxLimit = 200;
+
+        /**
+         * Ratio of the latency to its long-term average beyond which the concurrency limit shrinks.
+         */
+        private double rttTolerance = 1.5;
+
+        /**
+         * Delay advised to the clients of the rejected requests, in seconds.
+         */
+        private long retryAfterSeconds = 1;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getInitialLimit() {
+            return initialLimit;
+        }
+
+        public void setInitialLimit(int initialLimit) {
+            this.initialLimit = initialLimit;
+        }
+
+        public int getMinLimit() {
+            return minLimit;
+        }
+
+        public void setMinLimit(int minLimit) {
+            this.minLimit = minLimit;
+        }
+
+        public int getMaxLimit() {
+            return maxLimit;
+        }
+
+        public void setMaxLimit(int maxLimit) {
+            this.maxLimit = maxLimit;
+        }
+
+        public double getRttTolerance() {
+            return rttTolerance;
+        }
+
+        public void setRttTolerance(double rttTolerance) {
+            this.rttTolerance = rttTolerance;
+        }
+
+        public long getRetryAfterSeconds() {
+            return retryAfterSeconds;
+        }
+
+        public void setRetryAfterSeconds(long retryAfterSeconds) {
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+    }
+
+    public static class Management {
+
+        /**
+         * Number of threads serving the management endpoints, apart from the Undertow workers.
+         */
+        private int threads = 2;
+
+        /**
+         * Number of management requests waiting for a thread, beyond which they are served by the Undertow workers.
+         */
+        private int queueCapacity = 50;
+
+        /**
+         * Time during which the result of the database health check is reused, in milliseconds.
+         */
+        private long dbHealthCacheMillis = 5000;
+
+        /**
+         * Time during which the result of the database health check is reused while the connection pool is saturated,
+         * in milliseconds.
+         */
+        private long dbHealthMaxStaleMillis = 60000;
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public long getDbHealthCacheMillis() {
+            return dbHealthCacheMillis;
+        }
+
+        public void setDbHealthCacheMillis(long dbHealthCacheMillis) {
+            this.dbHealthCacheMillis = dbHealthCacheMillis;
+        }
+
+        public long getDbHealthMaxStaleMillis() {
+            return dbHealthMaxStaleMillis;
+        }
+
+        public void setDbHealthMaxStaleMillis(long dbHealthMaxStaleMillis) {
+            this.dbHealthMaxStaleMillis = dbHealthMaxStaleMillis;
+        }
+    }
+
+    public static class VirtualThreads {
+
+        /**
+         * Whether the servlet requests and the {@code @Async} tasks run on virtual threads, on a JDK which has them.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Maximum number of database connections when virtual threads are enabled. The pool, not the threads, then
+         * bounds the concurrent queries, so it is not sized after the number of threads.
+         */
+        private int databasePoolSize = 20;
+
+        /**
+         * Time a virtual thread waits for a database connection before failing when virtual threads are enabled, in
+         * milliseconds.
+         */
+        private long databaseConnectionTimeoutMillis = 2000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getDatabasePoolSize() {
+            return databasePoolSize;
+        }
+
+        public void setDatabasePoolSize(int databasePoolSize) {
+            this.databasePoolSize = databasePoolSize;
+        }
+
+        public long getDatabaseConnectionTimeoutMillis() {
+            return databaseConnectionTimeoutMillis;
+        }
+
+        public void setDatabaseConnectionTimeoutMillis(long databaseConnectionTimeoutMillis) {
+            this.databaseConnectionTimeoutMillis = databaseConnectionTimeoutMillis;
+        }
+    }
+
+    /**
+     * What an executor does with a task when its threads are busy and its queue is full.
+     */
+    public enum RejectionPolicy {
+        /**
+         * The submitting thread runs the task itself, which slows the submitter down.
+         */
+        CALLER_RUNS,
+        /**
+         * The task is dropped.
+         */
+        DISCARD,
+        /**
+         * The submission fails with a {@link org.springframework.core.task.TaskRejectedException}.
+         */
+        ABORT,
+    }
+
+    public static class Async {
+
+        /**
+         * Policy of the shared {@code @Async} executor, sized by {@code spring.task.execution}, when its queue is full.
+         */
+        private RejectionPolicy taskRejectionPolicy = RejectionPolicy.CALLER_RUNS;
+
+        /**
+         * Executor sending the emails, apart from the other {@code @Async} work.
+         */
+        private final Bulkhead mail = new Bulkhead(2, 500, RejectionPolicy.CALLER_RUNS);
+
+        /**
+         * Executor reloading the cache entries ahead of their expiry; a reload it rejects is skipped.
+         */
+        private final Bulkhead cacheRefresh = new Bulkhead(1, 100, RejectionPolicy.DISCARD);
+
+        /**
+         * Executor running the asynchronous requests, such as the to-do item exports, apart from the request threads;
+         * a request it rejects is answered with 503.
+         */
+        private final Bulkhead mvc = new Bulkhead(4, 20, RejectionPolicy.ABORT);
+
+        public RejectionPolicy getTaskRejectionPolicy() {
+            return taskRejectionPolicy;
+        }
+
+        public void setTaskRejectionPolicy(RejectionPolicy taskRejectionPolicy) {
+            this.taskRejectionPolicy = taskRejectionPolicy;
+        }
+
+        public Bulkhead getMail() {
+            return mail;
+        }
+
+        public Bulkhead getCacheRefresh() {
+            return cacheRefresh;
+        }
+
+        public Bulkhead getMvc() {
+            return mvc;
+        }
+    }
+
+    public static class Bulkhead {
+
+        /**
+         * Number of threads of the executor.
+         */
+        private int threads;
+
+        /**
+         * Number of tasks waiting for a thread, beyond which the rejection policy applies.
+         */
+        private int queueCapacity;
+
+        /**
+         * What is done with a task when the queue is full.
+         */
+        private RejectionPolicy rejectionPolicy;
+
+        public Bulkhead(int threads, int queueCapacity, RejectionPolicy rejectionPolicy) {
+            this.threads = threads;
+            this.queueCapacity = queueCapacity;
+            this.rejectionPolicy = rejectionPolicy;
+        }
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public RejectionPolicy getRejectionPolicy() {
+            return rejectionPolicy;
+        }
+
+        public void setRejectionPolicy(RejectionPolicy rejectionPolicy) {
+            this.rejectionPolicy = rejectionPolicy;
+        }
+    }
+
+    public static class MailOutbox {
+
+        /**
+         * Whether the outbox is drained by this instance.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Time between two polls of the outbox, in milliseconds.
+         */
+        private long pollIntervalMillis = 1000;
+
+        /**
+         * Number of messages sent over one SMTP connection.
+         */
+        private int batchSize = 50;
+
+        /**
+         * Time after which messages claimed by an instance which did not report their delivery are sent again, in
+         * milliseconds.
+         */
+        private long leaseMillis = 60000;
+
+        /**
+         * Number of attempts after which a message is given up on.
+         */
+        private int maxAttempts = 8;
+
+        /**
+         * Delay before the second attempt, in milliseconds; it doubles at each attempt, with jitter.
+         */
+        private long initialBackoffMillis = 30000;
+
+        /**
+         * Maximum delay between two attempts, in milliseconds.
+         */
+        private long maxBackoffMillis = 3600000;
+
+        /**
+         * Time after their creation for which the messages given up on are kept, to investigate their failure, in
+         * hours; they hold activation and password reset links.
+         */
+        private long abandonedRetentionHours = 168;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getPollIntervalMillis() {
+            return pollIntervalMillis;
+        }
+
+        public void setPollIntervalMillis(long pollIntervalMillis) {
+            this.pollIntervalMillis = pollIntervalMillis;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public long getLeaseMillis() {
+            return leaseMillis;
+        }
+
+        public void setLeaseMillis(long leaseMillis) {
+            this.leaseMillis = leaseMillis;
+        }
+
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        public long getInitialBackoffMillis() {
+            return initialBackoffMillis;
+        }
+
+        public void setInitialBackoffMillis(long initialBackoffMillis) {
+            this.initialBackoffMillis = initialBackoffMillis;
+        }
+
+        public long getMaxBackoffMillis() {
+            return maxBackoffMillis;
+        }
+
+        public void setMaxBackoffMillis(long maxBackoffMillis) {
+            this.maxBackoffMillis = maxBackoffMillis;
+        }
+
+        public long getAbandonedRetentionHours() {
+            return abandonedRetentionHours;
+        }
+
+        public void setAbandonedRetentionHours(long abandonedRetentionHours) {
+            this.abandonedRetentionHours = abandonedRetentionHours;
+        }
+    }
+
+    public static class UserPurge {
+
+        /**
+         * Number of not activated users deleted per transaction.
+         */
+        private int chunkSize = 500;
+
+        /**
+         * Time after which a run stops at the end of its current chunk, in milliseconds; the next run resumes from
+         * there.
+         */
+        private long maxDurationMillis = 1800000;
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        public long getMaxDurationMillis() {
+            return maxDurationMillis;
+        }
+
+        public void setMaxDurationMillis(long maxDurationMillis) {
+            this.maxDurationMillis = maxDurationMillis;
+        }
+    }
+
+    public static class Cache {
+
+        /**
+         * Settings of the regions which have none of their own.
+         */
+        private final CacheRegion defaults = new CacheRegion(DataSize.ofMegabytes(10), null);
+
+        /**
+         * Settings of each region, by cache name, overriding the defaults.
+         */
+        private final Map<String, CacheRegion> regions = new HashMap<>();
+
+        /**
+         * Local directory of the disk tiers, which survive a restart of the application; required by the regions
+         * with a disk tier. The entries persisted by another build are dropped at startup. The entries are not
+         * encrypted: the directory must only be readable by the application.
+         */
+        private String persistenceDirectory;
+
+        private final Invalidation invalidation = new Invalidation();
+
+        public CacheRegion getDefaults() {
+            return defaults;
+        }
+
+        public Map<String, CacheRegion> getRegions() {
+            return regions;
+        }
+
+        public String getPersistenceDirectory() {
+            return persistenceDirectory;
+        }
+
+        public void setPersistenceDirectory(String persistenceDirectory) {
+            this.persistenceDirectory = persistenceDirectory;
+        }
+
+        public Invalidation getInvalidation() {
+            return invalidation;
+        }
+    }
+
+    public static class Invalidation {
+
+        /**
+         * Whether the cache invalidations are exchanged with the other nodes of the cluster.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Address on which the invalidations of the other nodes are received; all the interfaces when not set.
+         */
+        private String bindAddress;
+
+        /**
+         * Port on which the invalidations of the other nodes are received.
+         */
+        private int port = 7800;
+
+        /**
+         * The other nodes, as host:port; the list may include this node, which ignores its own invalidations.
+         */
+        private List<String> peers = new ArrayList<>();
+
+        /**
+         * Number of invalidations waiting to be sent to a node, beyond which they are replaced by the clearing of
+         * their regions once the node is reachable again.
+         */
+        private int queueCapacity = 10_000;
+
+        /**
+         * Timeout of the connection to a node, in milliseconds.
+         */
+        private int connectTimeoutMillis = 1000;
+
+        /**
+         * Delay after which an invalidation is applied again, in milliseconds, so that a load which was running
+         * during the commit cannot leave a stale entry; 0 to apply it only once.
+         */
+        private long repeatAfterMillis = 1000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getBindAddress() {
+            return bindAddress;
+        }
+
+        public void setBindAddress(String bindAddress) {
+            this.bindAddress = bindAddress;
+        }
+
+        public int getPort() {
+            return port;
+        }
+
+        public void setPort(int port) {
+            this.port = port;
+        }
+
+        public List<String> getPeers() {
+            return peers;
+        }
+
+        public void setPeers(List<String> peers) {
+            this.peers = peers;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public int getConnectTimeoutMillis() {
+            return connectTimeoutMillis;
+        }
+
+        public void setConnectTimeoutMillis(int connectTimeoutMillis) {
+            this.connectTimeoutMillis = connectTimeoutMillis;
+        }
+
+        public long getRepeatAfterMillis() {
+            return repeatAfterMillis;
+        }
+
+        public void setRepeatAfterMillis(long repeatAfterMillis) {
+            this.repeatAfterMillis = repeatAfterMillis;
+        }
+    }
+
+    public static class CacheRegion {
+
+        /**
+         * Size of the on-heap tier, in bytes of the object graphs of the entries.
+         */
+        private DataSize heapSize;
+
+        /**
+         * Size of the on-heap tier, in entries, instead of heap-size. For the regions whose values reference more than
+         * themselves when they are put, such as the entities of a session still open, which the sizing in bytes would
+         * walk through.
+         */
+        private Long heapEntries;
+
+        /**
+         * Size of the off-heap tier, in bytes of the serialized entries; none when not set. It is allocated when the
+         * region is created, out of -XX:MaxDirectMemorySize, and must be larger than the heap tier.
+         */
+        private DataSize offHeapSize;
+
+        /**
+         * Size of the disk tier, persisted under application.cache.persistence-directory and reloaded at startup; none
+         * when not set. It must be larger than the other tiers.
+         */
+        private DataSize diskSize;
+
+        /**
+         * Time to live of the entries, in seconds; jhipster.cache.ehcache.time-to-live-seconds when not set.
+         */
+        private Long timeToLiveSeconds;
+
+        /**
+         * Fraction of the time to live by which it is randomly shortened for each entry, so that entries loaded
+         * together do not expire together.
+         */
+        private Double timeToLiveJitter;
+
+        /**
+         * Fraction of the time to live after which a hit reloads the entry ahead of its expiry, in the background;
+         * only for the caches of Spring's cache abstraction which have a reloader. It should stay below 1 minus the
+         * jitter.
+         */
+        private Double refreshAheadRatio;
+
+        public CacheRegion() {}
+
+        public CacheRegion(DataSize heapSize, DataSize offHeapSize) {
+            this.heapSize = heapSize;
+            this.offHeapSize = offHeapSize;
+        }
+
+        public DataSize getHeapSize() {
+            return heapSize;
+        }
+
+        public void setHeapSize(DataSize heapSize) {
+            this.heapSize = heapSize;
+        }
+
+        public Long getHeapEntries() {
+            return heapEntries;
+        }
+
+        public void setHeapEntries(Long heapEntries) {
+            this.heapEntries = heapEntries;
+        }
+
+        public DataSize getOffHeapSize() {
+            return offHeapSize;
+        }
+
+        public void setOffHeapSize(DataSize offHeapSize) {
+            this.offHeapSize = offHeapSize;
+        }
+
+        public DataSize getDiskSize() {
+            return diskSize;
+        }
+
+        public void setDiskSize(DataSize diskSize) {
+            this.diskSize = diskSize;
+        }
+
+        public Long getTimeToLiveSeconds() {
+            return timeToLiveSeconds;
+        }
+
+        public void setTimeToLiveSeconds(Long timeToLiveSeconds) {
+            this.timeToLiveSeconds = timeToLiveSeconds;
+        }
+
+        public Double getTimeToLiveJitter() {
+            return timeToLiveJitter;
+        }
+
+        public void setTimeToLiveJitter(Double timeToLiveJitter) {
+            this.timeToLiveJitter = timeToLiveJitter;
+        }
+
+        public Double getRefreshAheadRatio() {
+            return refreshAheadRatio;
+        }
+
+        public void setRefreshAheadRatio(Double refreshAheadRatio) {
+            this.refreshAheadRatio = refreshAheadRatio;
+        }
+    }
+}
@@ -1,16 +1,19 @@
 package com.strongmind.todo.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import java.util.concurrent.Executor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
 import org.springframework.aop.interceptor.SimpleAsyncUncaughtExceptionHandler;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.task.TaskExecutionProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.AsyncConfigurer;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ConcurrentTaskExecutor;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import tech.jhipster.async.ExceptionHandlingAsyncTaskExecutor;
 
@@ -23,22 +26,95 @@ public class AsyncConfiguration implements AsyncConfigurer {
 
     private final TaskExecutionProperties taskExecutionProperties;
 
-    public AsyncConfiguration(TaskExecutionProperties taskExecutionProperties) {
+    private final ApplicationProperties applicationProperties;
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public AsyncConfiguration(
+        TaskExecutionProperties taskExecutionProperties,
+        ApplicationProperties applicationProperties,
+        ObjectProvider<MeterRegistry> meterRegistry
+    ) {
         this.taskExecutionProperties = taskExecutionProperties;
+        this.applicationProperties = applicationProperties;
+        this.meterRegistry = meterRegistry;
     }
 
     @Override
     @Bean(name = "taskExecutor")
     public Executor getAsyncExecutor() {
+        if (VirtualThreadSupport.isEnabled(applicationProperties)) {
+            log.debug("Creating Async Task Executor on virtual threads");
+            return VirtualThreadSupport
+                .newVirtualThreadPerTaskExecutor(taskExecutionProperties.getThreadNamePrefix())
+                .map(executor -> new ExceptionHandlingAsyncTaskExecutor(new ConcurrentTaskExecutor(executor)))
+                .orElseThrow();
+        }
         log.debug("Creating Async Task Executor");
-        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(taskExecutionProperties.getPool().getCoreSize());
-        executor.setMaxPoolSize(taskExecutionProperties.getPool().getMaxSize());
-        executor.setQueueCapacity(taskExecutionProperties.getPool().getQueueCapacity());
-        executor.setThreadNamePrefix(taskExecutionProperties.getThreadNamePrefix());
+        ThreadPoolTaskExecutor executor = BulkheadExecutors.create(
+            "taskExecutor",
+            taskExecutionProperties.getPool().getCoreSize(),
+            taskExecutionProperties.getPool().getMaxSize(),
+            taskExecutionProperties.getPool().getQueueCapacity(),
+            applicationProperties.getAsync().getTaskRejectionPolicy(),
+            taskExecutionProperties.getThreadNamePrefix(),
+            meterRegistry.getObject()
+        );
         return new ExceptionHandlingAsyncTaskExecutor(executor);
     }
 
+    /**
+     * Executor sending the emails, so that a slow SMTP server only holds its own threads and queue.
+     */
+    @Bean(name = "mailExecutor")
+    public ThreadPoolTaskExecutor mailExecutor() {
+        log.debug("Creating Mail Executor");
+        return BulkheadExecutors.create("mailExecutor", applicationProperties.getAsync().getMail(), "mail-", meterRegistry.getObject());
+    }
+
+    /**
+     * Executor reloading the cache entries ahead of their expiry, apart from the request threads.
+     */
+    @Bean(name = "cacheRefreshExecutor")
+    public ThreadPoolTaskExecutor cacheRefreshExecutor() {
+        log.debug("Creating Cache Refresh Executor");
+        return BulkheadExecutors.create(
+            "cacheRefreshExecutor",
+            applicationProperties.getAsync().getCacheRefresh(),
+            "cache-refresh-",
+            meterRegistry.getObject()
+        );
+    }
+
+    /**
+     * Executor running the asynchronous requests of Spring MVC, such as the streamed exports, so that each one does
+     * not get a new thread.
+     */
+    @Bean(name = "mvcAsyncExecutor")
+    public ThreadPoolTaskExecutor mvcAsyncExecutor() {
+        log.debug("Creating MVC Async Executor");
+        return BulkheadExecutors.create("mvcAsyncExecutor", applicationProperties.getAsync().getMvc(), "mvc-async-", meterRegistry.getObject());
+    }
+
+    /**
+     * Executor checking the passwords of the login attempts, apart from the request threads. Its queue is bounded and
+     * it rejects the tasks beyond it, so that login attempts fail fast instead of piling up.
+     */
+    @Bean(name = "passwordHashingExecutor")
+    public ThreadPoolTaskExecutor passwordHashingExecutor() {
+        log.debug("Creating Password Hashing Executor");
+        ApplicationProperties.Security.Login login = applicationProperties.getSecurity().getLogin();
+        return BulkheadExecutors.create(
+            "passwordHashingExecutor",
+            login.getHashingThreads(),
+            login.getHashingThreads(),
+            login.getHashingQueueCapacity(),
+            ApplicationProperties.RejectionPolicy.ABORT,
+            "password-hashing-",
+            meterRegistry.getObject()
+        );
+    }
+
     @Override
     public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
         return new SimpleAsyncUncaughtExceptionHandler();
@@ -0,0 +1,144 @@
+package com.strongmind.todo.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Factory of the bounded executors isolating each kind of asynchronous work, so that a slow dependency of one (such
+ * as the SMTP server) cannot exhaust the threads nor fill the heap of the others.
+ * <p>
+ * Each executor publishes, tagged with its name: the {@code executor.queued} and {@code executor.active} gauges, the
+ * {@code executor.rejected} counter, and the {@code executor.idle} (time in queue) and {@code executor} (run time)
+ * timers, named as in Micrometer's own executor metrics.
+ */
+final class BulkheadExecutors {
+
+    private BulkheadExecutors() {}
+
+    /**
+     * Create a bounded executor with a fixed number of threads.
+     *
+     * @param name the name of the executor, used in its metrics.
+     * @param bulkhead the size and rejection policy of the executor.
+     * @param threadNamePrefix the prefix of the names of its threads.
+     * @param meterRegistry the registry of its metrics.
+     * @return the executor, to be initialized.
+     */
+    static ThreadPoolTaskExecutor create(
+        String name,
+        ApplicationProperties.Bulkhead bulkhead,
+        String threadNamePrefix,
+        MeterRegistry meterRegistry
+    ) {
+        return create(
+            name,
+            bulkhead.getThreads(),
+            bulkhead.getThreads(),
+            bulkhead.getQueueCapacity(),
+            bulkhead.getRejectionPolicy(),
+            threadNamePrefix,
+            meterRegistry
+        );
+    }
+
+    /**
+     * Create a bounded executor, growing from its core size to its maximum size once its queue is full.
+     *
+     * @param name the name of the executor, used in its metrics.
+     * @param coreSize the number of threads kept alive.
+     * @param maxSize the maximum number of threads.
+     * @param queueCapacity the number of tasks waiting for a thread, beyond which the rejection policy applies.
+     * @param rejectionPolicy what is done with a task when the queue is full.
+     * @param threadNamePrefix the prefix of the names of its threads.
+     * @param meterRegistry the registry of its metrics.
+     * @return the executor, to be initialized.
+     */
+    static ThreadPoolTaskExecutor create(
+        String name,
+        int coreSize,
+        int maxSize,
+        int queueCapacity,
+        ApplicationProperties.RejectionPolicy rejectionPolicy,
+        String threadNamePrefix,
+        MeterRegistry meterRegistry
+    ) {
+        Tags tags = Tags.of("name", name);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(coreSize);
+        executor.setMaxPoolSize(maxSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix(threadNamePrefix);
+
+        Counter rejected = Counter
+            .builder("executor.rejected")
+            .description("The number of tasks rejected because the queue was full")
+            .baseUnit(BaseUnits.TASKS)
+            .tags(tags)
+            .register(meterRegistry);
+        executor.setRejectedExecutionHandler(rejectedExecutionHandler(rejectionPolicy, rejected));
+
+        Timer idle = Timer.builder("executor.idle").description("The time tasks waited in the queue").tags(tags).register(meterRegistry);
+        Timer run = Timer.builder("executor").description("The time tasks ran").tags(tags).register(meterRegistry);
+        executor.setTaskDecorator(task -> {
+            long submittedAt = System.nanoTime();
+            return () -> {
+                long startedAt = System.nanoTime();
+                idle.record(startedAt - submittedAt, TimeUnit.NANOSECONDS);
+                try {
+                    task.run();
+                } finally {
+                    run.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                }
+            };
+        });
+
+        Gauge
+            .builder("executor.queued", executor, BulkheadExecutors::queueSize)
+            .description("The approximate number of tasks that are queued for execution")
+            .baseUnit(BaseUnits.TASKS)
+            .tags(tags)
+            .register(meterRegistry);
+        Gauge
+            .builder("executor.active", executor, ThreadPoolTaskExecutor::getActiveCount)
+            .description("The approximate number of threads that are actively executing tasks")
+            .baseUnit(BaseUnits.THREADS)
+            .tags(tags)
+            .register(meterRegistry);
+        return executor;
+    }
+
+    private static RejectedExecutionHandler rejectedExecutionHandler(ApplicationProperties.RejectionPolicy rejectionPolicy, Counter rejected) {
+        RejectedExecutionHandler policy;
+        switch (rejectionPolicy) {
+            case CALLER_RUNS:
+                policy = new ThreadPoolExecutor.CallerRunsPolicy();
+                break;
+            case DISCARD:
+                policy = new ThreadPoolExecutor.DiscardPolicy();
+                break;
+            default:
+                policy = new ThreadPoolExecutor.AbortPolicy();
+        }
+        return (task, threadPoolExecutor) -> {
+            rejected.increment();
+            policy.rejectedExecution(task, threadPoolExecutor);
+        };
+    }
+
+    private static double queueSize(ThreadPoolTaskExecutor executor) {
+        try {
+            return executor.getThreadPoolExecutor().getQueue().size();
+        } catch (IllegalStateException e) {
+            // Not initialized yet
+            return 0;
+        }
+    }
+}
@@ -1,17 +1,58 @@
 package com.strongmind.todo.config;
 
+import com.strongmind.todo.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Clock;
 import java.time.Duration;
+import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import javax.cache.Caching;
+import org.ehcache.config.ResourceType;
 import org.ehcache.config.builders.*;
+import org.ehcache.config.units.EntryUnit;
+import org.ehcache.config.units.MemoryUnit;
+import org.ehcache.core.config.DefaultConfiguration;
+import org.ehcache.core.internal.statistics.DefaultTierStatistics;
+import org.ehcache.impl.config.persistence.CacheManagerPersistenceConfiguration;
 import org.ehcache.jsr107.Eh107Configuration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
 import org.hibernate.cache.jcache.ConfigSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
+import org.springframework.boot.actuate.cache.CachesEndpoint;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
 import org.springframework.boot.autoconfigure.cache.JCacheManagerCustomizer;
 import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
 import org.springframework.boot.info.BuildProperties;
 import org.springframework.boot.info.GitProperties;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.cache.jcache.JCacheCache;
+import org.springframework.cache.jcache.JCacheCacheManager;
 import org.springframework.context.annotation.*;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.unit.DataSize;
 import tech.jhipster.config.JHipsterProperties;
 import tech.jhipster.config.cache.PrefixedKeyGenerator;
 
@@ -19,20 +60,117 @@ import tech.jhipster.config.cache.PrefixedKeyGenerator;
 @EnableCaching
 public class CacheConfiguration {
 
+    private static final String BUILD_PREFIX_FILE = "build-prefix";
+
+    private static final String STORE_DIRECTORY = "ehcache";
+
+    /**
+     * The regions holding password hashes, activation and reset keys, and authorities: they are never persisted,
+     * so that a restarted node cannot reload them without the changes made, or invalidated, while it was down.
+     */
+    static final Set<String> HEAP_ONLY_REGIONS = Set.of(
+        UserRepository.USERS_BY_LOGIN_CACHE,
+        UserRepository.USERS_BY_EMAIL_CACHE,
+        com.strongmind.todo.domain.User.class.getName(),
+        com.strongmind.todo.domain.User.class.getName() + ".authorities"
+    );
+
+    private final Logger log = LoggerFactory.getLogger(CacheConfiguration.class);
+
     private GitProperties gitProperties;
     private BuildProperties buildProperties;
-    private final javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration;
+    private final JHipsterProperties.Cache.Ehcache ehcache;
+    private final ApplicationProperties.Cache cache;
+
+    public CacheConfiguration(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
+        this.ehcache = jHipsterProperties.getCache().getEhcache();
+        this.cache = applicationProperties.getCache();
+    }
 
-    public CacheConfiguration(JHipsterProperties jHipsterProperties) {
-        JHipsterProperties.Cache.Ehcache ehcache = jHipsterProperties.getCache().getEhcache();
+    /**
+     * The cache manager, given the directory of the disk tiers when there is one; the entries persisted there by
+     * another build are dropped first.
+     */
+    @Bean
+    public javax.cache.CacheManager jCacheCacheManager(ObjectProvider<JCacheManagerCustomizer> cacheManagerCustomizers) {
+        javax.cache.CacheManager cacheManager = createCacheManager(buildPrefix());
+        cacheManagerCustomizers.orderedStream().forEach(customizer -> customizer.customize(cacheManager));
+        return cacheManager;
+    }
+
+    javax.cache.CacheManager createCacheManager(String buildPrefix) {
+        EhcacheCachingProvider cachingProvider = (EhcacheCachingProvider) Caching.getCachingProvider(
+            EhcacheCachingProvider.class.getName()
+        );
+        DefaultConfiguration configuration;
+        if (cache.getPersistenceDirectory() == null) {
+            configuration = new DefaultConfiguration(cachingProvider.getDefaultClassLoader());
+        } else {
+            Path directory = Paths.get(cache.getPersistenceDirectory());
+            dropIncompatibleEntries(directory, buildPrefix);
+            configuration =
+                new DefaultConfiguration(
+                    cachingProvider.getDefaultClassLoader(),
+                    new CacheManagerPersistenceConfiguration(directory.resolve(STORE_DIRECTORY).toFile())
+                );
+        }
+        return cachingProvider.getCacheManager(cachingProvider.getDefaultURI(), configuration);
+    }
 
-        jcacheConfiguration =
-            Eh107Configuration.fromEhcacheCacheConfiguration(
-                CacheConfigurationBuilder
-                    .newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(ehcache.getMaxEntries()))
-                    .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(ehcache.getTimeToLiveSeconds())))
-                    .build()
-            );
+    /**
+     * Drop the store of the disk tiers unless its entries were written by this build, as they may no longer
+     * deserialize, or no longer match the entities. Without git nor build information, the build is unknown and
+     * the entries are always dropped. The other files of the persistence directory are left untouched; when it does
+     * not exist, it is created readable by the owner only.
+     */
+    private void dropIncompatibleEntries(Path directory, String buildPrefix) {
+        Path buildPrefixFile = directory.resolve(BUILD_PREFIX_FILE);
+        Path storeDirectory = directory.resolve(STORE_DIRECTORY);
+        try {
+            String persistedBuildPrefix = Files.exists(buildPrefixFile)
+                ? Files.readString(buildPrefixFile, StandardCharsets.UTF_8).trim()
+                : null;
+            if (buildPrefix == null || !buildPrefix.equals(persistedBuildPrefix)) {
+                if (Files.exists(storeDirectory)) {
+                    log.info("Dropping the cache entries persisted by build {}, incompatible with build {}", persistedBuildPrefix, buildPrefix);
+                }
+                FileSystemUtils.deleteRecursively(storeDirectory);
+                Files.deleteIfExists(buildPrefixFile);
+                createPrivateDirectories(directory);
+                if (buildPrefix != null) {
+                    Files.writeString(buildPrefixFile, buildPrefix, StandardCharsets.UTF_8);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not prepare the cache persistence directory " + directory, e);
+        }
+    }
+
+    private static void createPrivateDirectories(Path directory) throws IOException {
+        if (Files.exists(directory)) {
+            return;
+        }
+        if (directory.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+            Files.createDirectories(directory, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------")));
+        } else {
+            Files.createDirectories(directory);
+        }
+    }
+
+    /**
+     * The build prefix of the {@link PrefixedKeyGenerator}: the git commit, else the build time, else the version.
+     */
+    String buildPrefix() {
+        if (gitProperties != null && gitProperties.getShortCommitId() != null) {
+            return gitProperties.getShortCommitId();
+        }
+        if (buildProperties != null && buildProperties.getTime() != null) {
+            return DateTimeFormatter.ISO_INSTANT.format(buildProperties.getTime());
+        }
+        if (buildProperties != null) {
+            return buildProperties.getVersion();
+        }
+        return null;
     }
 
     @Bean
@@ -43,8 +181,8 @@ public class CacheConfiguration {
     @Bean
     public JCacheManagerCustomizer cacheManagerCustomizer() {
         return cm -> {
-            createCache(cm, com.strongmind.todo.repository.UserRepository.USERS_BY_LOGIN_CACHE);
-            createCache(cm, com.strongmind.todo.repository.UserRepository.USERS_BY_EMAIL_CACHE);
+            createCache(cm, UserRepository.USERS_BY_LOGIN_CACHE);
+            createCache(cm, UserRepository.USERS_BY_EMAIL_CACHE);
             createCache(cm, com.strongmind.todo.domain.User.class.getName());
             createCache(cm, com.strongmind.todo.domain.Authority.class.getName());
             createCache(cm, com.strongmind.todo.domain.User.class.getName() + ".authorities");
@@ -53,13 +191,151 @@ public class CacheConfiguration {
         };
     }
 
+    /**
+     * Create a region, with its statistics enabled, or empty it when it exists.
+     */
     private void createCache(javax.cache.CacheManager cm, String cacheName) {
         javax.cache.Cache<Object, Object> cache = cm.getCache(cacheName);
         if (cache != null) {
             cache.clear();
         } else {
-            cm.createCache(cacheName, jcacheConfiguration);
+            cache = cm.createCache(cacheName, jcacheConfiguration(cacheName));
+            org.ehcache.Cache<?, ?> ehcacheCache = cache.unwrap(org.ehcache.Cache.class);
+            if (ehcacheCache.getRuntimeConfiguration().getResourcePools().getPoolForResource(ResourceType.Core.DISK) != null) {
+                log.info("Reloaded {} persisted entries of cache {}", new DefaultTierStatistics(ehcacheCache, "Disk").getMappings(), cacheName);
+            }
         }
+        cm.enableStatistics(cacheName, true);
+    }
+
+    /**
+     * The configuration of a region: a heap tier sized in bytes, so that large entries cannot fill the heap, or in
+     * entries for the values which cannot be sized apart from what they reference, backed by an optional off-heap
+     * tier holding the bulk of the entries out of reach of the garbage collector, and by an optional disk tier
+     * surviving restarts, which the {@link #HEAP_ONLY_REGIONS} cannot have.
+     */
+    javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration(String cacheName) {
+        DataSize heapSize = setting(cacheName, ApplicationProperties.CacheRegion::getHeapSize);
+        Long heapEntries = setting(cacheName, ApplicationProperties.CacheRegion::getHeapEntries);
+        DataSize offHeapSize = setting(cacheName, ApplicationProperties.CacheRegion::getOffHeapSize);
+        DataSize diskSize = setting(cacheName, ApplicationProperties.CacheRegion::getDiskSize);
+        Double timeToLiveJitter = setting(cacheName, ApplicationProperties.CacheRegion::getTimeToLiveJitter);
+
+        ResourcePoolsBuilder resourcePools = heapEntries != null
+            ? ResourcePoolsBuilder.newResourcePoolsBuilder().heap(heapEntries, EntryUnit.ENTRIES)
+            : ResourcePoolsBuilder.newResourcePoolsBuilder().heap(heapSize.toBytes(), MemoryUnit.B);
+        if (offHeapSize != null && offHeapSize.toBytes() > 0) {
+            resourcePools = resourcePools.offheap(offHeapSize.toBytes(), MemoryUnit.B);
+        }
+        if (diskSize != null && diskSize.toBytes() > 0) {
+            if (HEAP_ONLY_REGIONS.contains(cacheName)) {
+                throw new IllegalStateException("Cache " + cacheName + " holds credentials and must not have a disk tier");
+            }
+            if (cache.getPersistenceDirectory() == null) {
+                throw new IllegalStateException("The disk tier of cache " + cacheName + " requires application.cache.persistence-directory");
+            }
+            resourcePools = resourcePools.disk(diskSize.toBytes(), MemoryUnit.B, true);
+        }
+        return Eh107Configuration.fromEhcacheCacheConfiguration(
+            CacheConfigurationBuilder
+                .newCacheConfigurationBuilder(Object.class, Object.class, resourcePools)
+                .withExpiry(
+                    timeToLiveJitter != null && timeToLiveJitter > 0
+                        ? new JitteredExpiryPolicy(timeToLive(cacheName), timeToLiveJitter)
+                        : ExpiryPolicyBuilder.timeToLiveExpiration(timeToLive(cacheName))
+                )
+                .build()
+        );
+    }
+
+    private Duration timeToLive(String cacheName) {
+        Long timeToLiveSeconds = setting(cacheName, ApplicationProperties.CacheRegion::getTimeToLiveSeconds);
+        return Duration.ofSeconds(timeToLiveSeconds != null ? timeToLiveSeconds : ehcache.getTimeToLiveSeconds());
+    }
+
+    /**
+     * A setting of a region, else of the defaults.
+     */
+    private <T> T setting(String cacheName, Function<ApplicationProperties.CacheRegion, T> setting) {
+        return Optional
+            .ofNullable(cache.getRegions().get(cacheName))
+            .map(setting)
+            .orElseGet(() -> setting.apply(cache.getDefaults()));
+    }
+
+    /**
+     * The caches of Spring's cache abstraction, where the user lookups are {@link RefreshAheadCache}s: a missing
+     * login or email is loaded once for concurrent lookups, and the entries still used late in their life are
+     * reloaded before they expire.
+     */
+    @Bean
+    public org.springframework.cache.CacheManager cacheManager(
+        javax.cache.CacheManager jCacheCacheManager,
+        ObjectProvider<UserRepository> userRepository,
+        @Qualifier("cacheRefreshExecutor") Executor cacheRefreshExecutor,
+        MeterRegistry meterRegistry
+    ) {
+        Map<String, Function<Object, Object>> reloaders = Map.of(
+            UserRepository.USERS_BY_LOGIN_CACHE,
+            login -> userRepository.getObject().findOneWithAuthoritiesByLoginUncached((String) login).orElse(null),
+            UserRepository.USERS_BY_EMAIL_CACHE,
+            email -> userRepository.getObject().findOneWithAuthoritiesByEmailIgnoreCaseUncached((String) email).orElse(null)
+        );
+        return new JCacheCacheManager(jCacheCacheManager) {
+            @Override
+            protected Collection<org.springframework.cache.Cache> loadCaches() {
+                return super
+                    .loadCaches()
+                    .stream()
+                    .map(springCache -> {
+                        Function<Object, Object> reloader = reloaders.get(springCache.getName());
+                        if (reloader == null) {
+                            return springCache;
+                        }
+                        Double refreshAheadRatio = setting(springCache.getName(), ApplicationProperties.CacheRegion::getRefreshAheadRatio);
+                        Duration refreshAfter = refreshAheadRatio != null
+                            ? Duration.ofMillis((long) (timeToLive(springCache.getName()).toMillis() * refreshAheadRatio))
+                            : null;
+                        return new RefreshAheadCache(
+                            getCacheManager().getCache(springCache.getName()),
+                            reloader,
+                            refreshAfter,
+                            cacheRefreshExecutor,
+                            Clock.systemUTC(),
+                            meterRegistry
+                        );
+                    })
+                    .collect(Collectors.toList());
+            }
+        };
+    }
+
+    @Bean
+    public CacheFootprintMetrics cacheFootprintMetrics(javax.cache.CacheManager cacheManager) {
+        return new CacheFootprintMetrics(cacheManager);
+    }
+
+    /**
+     * Binds the statistics of the JCache regions, before the provider of Spring Boot, so that they publish their size.
+     */
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public CacheMeterBinderProvider<JCacheCache> cacheRegionMeterBinderProvider() {
+        return new CacheMeterBinderProvider<>() {
+            @Override
+            public MeterBinder getMeterBinder(JCacheCache cache, Iterable<Tag> tags) {
+                return new CacheRegionMetrics(cache.getNativeCache(), tags);
+            }
+        };
+    }
+
+    @Bean
+    @ConditionalOnAvailableEndpoint(endpoint = CachesEndpoint.class)
+    public CacheStatisticsEndpoint cachesEndpoint(
+        Map<String, org.springframework.cache.CacheManager> cacheManagers,
+        MeterRegistry meterRegistry
+    ) {
+        return new CacheStatisticsEndpoint(cacheManagers, meterRegistry);
     }
 
     @Autowired(required = false)
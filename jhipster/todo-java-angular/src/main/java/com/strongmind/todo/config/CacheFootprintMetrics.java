@@ -0,0 +1,91 @@
+package com.strongmind.todo.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ToDoubleFunction;
+import org.ehcache.config.ResourcePools;
+import org.ehcache.config.ResourceType;
+import org.ehcache.config.SizedResourcePool;
+import org.ehcache.config.units.MemoryUnit;
+import org.ehcache.core.internal.statistics.DefaultTierStatistics;
+import org.ehcache.core.statistics.TierStatistics;
+
+/**
+ * Publishes the memory footprint of each tier of the Ehcache regions: the {@code cache.tier.occupied} and
+ * {@code cache.tier.allocated} gauges, in bytes, and the {@code cache.tier.mappings} gauge, tagged with the
+ * {@code name} of the cache, as the other cache metrics, and the {@code tier} ({@code heap}, {@code offheap} or
+ * {@code disk}).
+ * <p>
+ * The bytes of a heap tier are only published when it is sized in bytes: a heap tier sized in entries does not
+ * measure them.
+ */
+public class CacheFootprintMetrics implements MeterBinder {
+
+    private static final Map<ResourceType.Core, String> TIERS = Map.of(
+        ResourceType.Core.HEAP,
+        "OnHeap",
+        ResourceType.Core.OFFHEAP,
+        "OffHeap",
+        ResourceType.Core.DISK,
+        "Disk"
+    );
+
+    private final javax.cache.CacheManager cacheManager;
+
+    public CacheFootprintMetrics(javax.cache.CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (String cacheName : cacheManager.getCacheNames()) {
+            @SuppressWarnings("unchecked")
+            org.ehcache.Cache<Object, Object> cache = cacheManager.getCache(cacheName).unwrap(org.ehcache.Cache.class);
+            ResourcePools resourcePools = cache.getRuntimeConfiguration().getResourcePools();
+            for (ResourceType<?> resourceType : resourcePools.getResourceTypeSet()) {
+                String tierName = TIERS.get(resourceType);
+                if (tierName != null) {
+                    TierStatistics statistics = new DefaultTierStatistics(cache, tierName);
+                    Tags tags = Tags.of("name", cacheName, "tier", resourceType.toString().toLowerCase(Locale.ROOT));
+                    if (((SizedResourcePool) resourcePools.getPoolForResource(resourceType)).getUnit() instanceof MemoryUnit) {
+                        gauge(registry, "cache.tier.occupied", "The bytes used by the entries", BaseUnits.BYTES, tags, statistics, TierStatistics::getOccupiedByteSize);
+                        gauge(registry, "cache.tier.allocated", "The bytes reserved by the tier", BaseUnits.BYTES, tags, statistics, TierStatistics::getAllocatedByteSize);
+                    }
+                    gauge(registry, "cache.tier.mappings", "The number of entries", null, tags, statistics, TierStatistics::getMappings);
+                }
+            }
+        }
+    }
+
+    /**
+     * The number of entries of a region: the mappings of its lowest tier, which holds all of them.
+     */
+    static long mappings(org.ehcache.Cache<?, ?> cache) {
+        Set<ResourceType<?>> resourceTypes = cache.getRuntimeConfiguration().getResourcePools().getResourceTypeSet();
+        for (ResourceType.Core resourceType : List.of(ResourceType.Core.DISK, ResourceType.Core.OFFHEAP, ResourceType.Core.HEAP)) {
+            if (resourceTypes.contains(resourceType)) {
+                return new DefaultTierStatistics(cache, TIERS.get(resourceType)).getMappings();
+            }
+        }
+        return 0;
+    }
+
+    private static void gauge(
+        MeterRegistry registry,
+        String name,
+        String description,
+        String baseUnit,
+        Tags tags,
+        TierStatistics statistics,
+        ToDoubleFunction<TierStatistics> value
+    ) {
+        Gauge.builder(name, statistics, value).strongReference(true).description(description).baseUnit(baseUnit).tags(tags).register(registry);
+    }
+}
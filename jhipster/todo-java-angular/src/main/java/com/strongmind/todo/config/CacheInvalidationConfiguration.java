@@ -0,0 +1,146 @@
+package com.strongmind.todo.config;
+
+import com.strongmind.todo.service.CacheInvalidationService;
+import java.util.List;
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.AbstractCollectionEvent;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCollectionRecreateEvent;
+import org.hibernate.event.spi.PostCollectionRecreateEventListener;
+import org.hibernate.event.spi.PostCollectionRemoveEvent;
+import org.hibernate.event.spi.PostCollectionRemoveEventListener;
+import org.hibernate.event.spi.PostCollectionUpdateEvent;
+import org.hibernate.event.spi.PostCollectionUpdateEventListener;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.collection.CollectionPersister;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Evicts the entities and collections changed on this node from the second level cache of the other nodes, once
+ * their transaction commits, through the {@link CacheInvalidationService}.
+ * <p>
+ * The bulk updates and deletes, which Hibernate does not see entity by entity, are invalidated by their callers.
+ */
+@Configuration
+public class CacheInvalidationConfiguration {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final CacheInvalidationService cacheInvalidationService;
+
+    public CacheInvalidationConfiguration(EntityManagerFactory entityManagerFactory, CacheInvalidationService cacheInvalidationService) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.cacheInvalidationService = cacheInvalidationService;
+    }
+
+    @PostConstruct
+    public void registerListeners() {
+        EventListenerRegistry registry = entityManagerFactory
+            .unwrap(SessionFactoryImplementor.class)
+            .getServiceRegistry()
+            .getService(EventListenerRegistry.class);
+        EntityListener entityListener = new EntityListener(cacheInvalidationService);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, entityListener);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, entityListener);
+        CollectionListener collectionListener = new CollectionListener(cacheInvalidationService);
+        registry.appendListeners(EventType.POST_COLLECTION_UPDATE, collectionListener);
+        registry.appendListeners(EventType.POST_COLLECTION_REMOVE, collectionListener);
+        registry.appendListeners(EventType.POST_COLLECTION_RECREATE, collectionListener);
+    }
+
+    /**
+     * Invalidates the cached entities updated or deleted, after the commit.
+     */
+    static class EntityListener implements PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient CacheInvalidationService cacheInvalidationService;
+
+        EntityListener(CacheInvalidationService cacheInvalidationService) {
+            this.cacheInvalidationService = cacheInvalidationService;
+        }
+
+        @Override
+        public void onPostUpdate(PostUpdateEvent event) {
+            cacheInvalidationService.entitiesChanged(event.getPersister().getEntityName(), List.of(event.getId()));
+        }
+
+        @Override
+        public void onPostDelete(PostDeleteEvent event) {
+            cacheInvalidationService.entitiesChanged(event.getPersister().getEntityName(), List.of(event.getId()));
+        }
+
+        @Override
+        public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+            // Nothing changed
+        }
+
+        @Override
+        public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+            // Nothing changed
+        }
+
+        @Override
+        @SuppressWarnings("deprecation") // Still the abstract method in Hibernate 5, which requiresPostCommitHandling delegates to
+        public boolean requiresPostCommitHanding(EntityPersister persister) {
+            return persister.canWriteToCache();
+        }
+    }
+
+    /**
+     * Invalidates the cached collections changed, after the commit.
+     */
+    static class CollectionListener
+        implements PostCollectionUpdateEventListener, PostCollectionRemoveEventListener, PostCollectionRecreateEventListener {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient CacheInvalidationService cacheInvalidationService;
+
+        CollectionListener(CacheInvalidationService cacheInvalidationService) {
+            this.cacheInvalidationService = cacheInvalidationService;
+        }
+
+        @Override
+        public void onPostUpdateCollection(PostCollectionUpdateEvent event) {
+            collectionChanged(event);
+        }
+
+        @Override
+        public void onPostRemoveCollection(PostCollectionRemoveEvent event) {
+            collectionChanged(event);
+        }
+
+        @Override
+        public void onPostRecreateCollection(PostCollectionRecreateEvent event) {
+            collectionChanged(event);
+        }
+
+        private void collectionChanged(AbstractCollectionEvent event) {
+            String role = event.getCollection().getRole();
+            Object ownerId = event.getAffectedOwnerIdOrNull();
+            if (role == null || ownerId == null) {
+                return;
+            }
+            CollectionPersister persister = event.getSession().getFactory().getMetamodel().collectionPersister(role);
+            if (persister.hasCache()) {
+                event
+                    .getSession()
+                    .getActionQueue()
+                    .registerProcess((success, session) -> {
+                        if (success) {
+                            cacheInvalidationService.collectionsChanged(role, List.of(ownerId));
+                        }
+                    });
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.strongmind.todo.config;
+
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+
+/**
+ * The JCache statistics of an Ehcache region: the {@code cache.gets} (tagged with their {@code result}),
+ * {@code cache.puts}, {@code cache.evictions} and {@code cache.removals} meters of {@link JCacheMetrics}, and the
+ * {@code cache.size} gauge, which JCache does not provide, read from the lowest tier of the region.
+ * <p>
+ * The statistics of the region must be enabled.
+ */
+public class CacheRegionMetrics extends JCacheMetrics<Object, Object, javax.cache.Cache<Object, Object>> {
+
+    public CacheRegionMetrics(javax.cache.Cache<Object, Object> cache, Iterable<Tag> tags) {
+        super(cache, tags);
+    }
+
+    @Override
+    protected Long size() {
+        javax.cache.Cache<Object, Object> cache = getCache();
+        return cache != null && !cache.isClosed() ? CacheFootprintMetrics.mappings(cache.unwrap(org.ehcache.Cache.class)) : null;
+    }
+}
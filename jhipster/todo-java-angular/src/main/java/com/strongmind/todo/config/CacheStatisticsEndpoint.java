@@ -0,0 +1,151 @@
+package com.strongmind.todo.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import org.springframework.boot.actuate.cache.CachesEndpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+/**
+ * The {@code caches} management endpoint, where each cache of the listing also gives its statistics, read from the
+ * cache metrics tagged with its {@code name} and {@code cacheManager}.
+ * <p>
+ * A statistic is {@code null} when its metric is not published for the cache.
+ */
+public class CacheStatisticsEndpoint extends CachesEndpoint {
+
+    private final Map<String, CacheManager> cacheManagers;
+
+    private final MeterRegistry meterRegistry;
+
+    public CacheStatisticsEndpoint(Map<String, CacheManager> cacheManagers, MeterRegistry meterRegistry) {
+        super(cacheManagers);
+        this.cacheManagers = new LinkedHashMap<>(cacheManagers);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    @ReadOperation
+    public CachesReport caches() {
+        Map<String, CacheManagerDescriptor> cacheManagerDescriptors = new LinkedHashMap<>();
+        cacheManagers.forEach((cacheManagerName, cacheManager) -> {
+            Map<String, CacheDescriptor> cacheDescriptors = new LinkedHashMap<>();
+            cacheManager
+                .getCacheNames()
+                .stream()
+                .map(cacheManager::getCache)
+                .filter(Objects::nonNull)
+                .forEach(cache -> cacheDescriptors.put(cache.getName(), describe(cache, cacheManagerName)));
+            cacheManagerDescriptors.put(cacheManagerName, new CacheManagerDescriptor(cacheDescriptors));
+        });
+        return new CachesReport(cacheManagerDescriptors);
+    }
+
+    private CacheStatisticsDescriptor describe(Cache cache, String cacheManagerName) {
+        Tags tags = Tags.of("name", cache.getName(), "cacheManager", cacheManagerName);
+        Timer loads = meterRegistry.find("cache.loads").tag("name", cache.getName()).tag("result", "success").timer();
+        return new CacheStatisticsDescriptor(
+            cache.getNativeCache().getClass().getName(),
+            count(meterRegistry.find("cache.gets").tags(tags).tag("result", "hit").functionCounter()),
+            count(meterRegistry.find("cache.gets").tags(tags).tag("result", "miss").functionCounter()),
+            count(meterRegistry.find("cache.puts").tags(tags).functionCounter()),
+            count(meterRegistry.find("cache.evictions").tags(tags).functionCounter()),
+            value(meterRegistry.find("cache.removals").tags(tags).gauge()),
+            value(meterRegistry.find("cache.size").tags(tags).gauge()),
+            loads != null ? loads.count() : null,
+            loads != null ? loads.mean(TimeUnit.MILLISECONDS) : null
+        );
+    }
+
+    private static Long count(FunctionCounter counter) {
+        return counter != null ? (long) counter.count() : null;
+    }
+
+    private static Long value(Gauge gauge) {
+        return gauge != null && !Double.isNaN(gauge.value()) ? (long) gauge.value() : null;
+    }
+
+    /**
+     * A cache, with its statistics.
+     */
+    public static final class CacheStatisticsDescriptor extends CacheDescriptor {
+
+        private final Long hits;
+
+        private final Long misses;
+
+        private final Long puts;
+
+        private final Long evictions;
+
+        private final Long removals;
+
+        private final Long size;
+
+        private final Long loads;
+
+        private final Double meanLoadMillis;
+
+        CacheStatisticsDescriptor(
+            String target,
+            Long hits,
+            Long misses,
+            Long puts,
+            Long evictions,
+            Long removals,
+            Long size,
+            Long loads,
+            Double meanLoadMillis
+        ) {
+            super(target);
+            this.hits = hits;
+            this.misses = misses;
+            this.puts = puts;
+            this.evictions = evictions;
+            this.removals = removals;
+            this.size = size;
+            this.loads = loads;
+            this.meanLoadMillis = meanLoadMillis;
+        }
+
+        public Long getHits() {
+            return hits;
+        }
+
+        public Long getMisses() {
+            return misses;
+        }
+
+        public Long getPuts() {
+            return puts;
+        }
+
+        public Long getEvictions() {
+            return evictions;
+        }
+
+        public Long getRemovals() {
+            return removals;
+        }
+
+        public Long getSize() {
+            return size;
+        }
+
+        public Long getLoads() {
+            return loads;
+        }
+
+        public Double getMeanLoadMillis() {
+            return meanLoadMillis;
+        }
+    }
+}
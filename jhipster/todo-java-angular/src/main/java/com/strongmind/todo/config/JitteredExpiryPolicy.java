@@ -0,0 +1,38 @@
+package com.strongmind.todo.config;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import org.ehcache.expiry.ExpiryPolicy;
+
+/**
+ * A time to live randomly shortened by up to a fraction of it for each created or updated entry, so that the entries
+ * loaded together do not expire, and are not loaded again, together.
+ */
+class JitteredExpiryPolicy implements ExpiryPolicy<Object, Object> {
+
+    private final long timeToLiveMillis;
+
+    private final double jitter;
+
+    JitteredExpiryPolicy(Duration timeToLive, double jitter) {
+        this.timeToLiveMillis = timeToLive.toMillis();
+        this.jitter = Math.min(jitter, 1);
+    }
+
+    @Override
+    public Duration getExpiryForCreation(Object key, Object value) {
+        return Duration.ofMillis(timeToLiveMillis - (long) (ThreadLocalRandom.current().nextDouble() * jitter * timeToLiveMillis));
+    }
+
+    @Override
+    public Duration getExpiryForAccess(Object key, Supplier<?> value) {
+        // Unchanged
+        return null;
+    }
+
+    @Override
+    public Duration getExpiryForUpdate(Object key, Supplier<?> oldValue, Object newValue) {
+        return getExpiryForCreation(key, newValue);
+    }
+}
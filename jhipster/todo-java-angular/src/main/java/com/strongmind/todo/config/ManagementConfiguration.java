@@ -0,0 +1,136 @@
+package com.strongmind.todo.config;
+
+import com.strongmind.todo.management.CachedHealthIndicator;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.undertow.server.HttpHandler;
+import io.undertow.server.HttpServerExchange;
+import java.util.concurrent.RejectedExecutionException;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.actuate.autoconfigure.endpoint.web.WebEndpointProperties;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.jdbc.DataSourceHealthIndicator;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.boot.web.embedded.undertow.UndertowServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Isolation of the management endpoints from the user traffic, so that a saturated API does not fail the probes.
+ * <p>
+ * The management requests are served by their own executor instead of the Undertow workers, and the database health
+ * check is cached briefly and skipped while the connection pool is saturated.
+ */
+@Configuration
+public class ManagementConfiguration {
+
+    private final Logger log = LoggerFactory.getLogger(ManagementConfiguration.class);
+
+    private final ApplicationProperties applicationProperties;
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public ManagementConfiguration(ApplicationProperties applicationProperties, ObjectProvider<MeterRegistry> meterRegistry) {
+        this.applicationProperties = applicationProperties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Bean(name = "managementExecutor")
+    public ThreadPoolTaskExecutor managementExecutor() {
+        log.debug("Creating Management Executor");
+        ApplicationProperties.Management management = applicationProperties.getManagement();
+        return BulkheadExecutors.create(
+            "managementExecutor",
+            management.getThreads(),
+            management.getThreads(),
+            management.getQueueCapacity(),
+            ApplicationProperties.RejectionPolicy.ABORT,
+            "management-",
+            meterRegistry.getObject()
+        );
+    }
+
+    @Bean
+    public WebServerFactoryCustomizer<UndertowServletWebServerFactory> managementDispatchCustomizer(
+        @Qualifier("managementExecutor") ThreadPoolTaskExecutor managementExecutor,
+        WebEndpointProperties webEndpointProperties
+    ) {
+        String basePath = webEndpointProperties.getBasePath() + "/";
+        return factory -> {
+            if (VirtualThreadSupport.isEnabled(applicationProperties)) {
+                // Each request has its own virtual thread: the API cannot starve the management endpoints of threads
+                return;
+            }
+            factory.addDeploymentInfoCustomizers(deploymentInfo ->
+                deploymentInfo.addInitialHandlerChainWrapper(next -> new ManagementDispatchHandler(next, basePath, managementExecutor))
+            );
+        };
+    }
+
+    /**
+     * Replaces the {@code db} health contributor of Spring Boot.
+     */
+    @Bean(name = "dbHealthContributor")
+    public HealthIndicator dbHealthContributor(DataSource dataSource) {
+        ApplicationProperties.Management management = applicationProperties.getManagement();
+        HikariDataSource hikariDataSource = DataSourceUnwrapper.unwrap(dataSource, HikariDataSource.class);
+        return new CachedHealthIndicator(
+            new DataSourceHealthIndicator(dataSource),
+            management.getDbHealthCacheMillis(),
+            management.getDbHealthMaxStaleMillis(),
+            () -> isSaturated(hikariDataSource)
+        );
+    }
+
+    private static boolean isSaturated(HikariDataSource dataSource) {
+        if (dataSource == null) {
+            return false;
+        }
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        return pool != null && pool.getThreadsAwaitingConnection() > 0;
+    }
+
+    /**
+     * Dispatches the management requests from the IO thread to the management executor, and the others to the
+     * Undertow workers as usual. When the management executor is full, its requests fall back to the workers.
+     */
+    static class ManagementDispatchHandler implements HttpHandler {
+
+        private final HttpHandler next;
+
+        private final String basePath;
+
+        private final ThreadPoolTaskExecutor managementExecutor;
+
+        ManagementDispatchHandler(HttpHandler next, String basePath, ThreadPoolTaskExecutor managementExecutor) {
+            this.next = next;
+            this.basePath = basePath;
+            this.managementExecutor = managementExecutor;
+        }
+
+        @Override
+        public void handleRequest(HttpServerExchange exchange) throws Exception {
+            if (!exchange.isInIoThread() || !exchange.getRelativePath().startsWith(basePath)) {
+                next.handleRequest(exchange);
+                return;
+            }
+            exchange.dispatch(
+                task -> {
+                    try {
+                        managementExecutor.execute(task);
+                    } catch (RejectedExecutionException e) {
+                        exchange.getIoThread().getWorker().execute(task);
+                    }
+                },
+                next
+            );
+        }
+    }
+}
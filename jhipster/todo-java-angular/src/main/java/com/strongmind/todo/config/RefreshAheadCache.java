@@ -0,0 +1,240 @@
+package com.strongmind.todo.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.Serializable;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.jcache.JCacheCache;
+
+/**
+ * A JCache region of Spring's cache abstraction which loads each missing key once, and reloads the entries used
+ * late in their life before they expire.
+ * <p>
+ * Concurrent misses of a key, through {@code @Cacheable(sync = true)}, wait for the load of the first one instead of
+ * each querying the database: they are counted by the {@code cache.loads.coalesced} counter. A hit on an entry older
+ * than the refresh-ahead time reloads it asynchronously with the reloader, while the current value is returned:
+ * the reloads are counted by the {@code cache.refreshes} counter, tagged with their {@code result}. A reloaded value
+ * only replaces the entry it was loaded for, so that an entry evicted meanwhile stays evicted. A miss never waits for
+ * a reload, which may have read the database before the change the entry was evicted for: it loads the key anew.
+ * <p>
+ * The loads and reloads are timed by the {@code cache.loads} timer, tagged with their {@code result}.
+ * <p>
+ * The entries are stored with their load time.
+ */
+public class RefreshAheadCache extends JCacheCache {
+
+    private final Logger log = LoggerFactory.getLogger(RefreshAheadCache.class);
+
+    private final Function<Object, Object> reloader;
+
+    private final Duration refreshAfter;
+
+    private final Executor executor;
+
+    private final Clock clock;
+
+    private final ConcurrentMap<Object, CompletableFuture<Object>> loads = new ConcurrentHashMap<>();
+
+    private final Set<Object> refreshes = ConcurrentHashMap.newKeySet();
+
+    private final Counter coalescedLoads;
+
+    private final Counter refreshed;
+
+    private final Counter failedRefreshes;
+
+    private final Timer loadTime;
+
+    private final Timer failedLoadTime;
+
+    /**
+     * @param jcache the JCache region.
+     * @param reloader loads the value of a key, or {@code null}, without going through this cache.
+     * @param refreshAfter the age after which a hit reloads an entry, shorter than the time to live of the entries;
+     *                     {@code null} to never reload them.
+     * @param executor the executor of the reloads; a rejected reload is skipped.
+     * @param clock the clock of the load times.
+     * @param meterRegistry the registry of the metrics.
+     */
+    public RefreshAheadCache(
+        javax.cache.Cache<Object, Object> jcache,
+        Function<Object, Object> reloader,
+        Duration refreshAfter,
+        Executor executor,
+        Clock clock,
+        MeterRegistry meterRegistry
+    ) {
+        super(jcache);
+        this.reloader = reloader;
+        this.refreshAfter = refreshAfter;
+        this.executor = executor;
+        this.clock = clock;
+        this.coalescedLoads = Counter
+            .builder("cache.loads.coalesced")
+            .description("The number of misses which waited for the load of the same key by another one")
+            .tag("name", jcache.getName())
+            .register(meterRegistry);
+        this.refreshed = refreshCounter(meterRegistry, jcache.getName(), "success");
+        this.failedRefreshes = refreshCounter(meterRegistry, jcache.getName(), "failure");
+        this.loadTime = loadTimer(meterRegistry, jcache.getName(), "success");
+        this.failedLoadTime = loadTimer(meterRegistry, jcache.getName(), "failure");
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        Object storeValue = lookup(key);
+        if (storeValue != null) {
+            refreshIfOld(key, storeValue);
+        }
+        return toValueWrapper(storeValue);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object storeValue = lookup(key);
+        if (storeValue != null) {
+            refreshIfOld(key, storeValue);
+            return (T) fromStoreValue(storeValue);
+        }
+        CompletableFuture<Object> load = new CompletableFuture<>();
+        CompletableFuture<Object> inFlight = loads.putIfAbsent(key, load);
+        if (inFlight != null) {
+            coalescedLoads.increment();
+            try {
+                return (T) fromStoreValue(inFlight.join());
+            } catch (CompletionException e) {
+                throw new ValueRetrievalException(key, valueLoader, e.getCause());
+            }
+        }
+        try {
+            // Loaded by another miss, which completed since the lookup; containsKey leaves the statistics unchanged
+            storeValue = getNativeCache().containsKey(key) ? lookup(key) : null;
+            if (storeValue == null) {
+                storeValue = toStoreValue(load(valueLoader));
+                getNativeCache().put(key, storeValue);
+            }
+            load.complete(storeValue);
+            return (T) fromStoreValue(storeValue);
+        } catch (Exception e) {
+            load.completeExceptionally(e);
+            throw new ValueRetrievalException(key, valueLoader, e);
+        } finally {
+            loads.remove(key, load);
+        }
+    }
+
+    @Override
+    protected Object toStoreValue(Object userValue) {
+        return new Entry(super.toStoreValue(userValue), clock.millis());
+    }
+
+    @Override
+    protected Object fromStoreValue(Object storeValue) {
+        return super.fromStoreValue(storeValue instanceof Entry ? ((Entry) storeValue).value : storeValue);
+    }
+
+    private <T> T load(Callable<T> loader) throws Exception {
+        long start = System.nanoTime();
+        try {
+            T value = loader.call();
+            loadTime.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return value;
+        } catch (Exception e) {
+            failedLoadTime.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    private void refreshIfOld(Object key, Object storeValue) {
+        if (refreshAfter == null || !(storeValue instanceof Entry) || clock.millis() - ((Entry) storeValue).loadedAt < refreshAfter.toMillis()) {
+            return;
+        }
+        if (!refreshes.add(key)) {
+            return;
+        }
+        try {
+            executor.execute(() -> refresh(key, storeValue));
+        } catch (RejectedExecutionException e) {
+            refreshes.remove(key);
+        }
+    }
+
+    private void refresh(Object key, Object storeValue) {
+        try {
+            Object refreshedValue = toStoreValue(load(() -> reloader.apply(key)));
+            getNativeCache().replace(key, storeValue, refreshedValue);
+            refreshed.increment();
+        } catch (Exception e) {
+            log.warn("Could not refresh the entry {} of cache {}: {}", key, getName(), e.toString());
+            failedRefreshes.increment();
+        } finally {
+            refreshes.remove(key);
+        }
+    }
+
+    private static Counter refreshCounter(MeterRegistry meterRegistry, String cacheName, String result) {
+        return Counter
+            .builder("cache.refreshes")
+            .description("The number of entries reloaded before they expire")
+            .tags("name", cacheName, "result", result)
+            .register(meterRegistry);
+    }
+
+    private static Timer loadTimer(MeterRegistry meterRegistry, String cacheName, String result) {
+        return Timer
+            .builder("cache.loads")
+            .description("The time taken to load the missing and reloaded entries")
+            .tags("name", cacheName, "result", result)
+            .register(meterRegistry);
+    }
+
+    /**
+     * A stored value, with its load time.
+     */
+    static final class Entry implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Object value;
+
+        private final long loadedAt;
+
+        Entry(Object value, long loadedAt) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Entry)) {
+                return false;
+            }
+            Entry entry = (Entry) o;
+            return loadedAt == entry.loadedAt && Objects.equals(value, entry.value);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(value, loadedAt);
+        }
+    }
+}
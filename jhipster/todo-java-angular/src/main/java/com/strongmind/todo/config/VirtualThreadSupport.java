@@ -0,0 +1,61 @@
+package com.strongmind.todo.config;
+
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Access to the virtual threads of the running JDK, by reflection since the application is compiled for Java 11.
+ */
+final class VirtualThreadSupport {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadSupport.class);
+
+    private static final AtomicBoolean warned = new AtomicBoolean();
+
+    private VirtualThreadSupport() {}
+
+    /**
+     * Check if the virtual threads are enabled, and available in the running JDK.
+     *
+     * @param applicationProperties the application properties.
+     * @return {@code true} if the virtual threads are to be used.
+     */
+    static boolean isEnabled(ApplicationProperties applicationProperties) {
+        if (!applicationProperties.getVirtualThreads().isEnabled()) {
+            return false;
+        }
+        if (threadFactory("virtual-").isPresent()) {
+            return true;
+        }
+        if (warned.compareAndSet(false, true)) {
+            log.warn("Virtual threads are enabled but not available in Java {}: using platform threads", Runtime.version().feature());
+        }
+        return false;
+    }
+
+    /**
+     * Create an executor starting a new virtual thread for each task.
+     *
+     * @param threadNamePrefix the prefix of the names of the threads.
+     * @return the executor, or empty if the virtual threads are not available.
+     */
+    static Optional<Executor> newVirtualThreadPerTaskExecutor(String threadNamePrefix) {
+        return threadFactory(threadNamePrefix).map(threadFactory -> task -> threadFactory.newThread(task).start());
+    }
+
+    private static Optional<ThreadFactory> threadFactory(String threadNamePrefix) {
+        try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, threadNamePrefix, 0L);
+            return Optional.of((ThreadFactory) builderClass.getMethod("factory").invoke(builder));
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            // Before Java 19, or a preview feature which is not enabled
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.strongmind.todo.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.undertow.UndertowServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Opt-in mode running the servlet requests on virtual threads instead of the Undertow workers, on a JDK which has them.
+ * <p>
+ * The requests are then no longer bounded by a number of threads: the adaptive concurrency limit of {@code /api/**}
+ * still applies, and the connection pool bounds the concurrent queries. The {@code @Async} tasks are switched in
+ * {@link AsyncConfiguration}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "application.virtual-threads", name = "enabled", havingValue = "true")
+public class VirtualThreadsConfiguration {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadsConfiguration.class);
+
+    @Bean
+    public WebServerFactoryCustomizer<UndertowServletWebServerFactory> virtualThreadsCustomizer(
+        ApplicationProperties applicationProperties
+    ) {
+        return factory -> {
+            if (!VirtualThreadSupport.isEnabled(applicationProperties)) {
+                return;
+            }
+            log.info("Serving requests on virtual threads");
+            VirtualThreadSupport
+                .newVirtualThreadPerTaskExecutor("undertow-virtual-")
+                .ifPresent(executor ->
+                    factory.addDeploymentInfoCustomizers(deploymentInfo -> deploymentInfo.setExecutor(executor).setAsyncExecutor(executor))
+                );
+        };
+    }
+
+    /**
+     * Sizes the connection pool for virtual threads: many more threads wait for a connection, so they should fail
+     * sooner instead of piling up, and the pool stays sized for the database rather than for the threads.
+     */
+    @Bean
+    public static BeanPostProcessor virtualThreadsDataSourcePostProcessor(ObjectProvider<ApplicationProperties> applicationProperties) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource && VirtualThreadSupport.isEnabled(applicationProperties.getObject())) {
+                    ApplicationProperties.VirtualThreads virtualThreads = applicationProperties.getObject().getVirtualThreads();
+                    HikariDataSource dataSource = (HikariDataSource) bean;
+                    dataSource.setMaximumPoolSize(virtualThreads.getDatabasePoolSize());
+                    dataSource.setConnectionTimeout(virtualThreads.getDatabaseConnectionTimeoutMillis());
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -2,23 +2,34 @@ package com.strongmind.todo.config;
 
 import static java.net.URLDecoder.decode;
 
+import com.strongmind.todo.web.filter.ConcurrencyLimitFilter;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.io.File;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import javax.servlet.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
 import org.springframework.boot.web.server.*;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.boot.web.servlet.ServletContextInitializer;
 import org.springframework.boot.web.servlet.server.ConfigurableServletWebServerFactory;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.env.Environment;
 import org.springframework.core.env.Profiles;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.util.CollectionUtils;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.web.filter.CorsFilter;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 import tech.jhipster.config.JHipsterConstants;
 import tech.jhipster.config.JHipsterProperties;
 import tech.jhipster.config.h2.H2ConfigurationHelper;
@@ -101,6 +112,44 @@ public class WebConfigurer implements ServletContextInitializer, WebServerFactor
         return new CorsFilter(source);
     }
 
+    /**
+     * Shed the API requests beyond the adaptive concurrency limit of their group, before the security filters. The
+     * streamed exports have their own group, so that they do not take the limit of the other to-do item requests.
+     */
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        Map<String, List<String>> prefixesByGroup = new LinkedHashMap<>();
+        prefixesByGroup.put("todo", List.of("/api/to-do-items"));
+        prefixesByGroup.put("export", List.of("/api/to-do-items/export"));
+        prefixesByGroup.put("account", List.of("/api/account", "/api/authenticate", "/api/register", "/api/activate"));
+        prefixesByGroup.put("admin", List.of("/api/admin"));
+        ApplicationProperties.ConcurrencyLimit properties = applicationProperties.getConcurrencyLimit();
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(
+            new ConcurrencyLimitFilter(prefixesByGroup, properties, meterRegistry)
+        );
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+        registration.setEnabled(properties.isEnabled());
+        return registration;
+    }
+
+    /**
+     * Run the asynchronous requests, such as the streamed exports, on their bounded executor rather than on a new
+     * thread each; their timeout is {@code spring.mvc.async.request-timeout}.
+     */
+    @Bean
+    public WebMvcConfigurer asyncSupportConfigurer(@Qualifier("mvcAsyncExecutor") AsyncTaskExecutor mvcAsyncExecutor) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+                configurer.setTaskExecutor(mvcAsyncExecutor);
+            }
+        };
+    }
+
     /**
      * Initializes H2 console.
      */
@@ -0,0 +1,96 @@
+package com.strongmind.todo.domain;
+
+import java.io.Serializable;
+import java.time.Instant;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+
+/**
+ * The position reached by an unfinished batch job walking a table by id, from which its next run resumes.
+ * <p>
+ * The checkpoint is saved in the same transaction as each chunk of work, and removed once the job reaches the end.
+ */
+@Entity
+@Table(name = "job_checkpoint")
+public class JobCheckpoint implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @NotNull
+    @Size(max = 50)
+    @Id
+    @Column(length = 50)
+    private String name;
+
+    @Column(name = "last_id", nullable = false)
+    private long lastId;
+
+    @Column(name = "last_modified_date", nullable = false)
+    private Instant lastModifiedDate = Instant.now();
+
+    public String getName() {
+        return name;
+    }
+
+    public JobCheckpoint name(String name) {
+        this.setName(name);
+        return this;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public long getLastId() {
+        return lastId;
+    }
+
+    public JobCheckpoint lastId(long lastId) {
+        this.setLastId(lastId);
+        return this;
+    }
+
+    public void setLastId(long lastId) {
+        this.lastId = lastId;
+        this.lastModifiedDate = Instant.now();
+    }
+
+    public Instant getLastModifiedDate() {
+        return lastModifiedDate;
+    }
+
+    public void setLastModifiedDate(Instant lastModifiedDate) {
+        this.lastModifiedDate = lastModifiedDate;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof JobCheckpoint)) {
+            return false;
+        }
+        return name != null && name.equals(((JobCheckpoint) o).name);
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "JobCheckpoint{" +
+            "name='" + getName() + "'" +
+            ", lastId=" + getLastId() +
+            ", lastModifiedDate='" + getLastModifiedDate() + "'" +
+            "}";
+    }
+}
@@ -1,5 +1,6 @@
 package com.strongmind.todo.domain;
 
+import com.fasterxml.jackson.annotation.JsonIncludeProperties;
 import com.strongmind.todo.domain.enumeration.ItemStatus;
 import java.io.Serializable;
 import javax.persistence.*;
@@ -29,7 +30,12 @@ public class ToDoItem implements Serializable {
     @Column(name = "status")
     private ItemStatus status;
 
-    @ManyToOne
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JsonIncludeProperties({ "id", "login" })
     private User user;
 
     // jhipster-needle-entity-add-field - JHipster will add fields here
@@ -73,6 +79,19 @@ public class ToDoItem implements Serializable {
         this.status = status;
     }
 
+    public Long getVersion() {
+        return this.version;
+    }
+
+    public ToDoItem version(Long version) {
+        this.setVersion(version);
+        return this;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public User getUser() {
         return this.user;
     }
@@ -112,6 +131,7 @@ public class ToDoItem implements Serializable {
             "id=" + getId() +
             ", description='" + getDescription() + "'" +
             ", status='" + getStatus() + "'" +
+            ", version=" + getVersion() +
             "}";
     }
 }
@@ -0,0 +1,78 @@
+package com.strongmind.todo.management;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongSupplier;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+
+/**
+ * Health indicator reusing the result of another one for a short time, so that frequent probes do not each run the
+ * check.
+ * <p>
+ * Only one check runs at a time: the concurrent probes get the previous result. While {@code busy} tells that the
+ * checked resource is saturated, the check is skipped and the previous result is reused up to {@code maxStale}, so that
+ * a saturated resource is not reported as down.
+ */
+public class CachedHealthIndicator implements HealthIndicator {
+
+    private final HealthIndicator delegate;
+
+    private final long ttlNanos;
+
+    private final long maxStaleNanos;
+
+    private final BooleanSupplier busy;
+
+    private final LongSupplier nanoTime;
+
+    private final AtomicBoolean checking = new AtomicBoolean();
+
+    private volatile CachedHealth cached;
+
+    public CachedHealthIndicator(HealthIndicator delegate, long ttlMillis, long maxStaleMillis, BooleanSupplier busy) {
+        this(delegate, ttlMillis, maxStaleMillis, busy, System::nanoTime);
+    }
+
+    CachedHealthIndicator(HealthIndicator delegate, long ttlMillis, long maxStaleMillis, BooleanSupplier busy, LongSupplier nanoTime) {
+        this.delegate = delegate;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.maxStaleNanos = TimeUnit.MILLISECONDS.toNanos(maxStaleMillis);
+        this.busy = busy;
+        this.nanoTime = nanoTime;
+    }
+
+    @Override
+    public Health health() {
+        CachedHealth previous = cached;
+        if (previous != null) {
+            long age = nanoTime.getAsLong() - previous.checkedAt;
+            if (age < ttlNanos || (age < maxStaleNanos && busy.getAsBoolean())) {
+                return previous.health;
+            }
+        }
+        if (!checking.compareAndSet(false, true)) {
+            return previous != null ? previous.health : Health.unknown().build();
+        }
+        try {
+            Health health = delegate.health();
+            cached = new CachedHealth(health, nanoTime.getAsLong());
+            return health;
+        } finally {
+            checking.set(false);
+        }
+    }
+
+    private static final class CachedHealth {
+
+        private final Health health;
+
+        private final long checkedAt;
+
+        private CachedHealth(Health health, long checkedAt) {
+            this.health = health;
+            this.checkedAt = checkedAt;
+        }
+    }
+}
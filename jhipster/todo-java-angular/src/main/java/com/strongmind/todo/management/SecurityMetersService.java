@@ -13,16 +13,35 @@ public class SecurityMetersService {
     public static final String INVALID_TOKENS_METER_BASE_UNIT = "errors";
     public static final String INVALID_TOKENS_METER_CAUSE_DIMENSION = "cause";
 
+    public static final String TOKEN_CACHE_METER_NAME = "security.authentication.token-cache";
+    public static final String TOKEN_CACHE_METER_DESCRIPTION =
+        "Indicates lookups of the tokens presented by the clients in the cache of verified tokens.";
+    public static final String TOKEN_CACHE_METER_RESULT_DIMENSION = "result";
+
+    public static final String THROTTLED_LOGINS_METER_NAME = "security.authentication.throttled-logins";
+    public static final String THROTTLED_LOGINS_METER_DESCRIPTION = "Indicates login attempts rejected before checking the password.";
+    public static final String THROTTLED_LOGINS_METER_CAUSE_DIMENSION = "cause";
+
     private final Counter tokenInvalidSignatureCounter;
     private final Counter tokenExpiredCounter;
     private final Counter tokenUnsupportedCounter;
     private final Counter tokenMalformedCounter;
+    private final Counter tokenCacheHitCounter;
+    private final Counter tokenCacheMissCounter;
+    private final Counter loginThrottledByIpCounter;
+    private final Counter loginThrottledByLoginCounter;
+    private final Counter loginThrottledByBusyHashingCounter;
 
     public SecurityMetersService(MeterRegistry registry) {
         this.tokenInvalidSignatureCounter = invalidTokensCounterForCauseBuilder("invalid-signature").register(registry);
         this.tokenExpiredCounter = invalidTokensCounterForCauseBuilder("expired").register(registry);
         this.tokenUnsupportedCounter = invalidTokensCounterForCauseBuilder("unsupported").register(registry);
         this.tokenMalformedCounter = invalidTokensCounterForCauseBuilder("malformed").register(registry);
+        this.tokenCacheHitCounter = tokenCacheCounterForResultBuilder("hit").register(registry);
+        this.tokenCacheMissCounter = tokenCacheCounterForResultBuilder("miss").register(registry);
+        this.loginThrottledByIpCounter = throttledLoginsCounterForCauseBuilder("ip").register(registry);
+        this.loginThrottledByLoginCounter = throttledLoginsCounterForCauseBuilder("login").register(registry);
+        this.loginThrottledByBusyHashingCounter = throttledLoginsCounterForCauseBuilder("busy-hashing").register(registry);
     }
 
     private Counter.Builder invalidTokensCounterForCauseBuilder(String cause) {
@@ -33,6 +52,17 @@ public class SecurityMetersService {
             .tag(INVALID_TOKENS_METER_CAUSE_DIMENSION, cause);
     }
 
+    private Counter.Builder tokenCacheCounterForResultBuilder(String result) {
+        return Counter.builder(TOKEN_CACHE_METER_NAME).description(TOKEN_CACHE_METER_DESCRIPTION).tag(TOKEN_CACHE_METER_RESULT_DIMENSION, result);
+    }
+
+    private Counter.Builder throttledLoginsCounterForCauseBuilder(String cause) {
+        return Counter
+            .builder(THROTTLED_LOGINS_METER_NAME)
+            .description(THROTTLED_LOGINS_METER_DESCRIPTION)
+            .tag(THROTTLED_LOGINS_METER_CAUSE_DIMENSION, cause);
+    }
+
     public void trackTokenInvalidSignature() {
         this.tokenInvalidSignatureCounter.increment();
     }
@@ -48,4 +78,24 @@ public class SecurityMetersService {
     public void trackTokenMalformed() {
         this.tokenMalformedCounter.increment();
     }
+
+    public void trackTokenCacheHit() {
+        this.tokenCacheHitCounter.increment();
+    }
+
+    public void trackTokenCacheMiss() {
+        this.tokenCacheMissCounter.increment();
+    }
+
+    public void trackLoginThrottledByIp() {
+        this.loginThrottledByIpCounter.increment();
+    }
+
+    public void trackLoginThrottledByLogin() {
+        this.loginThrottledByLoginCounter.increment();
+    }
+
+    public void trackLoginThrottledByBusyHashing() {
+        this.loginThrottledByBusyHashingCounter.increment();
+    }
 }
@@ -0,0 +1,11 @@
+package com.strongmind.todo.repository;
+
+import com.strongmind.todo.domain.JobCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the {@link JobCheckpoint} entity.
+ */
+@Repository
+public interface JobCheckpointRepository extends JpaRepository<JobCheckpoint, String> {}
@@ -0,0 +1,45 @@
+package com.strongmind.todo.repository;
+
+import com.strongmind.todo.domain.MailOutboxMessage;
+import java.time.Instant;
+import java.util.List;
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data SQL repository for the MailOutboxMessage entity.
+ */
+@Repository
+public interface MailOutboxMessageRepository extends JpaRepository<MailOutboxMessage, Long> {
+    /**
+     * Lock the messages due, oldest first. The rows locked by another instance are skipped (where the database
+     * supports it), so that several instances can drain the outbox without sending a message twice.
+     *
+     * @param now the current time.
+     * @param pageable the number of messages to lock.
+     * @return the messages due.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    // -2 is org.hibernate.LockOptions.SKIP_LOCKED
+    @QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = "-2"))
+    @Query(
+        "select message from MailOutboxMessage message where message.nextAttemptAt <= :now order by message.nextAttemptAt, message.id"
+    )
+    List<MailOutboxMessage> findDueForUpdate(@Param("now") Instant now, Pageable pageable);
+
+    long countByNextAttemptAtIsNotNull();
+
+    /**
+     * Delete the messages given up on, created before a given time.
+     *
+     * @param createdBefore the creation time before which the messages are deleted.
+     * @return the number of messages deleted.
+     */
+    @Modifying
+    @Query("delete from MailOutboxMessage message where message.nextAttemptAt is null and message.createdDate < :createdBefore")
+    int deleteAbandonedCreatedBefore(@Param("createdBefore") Instant createdBefore);
+}
@@ -1,9 +1,11 @@
 package com.strongmind.todo.repository;
 
 import com.strongmind.todo.domain.ToDoItem;
+import com.strongmind.todo.domain.enumeration.ItemStatus;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
@@ -13,9 +15,15 @@ import org.springframework.stereotype.Repository;
  * Spring Data SQL repository for the ToDoItem entity.
  */
 @Repository
-public interface ToDoItemRepository extends JpaRepository<ToDoItem, Long> {
-    @Query("select toDoItem from ToDoItem toDoItem where toDoItem.user.login = ?#{principal.username}")
-    List<ToDoItem> findByUserIsCurrentUser();
+public interface ToDoItemRepository extends ToDoItemRepositoryWithStreaming, JpaRepository<ToDoItem, Long> {
+    /**
+     * Projection on the fields identifying the state of a {@link ToDoItem}.
+     */
+    interface IdAndVersion {
+        Long getId();
+
+        Long getVersion();
+    }
 
     default Optional<ToDoItem> findOneWithEagerRelationships(Long id) {
         return this.findOneWithToOneRelationships(id);
@@ -29,6 +37,40 @@ public interface ToDoItemRepository extends JpaRepository<ToDoItem, Long> {
         return this.findAllWithToOneRelationships(pageable);
     }
 
+    /**
+     * Keyset page of items ordered by id, reading only their ids and versions.
+     *
+     * @param status the status to filter on, or {@code null} for all statuses.
+     * @param afterId the id of the last item of the previous page.
+     * @param limit the maximum number of items to return.
+     * @return the ids and versions of the items with an id greater than {@code afterId}.
+     */
+    default List<IdAndVersion> findAllIdAndVersionAfter(ItemStatus status, long afterId, int limit) {
+        Pageable firstRows = PageRequest.of(0, limit);
+        if (status == null) {
+            return this.findAllIdAndVersionAfter(afterId, firstRows);
+        }
+        return this.findAllIdAndVersionByStatusAfter(status, afterId, firstRows);
+    }
+
+    @Query("select toDoItem.version from ToDoItem toDoItem where toDoItem.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @Query(
+        "select toDoItem.id as id, toDoItem.version as version from ToDoItem toDoItem where toDoItem.id > :afterId order by toDoItem.id"
+    )
+    List<IdAndVersion> findAllIdAndVersionAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    @Query(
+        "select toDoItem.id as id, toDoItem.version as version from ToDoItem toDoItem " +
+        "where toDoItem.status = :status and toDoItem.id > :afterId order by toDoItem.id"
+    )
+    List<IdAndVersion> findAllIdAndVersionByStatusAfter(
+        @Param("status") ItemStatus status,
+        @Param("afterId") long afterId,
+        Pageable pageable
+    );
+
     @Query(
         value = "select distinct toDoItem from ToDoItem toDoItem left join fetch toDoItem.user",
         countQuery = "select count(distinct toDoItem) from ToDoItem toDoItem"
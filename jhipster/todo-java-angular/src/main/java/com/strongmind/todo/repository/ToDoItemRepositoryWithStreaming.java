@@ -0,0 +1,20 @@
+package com.strongmind.todo.repository;
+
+import com.strongmind.todo.domain.ToDoItem;
+import java.util.stream.Stream;
+
+/**
+ * Utility repository to stream {@link ToDoItem} rows through a forward-only JDBC cursor.
+ */
+public interface ToDoItemRepositoryWithStreaming {
+    /**
+     * Stream all the toDoItems, with their user, ordered by id.
+     * <p>
+     * Rows are read lazily from a forward-only cursor, so the stream must be consumed and closed
+     * inside a transaction.
+     *
+     * @param fetchSize the number of rows fetched per round-trip to the database.
+     * @return the stream of toDoItems, to be closed after use.
+     */
+    Stream<ToDoItem> streamAllWithToOneRelationships(int fetchSize);
+}
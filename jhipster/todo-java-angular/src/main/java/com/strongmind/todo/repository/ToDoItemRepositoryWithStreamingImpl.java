@@ -0,0 +1,26 @@
+package com.strongmind.todo.repository;
+
+import com.strongmind.todo.domain.ToDoItem;
+import java.util.stream.Stream;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import org.hibernate.jpa.QueryHints;
+
+/**
+ * Utility repository to stream {@link ToDoItem} rows through a forward-only JDBC cursor.
+ */
+public class ToDoItemRepositoryWithStreamingImpl implements ToDoItemRepositoryWithStreaming {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Stream<ToDoItem> streamAllWithToOneRelationships(int fetchSize) {
+        return entityManager
+            .createQuery("select toDoItem from ToDoItem toDoItem left join fetch toDoItem.user order by toDoItem.id", ToDoItem.class)
+            .setHint(QueryHints.HINT_FETCH_SIZE, fetchSize)
+            .setHint(QueryHints.HINT_READONLY, true)
+            .setHint(QueryHints.HINT_CACHEABLE, false)
+            .getResultStream();
+    }
+}
@@ -8,29 +8,74 @@ import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
  * Spring Data JPA repository for the {@link User} entity.
  */
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryWithBulkDelete {
     String USERS_BY_LOGIN_CACHE = "usersByLogin";
 
     String USERS_BY_EMAIL_CACHE = "usersByEmail";
     Optional<User> findOneByActivationKey(String activationKey);
-    List<User> findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(Instant dateTime);
+
+    /**
+     * Find the next not activated users created before a date, and owning no toDoItem, by id after a given one.
+     *
+     * @param afterId the last id already seen.
+     * @param createdBefore the creation date before which the users are looked for.
+     * @param pageable the number of users to find.
+     * @return the ids, logins and emails of the users, by id.
+     */
+    @Query(
+        "select user.id as id, user.login as login, user.email as email from User user" +
+        " where user.id > :afterId and user.activated = false and user.activationKey is not null and user.createdDate < :createdBefore" +
+        " and not exists (select toDoItem.id from ToDoItem toDoItem where toDoItem.user = user)" +
+        " order by user.id"
+    )
+    List<UserKeys> findNotActivatedUserKeys(@Param("afterId") long afterId, @Param("createdBefore") Instant createdBefore, Pageable pageable);
+
     Optional<User> findOneByResetKey(String resetKey);
     Optional<User> findOneByEmailIgnoreCase(String email);
     Optional<User> findOneByLogin(String login);
 
     @EntityGraph(attributePaths = "authorities")
-    @Cacheable(cacheNames = USERS_BY_LOGIN_CACHE)
+    @Cacheable(cacheNames = USERS_BY_LOGIN_CACHE, sync = true)
     Optional<User> findOneWithAuthoritiesByLogin(String login);
 
     @EntityGraph(attributePaths = "authorities")
-    @Cacheable(cacheNames = USERS_BY_EMAIL_CACHE)
+    @Cacheable(cacheNames = USERS_BY_EMAIL_CACHE, sync = true)
     Optional<User> findOneWithAuthoritiesByEmailIgnoreCase(String email);
 
+    /**
+     * Same as {@link #findOneWithAuthoritiesByLogin(String)}, bypassing the {@link #USERS_BY_LOGIN_CACHE} cache to
+     * reload its entries.
+     */
+    @EntityGraph(attributePaths = "authorities")
+    @Query("select user from User user where user.login = :login")
+    Optional<User> findOneWithAuthoritiesByLoginUncached(@Param("login") String login);
+
+    /**
+     * Same as {@link #findOneWithAuthoritiesByEmailIgnoreCase(String)}, bypassing the {@link #USERS_BY_EMAIL_CACHE}
+     * cache to reload its entries.
+     */
+    @EntityGraph(attributePaths = "authorities")
+    @Query("select user from User user where upper(user.email) = upper(:email)")
+    Optional<User> findOneWithAuthoritiesByEmailIgnoreCaseUncached(@Param("email") String email);
+
     Page<User> findAllByIdNotNullAndActivatedIsTrue(Pageable pageable);
+
+    /**
+     * The keys a user is found by.
+     */
+    interface UserKeys {
+        Long getId();
+
+        String getLogin();
+
+        String getEmail();
+    }
 }
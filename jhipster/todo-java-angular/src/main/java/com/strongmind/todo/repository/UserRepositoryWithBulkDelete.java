@@ -0,0 +1,21 @@
+package com.strongmind.todo.repository;
+
+import java.util.Collection;
+
+/**
+ * Utility repository to delete {@link com.strongmind.todo.domain.User} rows in bulk, without loading them.
+ */
+public interface UserRepositoryWithBulkDelete {
+    /**
+     * Delete the users still not activated, and their authorities, with two statements: a user activated since it was
+     * selected is kept.
+     * <p>
+     * The users must not be referenced by other rows. The second-level cache regions of the users and of their
+     * authorities are invalidated on this node only, and the {@link UserRepository#USERS_BY_LOGIN_CACHE} and
+     * {@link UserRepository#USERS_BY_EMAIL_CACHE} caches are not.
+     *
+     * @param ids the ids of the users.
+     * @return the number of users deleted.
+     */
+    int deleteAllNotActivatedWithAuthoritiesByIdIn(Collection<Long> ids);
+}
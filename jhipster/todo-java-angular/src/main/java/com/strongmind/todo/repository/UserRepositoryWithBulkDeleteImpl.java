@@ -0,0 +1,36 @@
+package com.strongmind.todo.repository;
+
+import java.util.Collection;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import org.hibernate.query.NativeQuery;
+
+/**
+ * Utility repository to delete {@link com.strongmind.todo.domain.User} rows in bulk, without loading them.
+ */
+public class UserRepositoryWithBulkDeleteImpl implements UserRepositoryWithBulkDelete {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int deleteAllNotActivatedWithAuthoritiesByIdIn(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        // Declaring the table touched keeps Hibernate from invalidating every second-level cache region
+        entityManager
+            .createNativeQuery(
+                "delete from jhi_user_authority where user_id in (:ids)" +
+                " and user_id in (select id from jhi_user where activated = false)"
+            )
+            .unwrap(NativeQuery.class)
+            .addSynchronizedQuerySpace("jhi_user_authority")
+            .setParameter("ids", ids)
+            .executeUpdate();
+        return entityManager
+            .createQuery("delete from User user where user.id in :ids and user.activated = false")
+            .setParameter("ids", ids)
+            .executeUpdate();
+    }
+}
@@ -0,0 +1,121 @@
+package com.strongmind.todo.security;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+/**
+ * Registry of the canonical, shared instances of the authorities defined in {@link AuthoritiesConstants}.
+ * <p>
+ * Each known authority has a bit, so that a set of authorities can be written in a token as a small integer; the
+ * lists for every combination of bits are built once. The bits are persisted in the issued tokens: new authorities
+ * must be appended to {@link #KNOWN_AUTHORITIES}, never inserted nor reordered.
+ */
+public final class AuthorityRegistry {
+
+    private static final List<String> KNOWN_AUTHORITIES = List.of(
+        AuthoritiesConstants.ADMIN,
+        AuthoritiesConstants.USER,
+        AuthoritiesConstants.ANONYMOUS
+    );
+
+    private static final Map<String, GrantedAuthority> AUTHORITIES = KNOWN_AUTHORITIES
+        .stream()
+        .collect(Collectors.toUnmodifiableMap(Function.identity(), SimpleGrantedAuthority::new));
+
+    private static final List<List<GrantedAuthority>> AUTHORITIES_BY_MASK = authoritiesByMask();
+
+    /**
+     * Authorities of the comma-separated claims already seen, only for claims made of known authorities.
+     */
+    private static final Map<String, List<GrantedAuthority>> AUTHORITIES_BY_CLAIM = new ConcurrentHashMap<>();
+
+    private AuthorityRegistry() {}
+
+    /**
+     * Get the canonical instance of an authority.
+     *
+     * @param authority the name of the authority.
+     * @return the shared instance for a known authority, or a new one.
+     */
+    public static GrantedAuthority of(String authority) {
+        GrantedAuthority grantedAuthority = AUTHORITIES.get(authority);
+        return grantedAuthority != null ? grantedAuthority : new SimpleGrantedAuthority(authority);
+    }
+
+    /**
+     * Get the authorities of a comma-separated claim.
+     *
+     * @param claim the comma-separated names of the authorities.
+     * @return the immutable list of the authorities.
+     */
+    public static List<GrantedAuthority> fromClaim(String claim) {
+        List<GrantedAuthority> authorities = AUTHORITIES_BY_CLAIM.get(claim);
+        if (authorities != null) {
+            return authorities;
+        }
+        authorities =
+            Arrays
+                .stream(claim.split(","))
+                .map(String::trim)
+                .filter(authority -> !authority.isEmpty())
+                .map(AuthorityRegistry::of)
+                .collect(Collectors.toUnmodifiableList());
+        if (authorities.stream().allMatch(authority -> AUTHORITIES.get(authority.getAuthority()) == authority)) {
+            // Only known authorities: the number of distinct claims is bounded
+            AUTHORITIES_BY_CLAIM.putIfAbsent(claim, authorities);
+        }
+        return authorities;
+    }
+
+    /**
+     * Get the authorities of a bitmask.
+     *
+     * @param mask the bitmask, as computed by {@link #toMask(Collection)}.
+     * @return the immutable list of the authorities; unknown bits are ignored.
+     */
+    public static List<GrantedAuthority> fromMask(int mask) {
+        return AUTHORITIES_BY_MASK.get(mask & (AUTHORITIES_BY_MASK.size() - 1));
+    }
+
+    /**
+     * Compute the bitmask of authorities.
+     *
+     * @param authorities the authorities.
+     * @return the bitmask, or empty if one of the authorities is not known.
+     */
+    public static OptionalInt toMask(Collection<? extends GrantedAuthority> authorities) {
+        int mask = 0;
+        for (GrantedAuthority authority : authorities) {
+            int index = KNOWN_AUTHORITIES.indexOf(authority.getAuthority());
+            if (index < 0) {
+                return OptionalInt.empty();
+            }
+            mask |= 1 << index;
+        }
+        return OptionalInt.of(mask);
+    }
+
+    private static List<List<GrantedAuthority>> authoritiesByMask() {
+        List<List<GrantedAuthority>> authoritiesByMask = new ArrayList<>();
+        for (int mask = 0; mask < 1 << KNOWN_AUTHORITIES.size(); mask++) {
+            List<GrantedAuthority> authorities = new ArrayList<>();
+            for (int index = 0; index < KNOWN_AUTHORITIES.size(); index++) {
+                if ((mask & (1 << index)) != 0) {
+                    authorities.add(AUTHORITIES.get(KNOWN_AUTHORITIES.get(index)));
+                }
+            }
+            authoritiesByMask.add(Collections.unmodifiableList(authorities));
+        }
+        return Collections.unmodifiableList(authoritiesByMask);
+    }
+}
@@ -0,0 +1,31 @@
+package com.strongmind.todo.security;
+
+import java.util.Collection;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+/**
+ * Spring Security principal carrying the id of the {@link com.strongmind.todo.domain.User} it was built from,
+ * so that per-user queries can filter on the foreign key without looking the user up by login.
+ */
+public class DomainUser extends User {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long id;
+
+    /**
+     * @param id the id of the user, or {@code null} if it is not known (for example in a token issued before it was added).
+     * @param username the login of the user.
+     * @param password the password of the user.
+     * @param authorities the authorities granted to the user.
+     */
+    public DomainUser(Long id, String username, String password, Collection<? extends GrantedAuthority> authorities) {
+        super(username, password, authorities);
+        this.id = id;
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
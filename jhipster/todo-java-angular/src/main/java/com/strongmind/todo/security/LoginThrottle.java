@@ -0,0 +1,95 @@
+package com.strongmind.todo.security;
+
+import com.strongmind.todo.config.ApplicationProperties;
+import com.strongmind.todo.management.SecurityMetersService;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+/**
+ * Admission control for the login attempts, so that a burst of attempts cannot take the threads serving the rest of
+ * the API.
+ * <p>
+ * An attempt is rejected up front if its client address made too many attempts, or if its login failed too many
+ * times. The password is then checked on the dedicated, bounded password hashing executor: when its queue is full,
+ * the attempt is rejected at once instead of waiting for a thread. The caller is not blocked meanwhile: it gets a
+ * future, completed by the hashing thread, so that the request threads are freed while the password is checked.
+ */
+@Component
+public class LoginThrottle {
+
+    private final Logger log = LoggerFactory.getLogger(LoginThrottle.class);
+
+    private final TokenBucketRateLimiter attemptsByIp;
+
+    private final TokenBucketRateLimiter failuresByLogin;
+
+    private final AsyncTaskExecutor passwordHashingExecutor;
+
+    private final SecurityMetersService securityMetersService;
+
+    public LoginThrottle(
+        ApplicationProperties applicationProperties,
+        @Qualifier("passwordHashingExecutor") AsyncTaskExecutor passwordHashingExecutor,
+        SecurityMetersService securityMetersService
+    ) {
+        ApplicationProperties.Security.Login login = applicationProperties.getSecurity().getLogin();
+        this.attemptsByIp = new TokenBucketRateLimiter(login.getIpBurst(), login.getIpAttemptsPerMinute(), login.getTrackedKeysMaxSize());
+        this.failuresByLogin =
+            new TokenBucketRateLimiter(login.getLoginFailuresBurst(), login.getLoginFailuresPerMinute(), login.getTrackedKeysMaxSize());
+        this.passwordHashingExecutor = passwordHashingExecutor;
+        this.securityMetersService = securityMetersService;
+    }
+
+    /**
+     * Run a login attempt, if it is admitted.
+     *
+     * @param remoteAddress the address of the client.
+     * @param login the login of the attempt.
+     * @param authentication the authentication of the attempt, which checks the password.
+     * @return the authentication, completed once the password is checked.
+     * @throws TooManyAuthenticationAttemptsException if the attempt is not admitted.
+     */
+    public CompletableFuture<Authentication> authenticate(String remoteAddress, String login, Supplier<Authentication> authentication) {
+        String loginKey = login == null ? "" : login.toLowerCase(Locale.ENGLISH);
+        long wait = attemptsByIp.tryAcquire(remoteAddress);
+        if (wait > 0) {
+            securityMetersService.trackLoginThrottledByIp();
+            throw new TooManyAuthenticationAttemptsException("Too many login attempts from " + remoteAddress, toSeconds(wait));
+        }
+        wait = failuresByLogin.availableIn(loginKey);
+        if (wait > 0) {
+            securityMetersService.trackLoginThrottledByLogin();
+            throw new TooManyAuthenticationAttemptsException("Too many failed login attempts for " + loginKey, toSeconds(wait));
+        }
+
+        CompletableFuture<Authentication> future;
+        try {
+            future = CompletableFuture.supplyAsync(authentication, passwordHashingExecutor);
+        } catch (TaskRejectedException e) {
+            securityMetersService.trackLoginThrottledByBusyHashing();
+            throw new TooManyAuthenticationAttemptsException("All the password hashing threads are busy", 1);
+        }
+        return future.whenComplete((result, error) -> {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            if (cause instanceof BadCredentialsException) {
+                failuresByLogin.tryAcquire(loginKey);
+                log.debug("Failed login attempt for {}", loginKey);
+            }
+        });
+    }
+
+    private static long toSeconds(long nanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(nanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+}
@@ -38,6 +38,19 @@ public final class SecurityUtils {
         return null;
     }
 
+    /**
+     * Get the id of the current user, when the principal carries it.
+     *
+     * @return the id of the current user.
+     */
+    public static Optional<Long> getCurrentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof DomainUser) {
+            return Optional.ofNullable(((DomainUser) authentication.getPrincipal()).getId());
+        }
+        return Optional.empty();
+    }
+
     /**
      * Get the JWT of the current user.
      *
@@ -0,0 +1,110 @@
+package com.strongmind.todo.security;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets per key, without locks.
+ * <p>
+ * Each bucket is a single {@link AtomicLong}: the time at which it will be full again, updated by compare-and-set
+ * (the generic cell rate algorithm). A bucket holds {@code burst} tokens and gets one back every {@code period}.
+ * Full buckets are dropped when the number of keys reaches {@code maxKeys}. The others are never dropped, so that
+ * flooding new keys cannot reset a throttled one: if none is full, the new keys are throttled until one is.
+ */
+public class TokenBucketRateLimiter {
+
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    private final long periodNanos;
+
+    private final long burstNanos;
+
+    private final int maxKeys;
+
+    private final LongSupplier nanoTime;
+
+    public TokenBucketRateLimiter(int burst, int tokensPerMinute, int maxKeys) {
+        this(burst, tokensPerMinute, maxKeys, System::nanoTime);
+    }
+
+    TokenBucketRateLimiter(int burst, int tokensPerMinute, int maxKeys, LongSupplier nanoTime) {
+        this.periodNanos = TimeUnit.MINUTES.toNanos(1) / Math.max(tokensPerMinute, 1);
+        this.burstNanos = periodNanos * Math.max(burst, 1);
+        this.maxKeys = maxKeys;
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * Take a token from the bucket of a key.
+     *
+     * @param key the key.
+     * @return {@code 0} if a token was taken, or else the number of nanoseconds until one is available.
+     */
+    public long tryAcquire(String key) {
+        long now = nanoTime.getAsLong();
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            long wait = admit(now);
+            if (wait > 0) {
+                return wait;
+            }
+            bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+        }
+        while (true) {
+            long fullAt = bucket.get();
+            long nextFullAt = Math.max(fullAt, now) + periodNanos;
+            long wait = nextFullAt - now - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(fullAt, nextFullAt)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Check if the bucket of a key has a token, without taking it.
+     *
+     * @param key the key.
+     * @return {@code 0} if a token is available, or else the number of nanoseconds until one is.
+     */
+    public long availableIn(String key) {
+        long now = nanoTime.getAsLong();
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            return admit(now);
+        }
+        return Math.max(0, Math.max(bucket.get(), now) + periodNanos - now - burstNanos);
+    }
+
+    int size() {
+        return buckets.size();
+    }
+
+    /**
+     * Make room for a new key, dropping the full buckets when the number of keys reaches {@code maxKeys}.
+     *
+     * @return {@code 0} if the key can have a bucket, or else the number of nanoseconds until a bucket is full.
+     */
+    private long admit(long now) {
+        if (buckets.size() < maxKeys) {
+            return 0;
+        }
+        long wait = Long.MAX_VALUE;
+        Iterator<AtomicLong> iterator = buckets.values().iterator();
+        while (iterator.hasNext()) {
+            long fullIn = iterator.next().get() - now;
+            if (fullIn <= 0) {
+                iterator.remove();
+            } else {
+                wait = Math.min(wait, fullIn);
+            }
+        }
+        return buckets.size() < maxKeys ? 0 : wait;
+    }
+}
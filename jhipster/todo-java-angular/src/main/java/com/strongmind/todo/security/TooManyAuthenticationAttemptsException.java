@@ -0,0 +1,21 @@
+package com.strongmind.todo.security;
+
+/**
+ * This exception is thrown when an authentication attempt is rejected before the password is checked, because its
+ * client address or its login made too many attempts, or because all the password hashing threads are busy.
+ */
+public class TooManyAuthenticationAttemptsException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long retryAfterSeconds;
+
+    public TooManyAuthenticationAttemptsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
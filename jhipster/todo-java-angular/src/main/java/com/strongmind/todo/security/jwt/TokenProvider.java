@@ -1,12 +1,17 @@
 package com.strongmind.todo.security.jwt;
 
+import com.strongmind.todo.config.ApplicationProperties;
 import com.strongmind.todo.management.SecurityMetersService;
+import com.strongmind.todo.security.AuthorityRegistry;
+import com.strongmind.todo.security.DomainUser;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.security.SignatureException;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.time.Clock;
 import java.util.*;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
@@ -14,8 +19,6 @@ import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.core.userdetails.User;
 import org.springframework.stereotype.Component;
 import org.springframework.util.ObjectUtils;
 import tech.jhipster.config.JHipsterProperties;
@@ -27,6 +30,14 @@ public class TokenProvider {
 
     private static final String AUTHORITIES_KEY = "auth";
 
+    /**
+     * Bitmask of the authorities, see {@link AuthorityRegistry#toMask(Collection)}; replaces {@link #AUTHORITIES_KEY}
+     * when all the authorities are known.
+     */
+    private static final String AUTHORITIES_MASK_KEY = "am";
+
+    private static final String USER_ID_KEY = "uid";
+
     private static final String INVALID_JWT_TOKEN = "Invalid JWT token.";
 
     private final Key key;
@@ -39,7 +50,13 @@ public class TokenProvider {
 
     private final SecurityMetersService securityMetersService;
 
-    public TokenProvider(JHipsterProperties jHipsterProperties, SecurityMetersService securityMetersService) {
+    private final VerifiedTokenCache verifiedTokens;
+
+    public TokenProvider(
+        JHipsterProperties jHipsterProperties,
+        ApplicationProperties applicationProperties,
+        SecurityMetersService securityMetersService
+    ) {
         byte[] keyBytes;
         String secret = jHipsterProperties.getSecurity().getAuthentication().getJwt().getBase64Secret();
         if (!ObjectUtils.isEmpty(secret)) {
@@ -60,11 +77,10 @@ public class TokenProvider {
             1000 * jHipsterProperties.getSecurity().getAuthentication().getJwt().getTokenValidityInSecondsForRememberMe();
 
         this.securityMetersService = securityMetersService;
+        this.verifiedTokens = new VerifiedTokenCache(applicationProperties.getSecurity().getTokenCacheMaxSize(), Clock.systemUTC());
     }
 
     public String createToken(Authentication authentication, boolean rememberMe) {
-        String authorities = authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).collect(Collectors.joining(","));
-
         long now = (new Date()).getTime();
         Date validity;
         if (rememberMe) {
@@ -73,34 +89,82 @@ public class TokenProvider {
             validity = new Date(now + this.tokenValidityInMilliseconds);
         }
 
-        return Jwts
-            .builder()
-            .setSubject(authentication.getName())
-            .claim(AUTHORITIES_KEY, authorities)
-            .signWith(key, SignatureAlgorithm.HS512)
-            .setExpiration(validity)
-            .compact();
+        JwtBuilder builder = Jwts.builder().setSubject(authentication.getName());
+        OptionalInt authoritiesMask = AuthorityRegistry.toMask(authentication.getAuthorities());
+        if (authoritiesMask.isPresent()) {
+            builder.claim(AUTHORITIES_MASK_KEY, authoritiesMask.getAsInt());
+        } else {
+            String authorities = authentication
+                .getAuthorities()
+                .stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.joining(","));
+            builder.claim(AUTHORITIES_KEY, authorities);
+        }
+        if (authentication.getPrincipal() instanceof DomainUser) {
+            builder.claim(USER_ID_KEY, ((DomainUser) authentication.getPrincipal()).getId());
+        }
+        return builder.signWith(key, SignatureAlgorithm.HS512).setExpiration(validity).compact();
+    }
+
+    /**
+     * Authenticate a request from its bearer token.
+     * <p>
+     * The token is verified and parsed once; its principal is then kept until the token expires, so that the
+     * following requests bearing the same token skip the signature verification and the parsing. Each request gets
+     * its own authentication.
+     *
+     * @param token the bearer token.
+     * @return the authentication, or empty if the token is not valid.
+     */
+    public Optional<Authentication> authenticate(String token) {
+        ByteBuffer digest = VerifiedTokenCache.digest(token);
+        DomainUser principal = verifiedTokens.get(digest);
+        if (principal != null) {
+            this.securityMetersService.trackTokenCacheHit();
+            return Optional.of(getAuthentication(principal, token));
+        }
+        this.securityMetersService.trackTokenCacheMiss();
+        return parseClaims(token)
+            .map(claims -> {
+                DomainUser verifiedPrincipal = getPrincipal(claims);
+                if (claims.getExpiration() != null) {
+                    verifiedTokens.put(digest, verifiedPrincipal, claims.getExpiration().getTime());
+                }
+                return getAuthentication(verifiedPrincipal, token);
+            });
     }
 
     public Authentication getAuthentication(String token) {
-        Claims claims = jwtParser.parseClaimsJws(token).getBody();
+        return getAuthentication(getPrincipal(jwtParser.parseClaimsJws(token).getBody()), token);
+    }
 
-        Collection<? extends GrantedAuthority> authorities = Arrays
-            .stream(claims.get(AUTHORITIES_KEY).toString().split(","))
-            .filter(auth -> !auth.trim().isEmpty())
-            .map(SimpleGrantedAuthority::new)
-            .collect(Collectors.toList());
+    public boolean validateToken(String authToken) {
+        return parseClaims(authToken).isPresent();
+    }
 
-        User principal = new User(claims.getSubject(), "", authorities);
+    private static Authentication getAuthentication(DomainUser principal, String token) {
+        return new UsernamePasswordAuthenticationToken(principal, token, principal.getAuthorities());
+    }
 
-        return new UsernamePasswordAuthenticationToken(principal, token, authorities);
+    private DomainUser getPrincipal(Claims claims) {
+        Collection<GrantedAuthority> authorities;
+        Integer authoritiesMask = claims.get(AUTHORITIES_MASK_KEY, Integer.class);
+        if (authoritiesMask != null) {
+            authorities = AuthorityRegistry.fromMask(authoritiesMask);
+        } else {
+            // Tokens with an authority unknown to the registry, or issued before the bitmask was added
+            Object authoritiesClaim = claims.get(AUTHORITIES_KEY);
+            authorities = authoritiesClaim == null ? List.of() : AuthorityRegistry.fromClaim(authoritiesClaim.toString());
+        }
+
+        // Tokens issued before the user id was added have no such claim
+        return new DomainUser(claims.get(USER_ID_KEY, Long.class), claims.getSubject(), "", authorities);
     }
 
-    public boolean validateToken(String authToken) {
+    private Optional<Claims> parseClaims(String authToken) {
         try {
-            jwtParser.parseClaimsJws(authToken);
-
-            return true;
+            return Optional.of(jwtParser.parseClaimsJws(authToken).getBody());
         } catch (ExpiredJwtException e) {
             this.securityMetersService.trackTokenExpired();
 
@@ -121,6 +185,6 @@ public class TokenProvider {
             log.error("Token validation error {}", e.getMessage());
         }
 
-        return false;
+        return Optional.empty();
     }
 }
@@ -0,0 +1,109 @@
+package com.strongmind.todo.security.jwt;
+
+import com.strongmind.todo.security.DomainUser;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded cache of the principals built from verified JWT tokens, keyed by the SHA-256 digest of the token:
+ * a fixed-size key, whatever the number of claims in the token. The principals, and their authorities, are immutable:
+ * each request gets its own {@link org.springframework.security.core.Authentication} around them.
+ * <p>
+ * An entry is never returned after its token expires. When the cache is full, the expired entries are purged first,
+ * then a tenth of the remaining ones are evicted, so that the purge runs at most once per {@code maxSize / 10} insertions.
+ */
+class VerifiedTokenCache {
+
+    private final Map<ByteBuffer, Entry> entries = new ConcurrentHashMap<>();
+
+    private final int maxSize;
+
+    private final Clock clock;
+
+    VerifiedTokenCache(int maxSize, Clock clock) {
+        this.maxSize = maxSize;
+        this.clock = clock;
+    }
+
+    /**
+     * Compute the key of a token.
+     *
+     * @param token the token.
+     * @return the SHA-256 digest of the token.
+     */
+    static ByteBuffer digest(String token) {
+        try {
+            return ByteBuffer.wrap(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Get the principal of a token, if it was verified and has not expired since.
+     *
+     * @param digest the digest of the token.
+     * @return the principal, or {@code null}.
+     */
+    DomainUser get(ByteBuffer digest) {
+        Entry entry = entries.get(digest);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt <= clock.millis()) {
+            entries.remove(digest, entry);
+            return null;
+        }
+        return entry.principal;
+    }
+
+    /**
+     * Keep the principal of a verified token until the token expires.
+     *
+     * @param digest the digest of the token.
+     * @param principal the principal built from the token.
+     * @param expiresAt the expiration time of the token, in milliseconds since the epoch.
+     */
+    void put(ByteBuffer digest, DomainUser principal, long expiresAt) {
+        if (maxSize <= 0) {
+            return;
+        }
+        if (entries.size() >= maxSize) {
+            evict();
+        }
+        entries.put(digest, new Entry(principal, expiresAt));
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private void evict() {
+        long now = clock.millis();
+        entries.values().removeIf(entry -> entry.expiresAt <= now);
+        int toEvict = entries.size() - maxSize + Math.max(1, maxSize / 10);
+        Iterator<ByteBuffer> iterator = entries.keySet().iterator();
+        while (toEvict-- > 0 && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private static final class Entry {
+
+        private final DomainUser principal;
+
+        private final long expiresAt;
+
+        private Entry(DomainUser principal, long expiresAt) {
+            this.principal = principal;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.strongmind.todo.service;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The eviction of keys of a cache region, or of all of its entries, exchanged between the nodes of the cluster.
+ * <p>
+ * Only {@code String}, {@code Long} and {@code Integer} keys are sent: an invalidation of other keys clears the whole
+ * region.
+ */
+final class CacheInvalidation {
+
+    static final int MAX_KEYS = 100_000;
+
+    enum Kind {
+        /**
+         * A cache of Spring's cache abstraction, by cache name and key.
+         */
+        CACHE,
+        /**
+         * The second level cache of an entity, by entity name and id.
+         */
+        ENTITY,
+        /**
+         * The second level cache of a collection, by role and owner id.
+         */
+        COLLECTION,
+    }
+
+    private final Kind kind;
+
+    private final String region;
+
+    private final List<Object> keys;
+
+    private CacheInvalidation(Kind kind, String region, List<Object> keys) {
+        this.kind = kind;
+        this.region = region;
+        this.keys = keys;
+    }
+
+    /**
+     * The eviction of keys of a region, or of the whole region when a key cannot be sent.
+     */
+    static CacheInvalidation of(Kind kind, String region, Collection<?> keys) {
+        if (keys.size() > MAX_KEYS || !keys.stream().allMatch(CacheInvalidation::isSupported)) {
+            return clear(kind, region);
+        }
+        return new CacheInvalidation(kind, region, List.copyOf(keys));
+    }
+
+    /**
+     * The eviction of all the entries of a region.
+     */
+    static CacheInvalidation clear(Kind kind, String region) {
+        return new CacheInvalidation(kind, region, null);
+    }
+
+    private static boolean isSupported(Object key) {
+        return key instanceof String || key instanceof Long || key instanceof Integer;
+    }
+
+    Kind getKind() {
+        return kind;
+    }
+
+    String getRegion() {
+        return region;
+    }
+
+    /**
+     * @return the keys to evict, or {@code null} to evict all the entries.
+     */
+    List<Object> getKeys() {
+        return keys;
+    }
+
+    boolean isClear() {
+        return keys == null;
+    }
+
+    void write(DataOutput out) throws IOException {
+        out.writeByte(kind.ordinal());
+        out.writeUTF(region);
+        if (keys == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(keys.size());
+        for (Object key : keys) {
+            if (key instanceof String) {
+                out.writeByte('S');
+                out.writeUTF((String) key);
+            } else if (key instanceof Long) {
+                out.writeByte('L');
+                out.writeLong((Long) key);
+            } else {
+                out.writeByte('I');
+                out.writeInt((Integer) key);
+            }
+        }
+    }
+
+    static CacheInvalidation read(DataInput in) throws IOException {
+        int ordinal = in.readUnsignedByte();
+        if (ordinal >= Kind.values().length) {
+            throw new IOException("Unknown kind of invalidation " + ordinal);
+        }
+        Kind kind = Kind.values()[ordinal];
+        String region = in.readUTF();
+        int count = in.readInt();
+        if (count == -1) {
+            return clear(kind, region);
+        }
+        if (count < 0 || count > MAX_KEYS) {
+            throw new IOException("Invalid number of keys " + count);
+        }
+        List<Object> keys = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int type = in.readUnsignedByte();
+            switch (type) {
+                case 'S':
+                    keys.add(in.readUTF());
+                    break;
+                case 'L':
+                    keys.add(in.readLong());
+                    break;
+                case 'I':
+                    keys.add(in.readInt());
+                    break;
+                default:
+                    throw new IOException("Unknown type of key " + type);
+            }
+        }
+        return new CacheInvalidation(kind, region, keys);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CacheInvalidation)) {
+            return false;
+        }
+        CacheInvalidation that = (CacheInvalidation) o;
+        return kind == that.kind && region.equals(that.region) && Objects.equals(keys, that.keys);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(kind, region, keys);
+    }
+
+    @Override
+    public String toString() {
+        return kind + " " + region + " " + (keys == null ? "*" : keys);
+    }
+}
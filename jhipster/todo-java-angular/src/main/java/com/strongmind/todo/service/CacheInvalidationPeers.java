@@ -0,0 +1,369 @@
+package com.strongmind.todo.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * The transport of the cache invalidations between the nodes of the cluster: each node listens on a TCP port, and
+ * keeps a connection to each of its peers, fed by a bounded queue.
+ * <p>
+ * The invalidations which could not be sent to a peer, because its queue was full or because its connection failed
+ * (including those written on the connection before it failed, which it may not have received), are replaced by the
+ * clearing of their regions, sent once the peer is reachable again: a peer which was restarted or unreachable never
+ * keeps a stale entry, at the cost of the regions invalidated meanwhile.
+ * <p>
+ * The connections are only accepted from the addresses of the peers. Each invalidation carries the time it was sent,
+ * from which the receiver records the {@code cache.invalidations.latency} timer; the invalidations are counted by the
+ * {@code cache.invalidations} counter, tagged with their {@code result}: {@code sent}, {@code received} or
+ * {@code dropped}.
+ */
+class CacheInvalidationPeers implements AutoCloseable {
+
+    private static final int VERSION = 1;
+
+    private static final long RECONNECT_DELAY_MILLIS = 1000;
+
+    private final Logger log = LoggerFactory.getLogger(CacheInvalidationPeers.class);
+
+    private final UUID nodeId = UUID.randomUUID();
+
+    private final String bindAddress;
+
+    private final int port;
+
+    private final List<Peer> peers = new ArrayList<>();
+
+    private final int connectTimeoutMillis;
+
+    private final Consumer<CacheInvalidation> handler;
+
+    private final ExecutorService executor = Executors.newCachedThreadPool(new CustomizableThreadFactory("cache-invalidation-"));
+
+    private final Counter sent;
+
+    private final Counter received;
+
+    private final Counter dropped;
+
+    private final Timer latency;
+
+    private volatile ServerSocket serverSocket;
+
+    private volatile boolean running;
+
+    /**
+     * @param bindAddress the address on which the invalidations are received; all the interfaces when {@code null}.
+     * @param port the port on which the invalidations are received.
+     * @param peers the peers, as host:port.
+     * @param queueCapacity the number of invalidations waiting to be sent to a peer.
+     * @param connectTimeoutMillis the timeout of the connection to a peer.
+     * @param handler applies the invalidations received.
+     * @param meterRegistry the registry of the metrics.
+     */
+    CacheInvalidationPeers(
+        String bindAddress,
+        int port,
+        List<String> peers,
+        int queueCapacity,
+        int connectTimeoutMillis,
+        Consumer<CacheInvalidation> handler,
+        MeterRegistry meterRegistry
+    ) {
+        this.bindAddress = bindAddress;
+        this.port = port;
+        for (String peer : peers) {
+            int separator = peer.lastIndexOf(':');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid cache invalidation peer " + peer + ", expected host:port");
+            }
+            this.peers.add(new Peer(peer.substring(0, separator), Integer.parseInt(peer.substring(separator + 1)), queueCapacity));
+        }
+        this.connectTimeoutMillis = connectTimeoutMillis;
+        this.handler = handler;
+        this.sent = invalidationsCounter(meterRegistry, "sent");
+        this.received = invalidationsCounter(meterRegistry, "received");
+        this.dropped = invalidationsCounter(meterRegistry, "dropped");
+        this.latency =
+            Timer
+                .builder("cache.invalidations.latency")
+                .description("The time from the sending of an invalidation by a node to its receipt by another one")
+                .register(meterRegistry);
+    }
+
+    private static Counter invalidationsCounter(MeterRegistry meterRegistry, String result) {
+        return Counter
+            .builder("cache.invalidations")
+            .description("The number of cache invalidations exchanged with the other nodes")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Listen for the invalidations of the peers, and connect to them.
+     */
+    void start() throws IOException {
+        ServerSocket socket = new ServerSocket();
+        socket.setReuseAddress(true);
+        socket.bind(bindAddress != null ? new InetSocketAddress(bindAddress, port) : new InetSocketAddress(port));
+        serverSocket = socket;
+        running = true;
+        executor.execute(this::accept);
+        peers.forEach(executor::execute);
+        log.info("Exchanging cache invalidations on port {} with {}", getPort(), peers);
+    }
+
+    int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Queue an invalidation for each peer.
+     */
+    void publish(CacheInvalidation invalidation) {
+        for (Peer peer : peers) {
+            peer.offer(invalidation);
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        try {
+            if (serverSocket != null) {
+                serverSocket.close();
+            }
+        } catch (IOException e) {
+            log.debug("Could not close the cache invalidation socket: {}", e.toString());
+        }
+        peers.forEach(Peer::disconnect);
+        executor.shutdownNow();
+    }
+
+    private void accept() {
+        while (running) {
+            try {
+                Socket socket = serverSocket.accept();
+                if (isPeer(socket.getInetAddress())) {
+                    executor.execute(() -> receive(socket));
+                } else {
+                    log.warn("Refused a cache invalidation connection from {}, which is not a peer", socket.getInetAddress());
+                    socket.close();
+                }
+            } catch (IOException e) {
+                if (running) {
+                    log.warn("Could not accept a cache invalidation connection: {}", e.toString());
+                }
+            }
+        }
+    }
+
+    private boolean isPeer(InetAddress address) {
+        for (Peer peer : peers) {
+            try {
+                if (Arrays.asList(InetAddress.getAllByName(peer.host)).contains(address)) {
+                    return true;
+                }
+            } catch (UnknownHostException e) {
+                // Not resolvable, hence not this one
+            }
+        }
+        return false;
+    }
+
+    private void receive(Socket socket) {
+        try (socket; DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()))) {
+            while (running) {
+                int version = in.readUnsignedByte();
+                if (version != VERSION) {
+                    throw new IOException("Unsupported version " + version);
+                }
+                UUID origin = new UUID(in.readLong(), in.readLong());
+                long sentAt = in.readLong();
+                CacheInvalidation invalidation = CacheInvalidation.read(in);
+                if (!nodeId.equals(origin)) {
+                    latency.record(Math.max(0, System.currentTimeMillis() - sentAt), TimeUnit.MILLISECONDS);
+                    received.increment();
+                    try {
+                        handler.accept(invalidation);
+                    } catch (RuntimeException e) {
+                        log.warn("Could not apply the cache invalidation {}: {}", invalidation, e.toString());
+                    }
+                }
+            }
+        } catch (EOFException e) {
+            // Closed by the peer
+        } catch (IOException e) {
+            if (running) {
+                log.warn("Cache invalidation connection from {} failed: {}", socket.getInetAddress(), e.toString());
+            }
+        }
+    }
+
+    /**
+     * A peer, with its queue of invalidations, sent on its own thread.
+     */
+    private final class Peer implements Runnable {
+
+        private final String host;
+
+        private final int port;
+
+        private final BlockingQueue<CacheInvalidation> queue;
+
+        /**
+         * The regions to clear once connected again, for the invalidations which may not have been received.
+         */
+        private final Set<CacheInvalidation> regionsToClear = ConcurrentHashMap.newKeySet();
+
+        /**
+         * The regions invalidated on the current connection.
+         */
+        private final Set<CacheInvalidation> regionsSent = new HashSet<>();
+
+        private volatile Socket socket;
+
+        private DataOutputStream out;
+
+        Peer(String host, int port, int queueCapacity) {
+            this.host = host;
+            this.port = port;
+            this.queue = new LinkedBlockingQueue<>(queueCapacity);
+        }
+
+        void offer(CacheInvalidation invalidation) {
+            if (!queue.offer(invalidation)) {
+                drop(invalidation);
+            }
+        }
+
+        private void drop(CacheInvalidation invalidation) {
+            regionsToClear.add(CacheInvalidation.clear(invalidation.getKind(), invalidation.getRegion()));
+            dropped.increment();
+        }
+
+        @Override
+        public void run() {
+            List<CacheInvalidation> batch = new ArrayList<>();
+            while (running) {
+                try {
+                    CacheInvalidation first = queue.poll(1, TimeUnit.SECONDS);
+                    if (first == null && regionsToClear.isEmpty()) {
+                        continue;
+                    }
+                    if (first != null) {
+                        batch.add(first);
+                    }
+                    queue.drainTo(batch);
+                    send(batch);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (IOException e) {
+                    if (!running) {
+                        return;
+                    }
+                    log.debug("Could not send cache invalidations to {}:{}: {}", host, port, e.toString());
+                    batch.forEach(this::drop);
+                    regionsToClear.addAll(regionsSent);
+                    disconnect();
+                    sleep();
+                } finally {
+                    batch.clear();
+                }
+            }
+        }
+
+        private void send(List<CacheInvalidation> batch) throws IOException {
+            if (socket == null) {
+                connect();
+            }
+            for (CacheInvalidation clear : List.copyOf(regionsToClear)) {
+                write(clear);
+                regionsToClear.remove(clear);
+            }
+            for (CacheInvalidation invalidation : batch) {
+                write(invalidation);
+            }
+            out.flush();
+            sent.increment(batch.size());
+        }
+
+        private void connect() throws IOException {
+            Socket connection = new Socket();
+            try {
+                connection.setTcpNoDelay(true);
+                connection.setKeepAlive(true);
+                connection.connect(new InetSocketAddress(host, port), connectTimeoutMillis);
+            } catch (IOException e) {
+                connection.close();
+                throw e;
+            }
+            socket = connection;
+            out = new DataOutputStream(new BufferedOutputStream(connection.getOutputStream()));
+            regionsSent.clear();
+            log.debug("Connected to cache invalidation peer {}:{}", host, port);
+        }
+
+        private void write(CacheInvalidation invalidation) throws IOException {
+            regionsSent.add(CacheInvalidation.clear(invalidation.getKind(), invalidation.getRegion()));
+            out.writeByte(VERSION);
+            out.writeLong(nodeId.getMostSignificantBits());
+            out.writeLong(nodeId.getLeastSignificantBits());
+            out.writeLong(System.currentTimeMillis());
+            invalidation.write(out);
+        }
+
+        void disconnect() {
+            Socket connection = socket;
+            socket = null;
+            if (connection != null) {
+                try {
+                    connection.close();
+                } catch (IOException e) {
+                    // Already closed
+                }
+            }
+        }
+
+        private void sleep() {
+            try {
+                Thread.sleep(RECONNECT_DELAY_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public String toString() {
+            return host + ":" + port;
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package com.strongmind.todo.service;
+
+import com.strongmind.todo.config.ApplicationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Set;
+import javax.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Service keeping the caches of the nodes of the cluster consistent: the entries changed on a node are evicted from
+ * the caches of the other ones, through {@link CacheInvalidationPeers}, once the transaction which changed them
+ * commits.
+ * <p>
+ * The entries of Spring's caches are evicted through {@link #evict}; those of the second level cache of Hibernate
+ * are kept up to date on the node by Hibernate, and evicted from the other nodes through {@link #entitiesChanged} and
+ * {@link #collectionsChanged}. Each invalidation is applied again after
+ * {@code application.cache.invalidation.repeat-after-millis}, so that a load which read the database before the
+ * commit cannot leave a stale entry.
+ * <p>
+ * When {@code application.cache.invalidation.enabled} is false, only the caches of this node are evicted.
+ */
+@Service
+public class CacheInvalidationService implements SmartLifecycle {
+
+    private final Logger log = LoggerFactory.getLogger(CacheInvalidationService.class);
+
+    private final CacheManager cacheManager;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final TaskScheduler taskScheduler;
+
+    private final ApplicationProperties.Invalidation properties;
+
+    private final CacheInvalidationPeers peers;
+
+    private volatile boolean running;
+
+    public CacheInvalidationService(
+        CacheManager cacheManager,
+        EntityManagerFactory entityManagerFactory,
+        TaskScheduler taskScheduler,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.cacheManager = cacheManager;
+        this.entityManagerFactory = entityManagerFactory;
+        this.taskScheduler = taskScheduler;
+        this.properties = applicationProperties.getCache().getInvalidation();
+        this.peers =
+            properties.isEnabled()
+                ? new CacheInvalidationPeers(
+                    properties.getBindAddress(),
+                    properties.getPort(),
+                    properties.getPeers(),
+                    properties.getQueueCapacity(),
+                    properties.getConnectTimeoutMillis(),
+                    this::onInvalidation,
+                    meterRegistry
+                )
+                : null;
+    }
+
+    /**
+     * Evict keys of a cache of Spring's cache abstraction, on this node at once and again after the commit of the
+     * current transaction, and on the other nodes after the commit.
+     *
+     * @param cacheName the name of the cache.
+     * @param keys the keys to evict.
+     */
+    public void evict(String cacheName, Collection<?> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        CacheInvalidation invalidation = CacheInvalidation.of(CacheInvalidation.Kind.CACHE, cacheName, keys);
+        evictLocally(cacheName, keys);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            afterCommit(() -> {
+                evictLocally(cacheName, keys);
+                publish(invalidation);
+            });
+        } else {
+            publish(invalidation);
+        }
+    }
+
+    /**
+     * Evict entities from the second level cache of the other nodes, after the commit of the current transaction.
+     *
+     * @param entityName the name of the entity.
+     * @param ids the ids of the entities changed.
+     */
+    public void entitiesChanged(String entityName, Collection<?> ids) {
+        if (!ids.isEmpty()) {
+            CacheInvalidation invalidation = CacheInvalidation.of(CacheInvalidation.Kind.ENTITY, entityName, ids);
+            afterCommit(() -> publish(invalidation));
+        }
+    }
+
+    /**
+     * Evict collections from the second level cache of the other nodes, after the commit of the current transaction.
+     *
+     * @param role the role of the collection, such as {@code com.strongmind.todo.domain.User.authorities}.
+     * @param ownerIds the ids of the owners of the collections changed.
+     */
+    public void collectionsChanged(String role, Collection<?> ownerIds) {
+        if (!ownerIds.isEmpty()) {
+            CacheInvalidation invalidation = CacheInvalidation.of(CacheInvalidation.Kind.COLLECTION, role, ownerIds);
+            afterCommit(() -> publish(invalidation));
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        action.run();
+                    }
+                }
+            );
+        } else {
+            action.run();
+        }
+    }
+
+    private void publish(CacheInvalidation invalidation) {
+        if (peers != null) {
+            peers.publish(invalidation);
+        }
+    }
+
+    private void onInvalidation(CacheInvalidation invalidation) {
+        log.debug("Applying the cache invalidation {} of another node", invalidation);
+        apply(invalidation);
+        if (properties.getRepeatAfterMillis() > 0) {
+            taskScheduler.schedule(() -> apply(invalidation), Instant.now().plusMillis(properties.getRepeatAfterMillis()));
+        }
+    }
+
+    void apply(CacheInvalidation invalidation) {
+        switch (invalidation.getKind()) {
+            case CACHE:
+                if (invalidation.isClear()) {
+                    Cache cache = cacheManager.getCache(invalidation.getRegion());
+                    if (cache != null) {
+                        cache.clear();
+                    }
+                } else {
+                    evictLocally(invalidation.getRegion(), invalidation.getKeys());
+                }
+                break;
+            case ENTITY:
+                if (invalidation.isClear()) {
+                    hibernateCache().evictEntityData(invalidation.getRegion());
+                } else {
+                    invalidation.getKeys().forEach(id -> hibernateCache().evictEntityData(invalidation.getRegion(), (Serializable) id));
+                }
+                break;
+            case COLLECTION:
+                if (invalidation.isClear()) {
+                    hibernateCache().evictCollectionData(invalidation.getRegion());
+                } else {
+                    invalidation
+                        .getKeys()
+                        .forEach(ownerId -> hibernateCache().evictCollectionData(invalidation.getRegion(), (Serializable) ownerId));
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown kind of invalidation " + invalidation.getKind());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void evictLocally(String cacheName, Collection<?> keys) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null) {
+            log.debug("No cache {} to evict", cacheName);
+        } else if (cache.getNativeCache() instanceof javax.cache.Cache) {
+            ((javax.cache.Cache<Object, Object>) cache.getNativeCache()).removeAll(Set.copyOf(keys));
+        } else {
+            keys.forEach(cache::evict);
+        }
+    }
+
+    private org.hibernate.Cache hibernateCache() {
+        return entityManagerFactory.getCache().unwrap(org.hibernate.Cache.class);
+    }
+
+    @Override
+    public void start() {
+        if (peers != null) {
+            try {
+                peers.start();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not listen for the cache invalidations on port " + properties.getPort(), e);
+            }
+        }
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (peers != null) {
+            peers.close();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
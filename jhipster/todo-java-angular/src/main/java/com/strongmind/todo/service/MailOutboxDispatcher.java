@@ -0,0 +1,240 @@
+package com.strongmind.todo.service;
+
+import com.strongmind.todo.config.ApplicationProperties;
+import com.strongmind.todo.domain.MailOutboxMessage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.mail.MessagingException;
+import javax.mail.SendFailedException;
+import javax.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Sends the emails of the outbox in batches, each batch over a single SMTP connection.
+ * <p>
+ * A failed message is retried with an exponential, jittered backoff; it is given up on after too many attempts, or at
+ * once when the SMTP server rejects its recipient. Delivery is at least once: a message whose sending is interrupted
+ * (by a crash for instance) is sent again when its lease expires. The messages given up on are deleted after
+ * {@code application.mail-outbox.abandoned-retention-hours}.
+ * <p>
+ * The {@code mail.outbox.pending} gauge reports the number of messages waiting to be sent as of the last count, taken
+ * by the polls which sent messages, and by the others once a minute.
+ */
+@Service
+public class MailOutboxDispatcher {
+
+    private static final long PENDING_COUNT_MAX_AGE_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final Logger log = LoggerFactory.getLogger(MailOutboxDispatcher.class);
+
+    private final MailOutboxService mailOutboxService;
+
+    private final JavaMailSender javaMailSender;
+
+    private final JHipsterProperties jHipsterProperties;
+
+    private final ApplicationProperties.MailOutbox properties;
+
+    private final Counter sentCounter;
+
+    private final Counter retriedCounter;
+
+    private final Counter abandonedCounter;
+
+    private final AtomicLong pending = new AtomicLong();
+
+    private volatile long nextPendingCount = System.nanoTime();
+
+    public MailOutboxDispatcher(
+        MailOutboxService mailOutboxService,
+        JavaMailSender javaMailSender,
+        JHipsterProperties jHipsterProperties,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.mailOutboxService = mailOutboxService;
+        this.javaMailSender = javaMailSender;
+        this.jHipsterProperties = jHipsterProperties;
+        this.properties = applicationProperties.getMailOutbox();
+        this.sentCounter = messagesCounter(meterRegistry, "sent");
+        this.retriedCounter = messagesCounter(meterRegistry, "retried");
+        this.abandonedCounter = messagesCounter(meterRegistry, "abandoned");
+        Gauge
+            .builder("mail.outbox.pending", pending, AtomicLong::get)
+            .description("The number of emails waiting to be sent")
+            .register(meterRegistry);
+    }
+
+    private static Counter messagesCounter(MeterRegistry meterRegistry, String result) {
+        return Counter
+            .builder("mail.outbox.messages")
+            .description("The number of emails of the outbox, by result of their sending")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Drain the outbox, batch by batch.
+     */
+    @Scheduled(fixedDelayString = "${application.mail-outbox.poll-interval-millis:1000}")
+    public void dispatch() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            int claimed = 0;
+            int batch;
+            do {
+                batch = dispatchBatch();
+                claimed += batch;
+            } while (batch == properties.getBatchSize());
+            if (claimed > 0 || System.nanoTime() - nextPendingCount >= 0) {
+                pending.set(mailOutboxService.countPending());
+                nextPendingCount = System.nanoTime() + PENDING_COUNT_MAX_AGE_NANOS;
+            }
+        } catch (RuntimeException e) {
+            log.warn("Email outbox could not be drained: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Delete the messages given up on for longer than their retention.
+     * <p>
+     * This is scheduled to get fired everyday, at 02:00 (am).
+     */
+    @Scheduled(cron = "0 0 2 * * ?")
+    public void deleteAbandoned() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        int deleted = mailOutboxService.deleteAbandoned(Instant.now().minus(properties.getAbandonedRetentionHours(), ChronoUnit.HOURS));
+        log.info("Deleted {} emails of the outbox given up on", deleted);
+    }
+
+    /**
+     * Send one batch of the messages due.
+     *
+     * @return the number of messages claimed.
+     */
+    public int dispatchBatch() {
+        List<MailOutboxMessage> messages = mailOutboxService.claimDue(properties.getBatchSize(), Duration.ofMillis(properties.getLeaseMillis()));
+        if (messages.isEmpty()) {
+            return 0;
+        }
+        List<Long> sent = new ArrayList<>();
+        List<MimeMessage> mimeMessages = new ArrayList<>();
+        Map<MimeMessage, MailOutboxMessage> messagesByMimeMessage = new IdentityHashMap<>();
+        for (MailOutboxMessage message : messages) {
+            try {
+                MimeMessage mimeMessage = toMimeMessage(message);
+                mimeMessages.add(mimeMessage);
+                messagesByMimeMessage.put(mimeMessage, message);
+            } catch (MessagingException e) {
+                abandon(message, e);
+            }
+        }
+        Map<Object, Exception> failures = send(mimeMessages);
+        for (MimeMessage mimeMessage : mimeMessages) {
+            MailOutboxMessage message = messagesByMimeMessage.get(mimeMessage);
+            Exception failure = failures.get(mimeMessage);
+            if (failure == null) {
+                sent.add(message.getId());
+            } else if (isPermanent(failure) || message.getAttempts() >= properties.getMaxAttempts()) {
+                abandon(message, failure);
+            } else {
+                retry(message, failure);
+            }
+        }
+        mailOutboxService.sent(sent);
+        sentCounter.increment(sent.size());
+        log.debug("Sent {} of {} emails of the outbox", sent.size(), messages.size());
+        return messages.size();
+    }
+
+    /**
+     * Send the messages over one connection.
+     *
+     * @return the failure of each message which was not sent.
+     */
+    private Map<Object, Exception> send(List<MimeMessage> mimeMessages) {
+        if (mimeMessages.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        try {
+            javaMailSender.send(mimeMessages.toArray(new MimeMessage[0]));
+            return Collections.emptyMap();
+        } catch (MailSendException e) {
+            // Lists the messages not sent; empty if they all were but the connection failed to close
+            return e.getFailedMessages();
+        } catch (MailException e) {
+            Map<Object, Exception> failures = new IdentityHashMap<>();
+            mimeMessages.forEach(mimeMessage -> failures.put(mimeMessage, e));
+            return failures;
+        }
+    }
+
+    private MimeMessage toMimeMessage(MailOutboxMessage message) throws MessagingException {
+        MimeMessage mimeMessage = javaMailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, false, StandardCharsets.UTF_8.name());
+        helper.setTo(message.getRecipient());
+        helper.setFrom(jHipsterProperties.getMail().getFrom());
+        helper.setSubject(message.getSubject());
+        helper.setText(message.getContent(), true);
+        return mimeMessage;
+    }
+
+    /**
+     * An address rejected by the server (5xx) will be rejected again; transient rejections (4xx) are retried.
+     */
+    private static boolean isPermanent(Exception failure) {
+        return (
+            failure instanceof SendFailedException &&
+            ((SendFailedException) failure).getInvalidAddresses() != null &&
+            ((SendFailedException) failure).getInvalidAddresses().length > 0
+        );
+    }
+
+    private void retry(MailOutboxMessage message, Exception failure) {
+        long backoffMillis = backoffMillis(message.getAttempts());
+        log.info("Email to '{}' could not be sent, retrying in {} ms: {}", message.getRecipient(), backoffMillis, failure.getMessage());
+        mailOutboxService.failed(message.getId(), failure.toString(), Instant.now().plusMillis(backoffMillis));
+        retriedCounter.increment();
+    }
+
+    private void abandon(MailOutboxMessage message, Exception failure) {
+        log.warn("Email to '{}' could not be sent after {} attempts, giving up", message.getRecipient(), message.getAttempts(), failure);
+        mailOutboxService.failed(message.getId(), failure.toString(), null);
+        abandonedCounter.increment();
+    }
+
+    /**
+     * Delay after a given number of attempts: doubling from the initial backoff up to the maximum, of which a random
+     * half is taken, so that the messages failed together are not retried together.
+     */
+    long backoffMillis(int attempts) {
+        long backoff = properties.getInitialBackoffMillis() << Math.min(Math.max(attempts - 1, 0), 30);
+        backoff = Math.min(Math.max(backoff, 0), properties.getMaxBackoffMillis());
+        return backoff / 2 + ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+    }
+}
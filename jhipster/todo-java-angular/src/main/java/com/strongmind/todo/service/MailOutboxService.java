@@ -0,0 +1,113 @@
+package com.strongmind.todo.service;
+
+import com.strongmind.todo.domain.MailOutboxMessage;
+import com.strongmind.todo.repository.MailOutboxMessageRepository;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service for managing the {@link MailOutboxMessage}s: the emails are stored before being sent, so that they survive
+ * a restart or an unavailable SMTP server.
+ */
+@Service
+@Transactional
+public class MailOutboxService {
+
+    private static final int MAX_ERROR_LENGTH = 512;
+
+    private final Logger log = LoggerFactory.getLogger(MailOutboxService.class);
+
+    private final MailOutboxMessageRepository mailOutboxMessageRepository;
+
+    public MailOutboxService(MailOutboxMessageRepository mailOutboxMessageRepository) {
+        this.mailOutboxMessageRepository = mailOutboxMessageRepository;
+    }
+
+    /**
+     * Store an HTML email, to be sent as soon as possible.
+     *
+     * @param to the recipient.
+     * @param subject the subject.
+     * @param content the HTML content.
+     * @return the stored message.
+     */
+    public MailOutboxMessage enqueue(String to, String subject, String content) {
+        log.debug("Enqueuing email to '{}' with subject '{}'", to, subject);
+        return mailOutboxMessageRepository.save(
+            new MailOutboxMessage().recipient(to).subject(subject).content(content).nextAttemptAt(Instant.now())
+        );
+    }
+
+    /**
+     * Claim the messages due, oldest first: their attempt is counted, and they are not due again until the lease
+     * expires, unless their delivery is reported before.
+     *
+     * @param batchSize the maximum number of messages to claim.
+     * @param lease the time given to send them.
+     * @return the claimed messages.
+     */
+    public List<MailOutboxMessage> claimDue(int batchSize, Duration lease) {
+        Instant now = Instant.now();
+        List<MailOutboxMessage> messages = mailOutboxMessageRepository.findDueForUpdate(now, PageRequest.of(0, batchSize));
+        for (MailOutboxMessage message : messages) {
+            message.setAttempts(message.getAttempts() + 1);
+            message.setNextAttemptAt(now.plus(lease));
+        }
+        return messages;
+    }
+
+    /**
+     * Remove the messages which were sent.
+     *
+     * @param ids the ids of the messages.
+     */
+    public void sent(Collection<Long> ids) {
+        if (!ids.isEmpty()) {
+            mailOutboxMessageRepository.deleteAllByIdInBatch(ids);
+        }
+    }
+
+    /**
+     * Record the failure of an attempt to send a message.
+     *
+     * @param id the id of the message.
+     * @param error the cause of the failure.
+     * @param nextAttemptAt the time of the next attempt, or {@code null} to give up on the message.
+     */
+    public void failed(Long id, String error, Instant nextAttemptAt) {
+        mailOutboxMessageRepository
+            .findById(id)
+            .ifPresent(message -> {
+                message.setLastError(error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+                message.setNextAttemptAt(nextAttemptAt);
+            });
+    }
+
+    /**
+     * Delete the messages given up on, once they are no longer needed to investigate their failure: they may hold
+     * activation and password reset links.
+     *
+     * @param createdBefore the creation time before which the messages are deleted.
+     * @return the number of messages deleted.
+     */
+    public int deleteAbandoned(Instant createdBefore) {
+        return mailOutboxMessageRepository.deleteAbandonedCreatedBefore(createdBefore);
+    }
+
+    /**
+     * Count the messages waiting to be sent, including those being retried.
+     *
+     * @return the number of messages.
+     */
+    @Transactional(readOnly = true)
+    public long countPending() {
+        return mailOutboxMessageRepository.countByNextAttemptAtIsNotNull();
+    }
+}
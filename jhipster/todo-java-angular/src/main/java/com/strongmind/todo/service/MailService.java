@@ -1,13 +1,21 @@
 package com.strongmind.todo.service;
 
+import com.strongmind.todo.config.Constants;
 import com.strongmind.todo.domain.User;
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Locale;
 import javax.mail.MessagingException;
 import javax.mail.internet.MimeMessage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.MessageSource;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 import org.springframework.mail.MailException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
@@ -20,7 +28,8 @@ import tech.jhipster.config.JHipsterProperties;
 /**
  * Service for sending emails.
  * <p>
- * We use the {@link Async} annotation to send emails asynchronously.
+ * The activation, creation and password reset emails are stored in the outbox, and sent by the
+ * {@link MailOutboxDispatcher}. The other emails are sent asynchronously, using the {@link Async} annotation.
  */
 @Service
 public class MailService {
@@ -31,6 +40,16 @@ public class MailService {
 
     private static final String BASE_URL = "baseUrl";
 
+    private static final String ACTIVATION_TEMPLATE = "mail/activationEmail";
+
+    private static final String CREATION_TEMPLATE = "mail/creationEmail";
+
+    private static final String PASSWORD_RESET_TEMPLATE = "mail/passwordResetEmail";
+
+    private static final List<String> TEMPLATES = List.of(ACTIVATION_TEMPLATE, CREATION_TEMPLATE, PASSWORD_RESET_TEMPLATE);
+
+    private static final String MESSAGES_PATTERN = "classpath*:i18n/messages_*.properties";
+
     private final JHipsterProperties jHipsterProperties;
 
     private final JavaMailSender javaMailSender;
@@ -39,19 +58,23 @@ public class MailService {
 
     private final SpringTemplateEngine templateEngine;
 
+    private final MailOutboxService mailOutboxService;
+
     public MailService(
         JHipsterProperties jHipsterProperties,
         JavaMailSender javaMailSender,
         MessageSource messageSource,
-        SpringTemplateEngine templateEngine
+        SpringTemplateEngine templateEngine,
+        MailOutboxService mailOutboxService
     ) {
         this.jHipsterProperties = jHipsterProperties;
         this.javaMailSender = javaMailSender;
         this.messageSource = messageSource;
         this.templateEngine = templateEngine;
+        this.mailOutboxService = mailOutboxService;
     }
 
-    @Async
+    @Async("mailExecutor")
     public void sendEmail(String to, String subject, String content, boolean isMultipart, boolean isHtml) {
         log.debug(
             "Send email[multipart '{}' and html '{}'] to '{}' with subject '{}' and content={}",
@@ -77,36 +100,95 @@ public class MailService {
         }
     }
 
-    @Async
+    @Async("mailExecutor")
     public void sendEmailFromTemplate(User user, String templateName, String titleKey) {
         if (user.getEmail() == null) {
             log.debug("Email doesn't exist for user '{}'", user.getLogin());
             return;
         }
         Locale locale = Locale.forLanguageTag(user.getLangKey());
+        sendEmail(user.getEmail(), messageSource.getMessage(titleKey, null, locale), render(user, templateName, locale), false, true);
+    }
+
+    /**
+     * Store an email built from a template in the outbox. Unlike {@link #sendEmailFromTemplate}, it is not lost if
+     * the SMTP server is unavailable or the application restarts before it is sent.
+     */
+    private void enqueueEmailFromTemplate(User user, String templateName, String titleKey) {
+        if (user.getEmail() == null) {
+            log.debug("Email doesn't exist for user '{}'", user.getLogin());
+            return;
+        }
+        Locale locale = Locale.forLanguageTag(user.getLangKey());
+        mailOutboxService.enqueue(user.getEmail(), messageSource.getMessage(titleKey, null, locale), render(user, templateName, locale));
+    }
+
+    private String render(User user, String templateName, Locale locale) {
         Context context = new Context(locale);
         context.setVariable(USER, user);
         context.setVariable(BASE_URL, jHipsterProperties.getMail().getBaseUrl());
-        String content = templateEngine.process(templateName, context);
-        String subject = messageSource.getMessage(titleKey, null, locale);
-        sendEmail(user.getEmail(), subject, content, false, true);
+        return templateEngine.process(templateName, context);
+    }
+
+    /**
+     * Render the email templates once for each locale with messages, at startup: the templates are parsed and their
+     * expressions compiled into the caches of the template engine, and the message bundles loaded, before the first
+     * email is sent.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpTemplates() {
+        User user = new User();
+        user.setLogin("warm-up");
+        user.setActivationKey("warm-up");
+        user.setResetKey("warm-up");
+        List<Locale> locales = supportedLocales();
+        long start = System.nanoTime();
+        for (Locale locale : locales) {
+            for (String templateName : TEMPLATES) {
+                try {
+                    render(user, templateName, locale);
+                } catch (RuntimeException e) {
+                    log.warn("Email template '{}' could not be rendered for locale '{}'", templateName, locale, e);
+                }
+            }
+        }
+        log.debug("Warmed up {} email templates for locales {} in {} ms", TEMPLATES.size(), locales, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * The locales of the message bundles, such as {@code messages_en.properties}.
+     */
+    List<Locale> supportedLocales() {
+        List<Locale> locales = new ArrayList<>();
+        try {
+            for (Resource resource : new PathMatchingResourcePatternResolver().getResources(MESSAGES_PATTERN)) {
+                String filename = resource.getFilename();
+                if (filename != null) {
+                    String tag = filename.substring("messages_".length(), filename.length() - ".properties".length());
+                    locales.add(Locale.forLanguageTag(tag.replace('_', '-')));
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Message bundles could not be listed", e);
+        }
+        if (locales.isEmpty()) {
+            locales.add(Locale.forLanguageTag(Constants.DEFAULT_LANGUAGE));
+        }
+        return locales;
     }
 
-    @Async
     public void sendActivationEmail(User user) {
         log.debug("Sending activation email to '{}'", user.getEmail());
-        sendEmailFromTemplate(user, "mail/activationEmail", "email.activation.title");
+        enqueueEmailFromTemplate(user, ACTIVATION_TEMPLATE, "email.activation.title");
     }
 
-    @Async
     public void sendCreationEmail(User user) {
         log.debug("Sending creation email to '{}'", user.getEmail());
-        sendEmailFromTemplate(user, "mail/creationEmail", "email.activation.title");
+        enqueueEmailFromTemplate(user, CREATION_TEMPLATE, "email.activation.title");
     }
 
-    @Async
     public void sendPasswordResetMail(User user) {
         log.debug("Sending password reset email to '{}'", user.getEmail());
-        sendEmailFromTemplate(user, "mail/passwordResetEmail", "email.reset.title");
+        enqueueEmailFromTemplate(user, PASSWORD_RESET_TEMPLATE, "email.reset.title");
     }
 }
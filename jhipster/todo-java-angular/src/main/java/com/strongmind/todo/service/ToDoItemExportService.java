@@ -0,0 +1,86 @@
+package com.strongmind.todo.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.strongmind.todo.config.ApplicationProperties;
+import com.strongmind.todo.domain.ToDoItem;
+import com.strongmind.todo.repository.ToDoItemRepository;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import javax.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service for exporting {@link ToDoItem} as newline-delimited JSON.
+ * <p>
+ * Rows are streamed from a forward-only cursor and written one by one through a Jackson generator,
+ * while the persistence context is cleared at a fixed interval, so heap usage does not depend on the
+ * number of exported rows.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ToDoItemExportService {
+
+    private final Logger log = LoggerFactory.getLogger(ToDoItemExportService.class);
+
+    private final ToDoItemRepository toDoItemRepository;
+
+    private final EntityManager entityManager;
+
+    private final ObjectWriter objectWriter;
+
+    private final ObjectMapper objectMapper;
+
+    private final ApplicationProperties.Export exportProperties;
+
+    public ToDoItemExportService(
+        ToDoItemRepository toDoItemRepository,
+        EntityManager entityManager,
+        ObjectMapper objectMapper,
+        ApplicationProperties applicationProperties
+    ) {
+        this.toDoItemRepository = toDoItemRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.objectWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.exportProperties = applicationProperties.getExport();
+    }
+
+    /**
+     * Write all the toDoItems to the given stream, one JSON document per line.
+     * <p>
+     * The output stream is flushed but not closed.
+     *
+     * @param outputStream the stream to write to.
+     * @throws IOException if the stream cannot be written.
+     */
+    public void exportAsNdjson(OutputStream outputStream) throws IOException {
+        log.debug("Request to export all ToDoItems");
+        int clearInterval = exportProperties.getClearInterval();
+        long count = 0;
+        try (
+            Stream<ToDoItem> toDoItems = toDoItemRepository.streamAllWithToOneRelationships(exportProperties.getFetchSize());
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)
+        ) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            Iterator<ToDoItem> iterator = toDoItems.iterator();
+            while (iterator.hasNext()) {
+                objectWriter.writeValue(generator, iterator.next());
+                generator.writeRaw('\n');
+                if (++count % clearInterval == 0) {
+                    // Rows already written are not needed anymore: release them and their snapshots
+                    entityManager.clear();
+                }
+            }
+        }
+        log.debug("Exported {} ToDoItems", count);
+    }
+}
@@ -0,0 +1,167 @@
+package com.strongmind.todo.service;
+
+import com.strongmind.todo.domain.ToDoItem;
+import com.strongmind.todo.domain.User;
+import com.strongmind.todo.domain.enumeration.ItemStatus;
+import com.strongmind.todo.repository.ToDoItemRepository;
+import com.strongmind.todo.repository.UserRepository;
+import com.strongmind.todo.security.SecurityUtils;
+import com.strongmind.todo.service.dto.ToDoItemDTO;
+import com.strongmind.todo.service.dto.ToDoItemVersionDTO;
+import com.strongmind.todo.service.dto.UserDTO;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service for reading {@link ToDoItem} as {@link ToDoItemDTO}.
+ * <p>
+ * The DTOs are built by JPQL constructor expressions from the selected columns: no entity is instantiated,
+ * nor added to the persistence context with its snapshot for dirty checking.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ToDoItemQueryService {
+
+    private static final String SELECT_DTO =
+        "select new " +
+        ToDoItemDTO.class.getName() +
+        "(toDoItem.id, toDoItem.description, toDoItem.status, toDoItem.version, user.id, user.login) " +
+        "from ToDoItem toDoItem left join toDoItem.user user ";
+
+    private static final String SELECT_USER_DTO =
+        "select new " +
+        ToDoItemDTO.class.getName() +
+        "(toDoItem.id, toDoItem.description, toDoItem.status, toDoItem.version) " +
+        "from ToDoItem toDoItem where toDoItem.user.id = :userId ";
+
+    private final Logger log = LoggerFactory.getLogger(ToDoItemQueryService.class);
+
+    private final EntityManager entityManager;
+
+    private final ToDoItemRepository toDoItemRepository;
+
+    private final UserRepository userRepository;
+
+    public ToDoItemQueryService(EntityManager entityManager, ToDoItemRepository toDoItemRepository, UserRepository userRepository) {
+        this.entityManager = entityManager;
+        this.toDoItemRepository = toDoItemRepository;
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * Get one toDoItem by id.
+     *
+     * @param id the id of the toDoItem.
+     * @return the toDoItem, if it exists.
+     */
+    public Optional<ToDoItemDTO> findOne(Long id) {
+        log.debug("Request to get ToDoItemDTO : {}", id);
+        return entityManager
+            .createQuery(SELECT_DTO + "where toDoItem.id = :id", ToDoItemDTO.class)
+            .setParameter("id", id)
+            .getResultStream()
+            .findFirst();
+    }
+
+    /**
+     * Keyset page of toDoItems ordered by id: never issues an {@code OFFSET} nor a count query.
+     *
+     * @param status the status to filter on, or {@code null} for all statuses.
+     * @param afterId the id of the last toDoItem of the previous page.
+     * @param limit the maximum number of toDoItems to return.
+     * @return the toDoItems with an id greater than {@code afterId}.
+     */
+    public List<ToDoItemDTO> findAllAfter(ItemStatus status, long afterId, int limit) {
+        log.debug("Request to get a page of ToDoItemDTOs after id {}", afterId);
+        TypedQuery<ToDoItemDTO> query;
+        if (status == null) {
+            query = entityManager.createQuery(SELECT_DTO + "where toDoItem.id > :afterId order by toDoItem.id", ToDoItemDTO.class);
+        } else {
+            query =
+                entityManager
+                    .createQuery(
+                        SELECT_DTO + "where toDoItem.status = :status and toDoItem.id > :afterId order by toDoItem.id",
+                        ToDoItemDTO.class
+                    )
+                    .setParameter("status", status);
+        }
+        return query.setParameter("afterId", afterId).setMaxResults(limit).getResultList();
+    }
+
+    /**
+     * Keyset page of the toDoItems of the current user, ordered by id.
+     * <p>
+     * The user id is taken from the principal, so the query filters on {@code to_do_item.user_id} without joining
+     * {@code jhi_user}; it is only looked up by login for principals that do not carry it.
+     *
+     * @param status the status to filter on, or {@code null} for all statuses.
+     * @param afterId the id of the last toDoItem of the previous page.
+     * @param limit the maximum number of toDoItems to return.
+     * @return the toDoItems of the current user with an id greater than {@code afterId}.
+     */
+    public List<ToDoItemDTO> findAllOfCurrentUserAfter(ItemStatus status, long afterId, int limit) {
+        log.debug("Request to get a page of the current user's ToDoItemDTOs after id {}", afterId);
+        Optional<String> login = SecurityUtils.getCurrentUserLogin();
+        Optional<Long> userId = SecurityUtils
+            .getCurrentUserId()
+            .or(() -> login.flatMap(userRepository::findOneByLogin).map(User::getId));
+        if (userId.isEmpty()) {
+            return List.of();
+        }
+        TypedQuery<ToDoItemDTO> query;
+        if (status == null) {
+            query = entityManager.createQuery(SELECT_USER_DTO + "and toDoItem.id > :afterId order by toDoItem.id", ToDoItemDTO.class);
+        } else {
+            query =
+                entityManager
+                    .createQuery(
+                        SELECT_USER_DTO + "and toDoItem.status = :status and toDoItem.id > :afterId order by toDoItem.id",
+                        ToDoItemDTO.class
+                    )
+                    .setParameter("status", status);
+        }
+        List<ToDoItemDTO> toDoItems = query
+            .setParameter("userId", userId.get())
+            .setParameter("afterId", afterId)
+            .setMaxResults(limit)
+            .getResultList();
+        UserDTO user = new UserDTO(userId.get(), login.orElse(null));
+        toDoItems.forEach(toDoItem -> toDoItem.setUser(user));
+        return toDoItems;
+    }
+
+    /**
+     * Get the version of one toDoItem by id, without loading it.
+     *
+     * @param id the id of the toDoItem.
+     * @return the version of the toDoItem, if it exists.
+     */
+    public Optional<Long> findVersion(Long id) {
+        log.debug("Request to get the version of ToDoItem : {}", id);
+        return toDoItemRepository.findVersionById(id);
+    }
+
+    /**
+     * Same keyset page as {@link #findAllAfter(ItemStatus, long, int)}, reading only ids and versions.
+     *
+     * @param status the status to filter on, or {@code null} for all statuses.
+     * @param afterId the id of the last toDoItem of the previous page.
+     * @param limit the maximum number of toDoItems to return.
+     * @return the ids and versions of the toDoItems with an id greater than {@code afterId}.
+     */
+    public List<ToDoItemVersionDTO> findAllIdAndVersionAfter(ItemStatus status, long afterId, int limit) {
+        log.debug("Request to get the versions of a page of ToDoItems after id {}", afterId);
+        return toDoItemRepository
+            .findAllIdAndVersionAfter(status, afterId, limit)
+            .stream()
+            .map(idAndVersion -> new ToDoItemVersionDTO(idAndVersion.getId(), idAndVersion.getVersion()))
+            .collect(Collectors.toList());
+    }
+}
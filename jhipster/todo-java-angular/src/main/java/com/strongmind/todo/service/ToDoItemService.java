@@ -0,0 +1,225 @@
+package com.strongmind.todo.service;
+
+import com.strongmind.todo.domain.ToDoItem;
+import com.strongmind.todo.domain.User;
+import com.strongmind.todo.repository.ToDoItemRepository;
+import com.strongmind.todo.repository.UserRepository;
+import com.strongmind.todo.service.dto.BulkItemResultDTO;
+import com.strongmind.todo.service.dto.ToDoItemBulkDTO;
+import com.strongmind.todo.service.dto.ToDoItemBulkResultDTO;
+import com.strongmind.todo.service.dto.ToDoItemDTO;
+import com.strongmind.todo.service.mapper.ToDoItemMapper;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service Implementation for managing {@link ToDoItem}.
+ * <p>
+ * Reads are served by {@link ToDoItemQueryService}; each method of this service is one short read-write transaction.
+ */
+@Service
+@Transactional
+public class ToDoItemService {
+
+    private final Logger log = LoggerFactory.getLogger(ToDoItemService.class);
+
+    private final ToDoItemRepository toDoItemRepository;
+
+    private final ToDoItemMapper toDoItemMapper;
+
+    private final UserRepository userRepository;
+
+    public ToDoItemService(ToDoItemRepository toDoItemRepository, ToDoItemMapper toDoItemMapper, UserRepository userRepository) {
+        this.toDoItemRepository = toDoItemRepository;
+        this.toDoItemMapper = toDoItemMapper;
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * Save a toDoItem.
+     *
+     * @param toDoItemDTO the entity to save.
+     * @return the persisted entity.
+     */
+    public ToDoItemDTO save(ToDoItemDTO toDoItemDTO) {
+        log.debug("Request to save ToDoItem : {}", toDoItemDTO);
+        ToDoItem toDoItem = toDoItemMapper.toEntity(toDoItemDTO).user(userOf(toDoItemDTO));
+        toDoItem = toDoItemRepository.save(toDoItem);
+        return toDoItemMapper.toDto(toDoItem);
+    }
+
+    /**
+     * Update a toDoItem.
+     * <p>
+     * The toDoItem is loaded once and modified in place; the update is conditioned on its version, so a concurrent
+     * modification is reported instead of being overwritten.
+     *
+     * @param toDoItemDTO the entity to update.
+     * @return the updated entity, or empty if it does not exist.
+     * @throws OptimisticLockingFailureException if the toDoItem was modified since the given version.
+     */
+    public Optional<ToDoItemDTO> update(ToDoItemDTO toDoItemDTO) {
+        log.debug("Request to update ToDoItem : {}", toDoItemDTO);
+        ToDoItem toDoItem = toDoItemMapper.toEntity(toDoItemDTO);
+        return toDoItemRepository
+            .findById(toDoItemDTO.getId())
+            .map(existingToDoItem -> {
+                checkVersion(toDoItemDTO, existingToDoItem);
+                existingToDoItem.setDescription(toDoItem.getDescription());
+                existingToDoItem.setStatus(toDoItem.getStatus());
+                existingToDoItem.setUser(userOf(toDoItemDTO));
+                return existingToDoItem;
+            })
+            .map(toDoItemRepository::saveAndFlush)
+            .map(toDoItemMapper::toDto);
+    }
+
+    /**
+     * Partially update a toDoItem: the fields left {@code null} are not changed.
+     *
+     * @param toDoItemDTO the entity to update partially.
+     * @return the updated entity, or empty if it does not exist.
+     * @throws OptimisticLockingFailureException if the toDoItem was modified since the given version.
+     */
+    public Optional<ToDoItemDTO> partialUpdate(ToDoItemDTO toDoItemDTO) {
+        log.debug("Request to partially update ToDoItem : {}", toDoItemDTO);
+        return toDoItemRepository
+            .findOneWithEagerRelationships(toDoItemDTO.getId())
+            .map(existingToDoItem -> {
+                checkVersion(toDoItemDTO, existingToDoItem);
+                if (toDoItemDTO.getDescription() != null) {
+                    existingToDoItem.setDescription(toDoItemDTO.getDescription());
+                }
+                if (toDoItemDTO.getStatus() != null) {
+                    existingToDoItem.setStatus(toDoItemDTO.getStatus());
+                }
+                return existingToDoItem;
+            })
+            .map(toDoItemRepository::saveAndFlush)
+            .map(toDoItemMapper::toDto);
+    }
+
+    /**
+     * Create, update and delete toDoItems in a single transaction.
+     * <p>
+     * All the updated and deleted toDoItems are loaded with one query, and the changes are flushed together so that
+     * Hibernate sends them as JDBC batches. Invalid operations are reported in the result and do not prevent the
+     * others from being applied.
+     *
+     * @param bulk the toDoItems to create and update, and the ids of the toDoItems to delete.
+     * @return the outcome of each operation.
+     */
+    public ToDoItemBulkResultDTO bulk(ToDoItemBulkDTO bulk) {
+        log.debug("Request to apply ToDoItem bulk : {}", bulk);
+        ToDoItemBulkResultDTO result = new ToDoItemBulkResultDTO();
+
+        Set<Long> ids = new HashSet<>(bulk.getDelete());
+        bulk.getUpdate().stream().map(ToDoItemDTO::getId).filter(Objects::nonNull).forEach(ids::add);
+        Map<Long, ToDoItem> existingToDoItems = toDoItemRepository
+            .findAllById(ids)
+            .stream()
+            .collect(Collectors.toMap(ToDoItem::getId, Function.identity()));
+
+        List<ToDoItem> toDoItemsToCreate = new ArrayList<>();
+        List<Integer> createIndexes = new ArrayList<>();
+        for (int i = 0; i < bulk.getCreate().size(); i++) {
+            ToDoItemDTO toDoItemDTO = bulk.getCreate().get(i);
+            if (toDoItemDTO.getId() != null) {
+                result.getCreated().add(BulkItemResultDTO.failure(i, toDoItemDTO.getId(), HttpStatus.BAD_REQUEST.value(), "idexists"));
+            } else {
+                // A version would have the new toDoItem merged as an existing one, into another instance
+                toDoItemsToCreate.add(toDoItemMapper.toEntity(toDoItemDTO).version(null).user(userOf(toDoItemDTO)));
+                createIndexes.add(i);
+            }
+        }
+        List<ToDoItem> createdToDoItems = toDoItemRepository.saveAll(toDoItemsToCreate);
+        for (int i = 0; i < createdToDoItems.size(); i++) {
+            result
+                .getCreated()
+                .add(BulkItemResultDTO.success(createIndexes.get(i), createdToDoItems.get(i).getId(), HttpStatus.CREATED.value()));
+        }
+        result.getCreated().sort(Comparator.comparingInt(BulkItemResultDTO::getIndex));
+
+        for (int i = 0; i < bulk.getUpdate().size(); i++) {
+            ToDoItemDTO toDoItemDTO = bulk.getUpdate().get(i);
+            ToDoItem toDoItem = toDoItemMapper.toEntity(toDoItemDTO);
+            ToDoItem existingToDoItem = toDoItem.getId() == null ? null : existingToDoItems.get(toDoItem.getId());
+            if (toDoItem.getId() == null) {
+                result.getUpdated().add(BulkItemResultDTO.failure(i, null, HttpStatus.BAD_REQUEST.value(), "idnull"));
+            } else if (existingToDoItem == null) {
+                result.getUpdated().add(BulkItemResultDTO.failure(i, toDoItem.getId(), HttpStatus.NOT_FOUND.value(), "idnotfound"));
+            } else if (toDoItem.getVersion() != null && !toDoItem.getVersion().equals(existingToDoItem.getVersion())) {
+                result.getUpdated().add(BulkItemResultDTO.failure(i, toDoItem.getId(), HttpStatus.CONFLICT.value(), "concurrencyFailure"));
+            } else {
+                existingToDoItem.setDescription(toDoItem.getDescription());
+                existingToDoItem.setStatus(toDoItem.getStatus());
+                existingToDoItem.setUser(userOf(toDoItemDTO));
+                result.getUpdated().add(BulkItemResultDTO.success(i, toDoItem.getId(), HttpStatus.OK.value()));
+            }
+        }
+
+        List<ToDoItem> toDoItemsToDelete = new ArrayList<>();
+        for (int i = 0; i < bulk.getDelete().size(); i++) {
+            Long id = bulk.getDelete().get(i);
+            ToDoItem existingToDoItem = id == null ? null : existingToDoItems.remove(id);
+            if (existingToDoItem == null) {
+                result.getDeleted().add(BulkItemResultDTO.failure(i, id, HttpStatus.NOT_FOUND.value(), "idnotfound"));
+            } else {
+                toDoItemsToDelete.add(existingToDoItem);
+                result.getDeleted().add(BulkItemResultDTO.success(i, id, HttpStatus.NO_CONTENT.value()));
+            }
+        }
+        toDoItemRepository.deleteAll(toDoItemsToDelete);
+
+        // Send all the inserts, updates and deletes as JDBC batches
+        toDoItemRepository.flush();
+        return result;
+    }
+
+    /**
+     * Delete the toDoItem by id.
+     *
+     * @param id the id of the entity.
+     */
+    public void delete(Long id) {
+        log.debug("Request to delete ToDoItem : {}", id);
+        toDoItemRepository.deleteById(id);
+    }
+
+    /**
+     * The user of a toDoItem as a reference managed by the persistence context, rather than the detached user holding
+     * only an id built by the mapper, so that its login is loaded when it is read.
+     */
+    private User userOf(ToDoItemDTO toDoItemDTO) {
+        if (toDoItemDTO.getUser() == null || toDoItemDTO.getUser().getId() == null) {
+            return null;
+        }
+        return userRepository.getById(toDoItemDTO.getUser().getId());
+    }
+
+    /**
+     * Reject the change if the client based it on another version than the current one.
+     * Changes sent without a version are still protected against concurrent writes by the versioned update.
+     */
+    private void checkVersion(ToDoItemDTO toDoItemDTO, ToDoItem existingToDoItem) {
+        if (toDoItemDTO.getVersion() != null && !toDoItemDTO.getVersion().equals(existingToDoItem.getVersion())) {
+            throw new OptimisticLockingFailureException(
+                "ToDoItem " + existingToDoItem.getId() + " was modified since version " + toDoItemDTO.getVersion()
+            );
+        }
+    }
+}
@@ -1,27 +1,39 @@
 package com.strongmind.todo.service;
 
+import com.strongmind.todo.config.ApplicationProperties;
 import com.strongmind.todo.config.Constants;
 import com.strongmind.todo.domain.Authority;
+import com.strongmind.todo.domain.JobCheckpoint;
 import com.strongmind.todo.domain.User;
 import com.strongmind.todo.repository.AuthorityRepository;
+import com.strongmind.todo.repository.JobCheckpointRepository;
 import com.strongmind.todo.repository.UserRepository;
 import com.strongmind.todo.security.AuthoritiesConstants;
 import com.strongmind.todo.security.SecurityUtils;
 import com.strongmind.todo.service.dto.AdminUserDTO;
 import com.strongmind.todo.service.dto.UserDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import tech.jhipster.security.RandomUtil;
 
 /**
@@ -31,6 +43,8 @@ import tech.jhipster.security.RandomUtil;
 @Transactional
 public class UserService {
 
+    static final String REMOVE_NOT_ACTIVATED_USERS_JOB = "removeNotActivatedUsers";
+
     private final Logger log = LoggerFactory.getLogger(UserService.class);
 
     private final UserRepository userRepository;
@@ -39,18 +53,49 @@ public class UserService {
 
     private final AuthorityRepository authorityRepository;
 
-    private final CacheManager cacheManager;
+    private final CacheInvalidationService cacheInvalidationService;
+
+    private final JobCheckpointRepository jobCheckpointRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationProperties applicationProperties;
+
+    private final Counter removedUsersCounter;
+
+    private final Timer removalChunkTimer;
+
+    private final AtomicLong removalPosition = new AtomicLong();
 
     public UserService(
         UserRepository userRepository,
         PasswordEncoder passwordEncoder,
         AuthorityRepository authorityRepository,
-        CacheManager cacheManager
+        CacheInvalidationService cacheInvalidationService,
+        JobCheckpointRepository jobCheckpointRepository,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
     ) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.authorityRepository = authorityRepository;
-        this.cacheManager = cacheManager;
+        this.cacheInvalidationService = cacheInvalidationService;
+        this.jobCheckpointRepository = jobCheckpointRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.applicationProperties = applicationProperties;
+        this.removedUsersCounter = Counter
+            .builder("users.not.activated.removed")
+            .description("The number of not activated users deleted")
+            .register(meterRegistry);
+        this.removalChunkTimer = Timer
+            .builder("users.not.activated.removal.chunk")
+            .description("The time taken to delete a chunk of not activated users")
+            .register(meterRegistry);
+        Gauge
+            .builder("users.not.activated.removal.position", removalPosition, AtomicLong::get)
+            .description("The last user id reached by the running removal of not activated users, 0 when not running")
+            .register(meterRegistry);
     }
 
     public Optional<User> activateRegistration(String key) {
@@ -295,16 +340,68 @@ public class UserService {
      * Not activated users should be automatically deleted after 3 days.
      * <p>
      * This is scheduled to get fired everyday, at 01:00 (am).
+     * <p>
+     * The users are walked by id and deleted by chunks, each in its own transaction along with the checkpoint of the
+     * job, without being loaded; their cached entries are evicted once the chunk is committed. A run stopped by
+     * {@code application.user-purge.max-duration-millis}, or by a failure, is resumed from its checkpoint by the next
+     * one. Users owning toDoItems are kept.
      */
     @Scheduled(cron = "0 0 1 * * ?")
+    @Transactional(propagation = Propagation.SUPPORTS)
     public void removeNotActivatedUsers() {
-        userRepository
-            .findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(Instant.now().minus(3, ChronoUnit.DAYS))
-            .forEach(user -> {
-                log.debug("Deleting not activated user {}", user.getLogin());
-                userRepository.delete(user);
-                this.clearUserCaches(user);
-            });
+        ApplicationProperties.UserPurge userPurge = applicationProperties.getUserPurge();
+        Instant createdBefore = Instant.now().minus(3, ChronoUnit.DAYS);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(userPurge.getMaxDurationMillis());
+        long lastId = jobCheckpointRepository.findById(REMOVE_NOT_ACTIVATED_USERS_JOB).map(JobCheckpoint::getLastId).orElse(0L);
+        if (lastId > 0) {
+            log.info("Resuming the removal of not activated users after id {}", lastId);
+        }
+        long removed = 0;
+        try {
+            while (true) {
+                long afterId = lastId;
+                List<UserRepository.UserKeys> users = removalChunkTimer.record(() ->
+                    transactionTemplate.execute(status -> removeNotActivatedUsersAfter(afterId, createdBefore, userPurge.getChunkSize()))
+                );
+                if (users.isEmpty()) {
+                    log.info("Removed {} not activated users", removed);
+                    return;
+                }
+                evictUserCaches(users);
+                lastId = users.get(users.size() - 1).getId();
+                removed += users.size();
+                removedUsersCounter.increment(users.size());
+                removalPosition.set(lastId);
+                log.debug("Removed {} not activated users, up to id {}", removed, lastId);
+                if (System.nanoTime() - deadline > 0) {
+                    log.info("Removed {} not activated users, stopping after id {} until the next run", removed, lastId);
+                    return;
+                }
+            }
+        } finally {
+            removalPosition.set(0);
+        }
+    }
+
+    /**
+     * Delete the next chunk of not activated users, and move the checkpoint after them; the checkpoint is removed
+     * when there are none left.
+     *
+     * @return the users deleted.
+     */
+    private List<UserRepository.UserKeys> removeNotActivatedUsersAfter(long afterId, Instant createdBefore, int chunkSize) {
+        List<UserRepository.UserKeys> users = userRepository.findNotActivatedUserKeys(afterId, createdBefore, PageRequest.of(0, chunkSize));
+        if (users.isEmpty()) {
+            jobCheckpointRepository.findById(REMOVE_NOT_ACTIVATED_USERS_JOB).ifPresent(jobCheckpointRepository::delete);
+            return users;
+        }
+        userRepository.deleteAllNotActivatedWithAuthoritiesByIdIn(users.stream().map(UserRepository.UserKeys::getId).collect(Collectors.toList()));
+        long lastId = users.get(users.size() - 1).getId();
+        JobCheckpoint checkpoint = jobCheckpointRepository
+            .findById(REMOVE_NOT_ACTIVATED_USERS_JOB)
+            .orElseGet(() -> new JobCheckpoint().name(REMOVE_NOT_ACTIVATED_USERS_JOB));
+        jobCheckpointRepository.save(checkpoint.lastId(lastId));
+        return users;
     }
 
     /**
@@ -317,9 +414,27 @@ public class UserService {
     }
 
     private void clearUserCaches(User user) {
-        Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE)).evict(user.getLogin());
+        cacheInvalidationService.evict(UserRepository.USERS_BY_LOGIN_CACHE, List.of(user.getLogin()));
         if (user.getEmail() != null) {
-            Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE)).evict(user.getEmail());
+            cacheInvalidationService.evict(UserRepository.USERS_BY_EMAIL_CACHE, List.of(user.getEmail()));
         }
     }
+
+    /**
+     * Evict the users deleted in bulk from the caches of all the nodes: Hibernate only clears the second level cache
+     * of this node.
+     */
+    private void evictUserCaches(List<UserRepository.UserKeys> users) {
+        cacheInvalidationService.evict(
+            UserRepository.USERS_BY_LOGIN_CACHE,
+            users.stream().map(UserRepository.UserKeys::getLogin).collect(Collectors.toSet())
+        );
+        cacheInvalidationService.evict(
+            UserRepository.USERS_BY_EMAIL_CACHE,
+            users.stream().map(UserRepository.UserKeys::getEmail).filter(Objects::nonNull).collect(Collectors.toSet())
+        );
+        Set<Long> ids = users.stream().map(UserRepository.UserKeys::getId).collect(Collectors.toSet());
+        cacheInvalidationService.entitiesChanged(User.class.getName(), ids);
+        cacheInvalidationService.collectionsChanged(User.class.getName() + ".authorities", ids);
+    }
 }
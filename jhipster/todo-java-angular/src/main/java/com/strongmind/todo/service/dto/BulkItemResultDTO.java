@@ -0,0 +1,62 @@
+package com.strongmind.todo.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * A DTO for the outcome of one operation of a bulk request.
+ * <p>
+ * The {@code status} is the HTTP status the operation would have had if sent on its own.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkItemResultDTO {
+
+    private final int index;
+
+    private final Long id;
+
+    private final int status;
+
+    private final String error;
+
+    public BulkItemResultDTO(int index, Long id, int status, String error) {
+        this.index = index;
+        this.id = id;
+        this.status = status;
+        this.error = error;
+    }
+
+    public static BulkItemResultDTO success(int index, Long id, int status) {
+        return new BulkItemResultDTO(index, id, status, null);
+    }
+
+    public static BulkItemResultDTO failure(int index, Long id, int status, String error) {
+        return new BulkItemResultDTO(index, id, status, error);
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "BulkItemResultDTO{" +
+            "index=" + index +
+            ", id=" + id +
+            ", status=" + status +
+            ", error='" + error + "'" +
+            "}";
+    }
+}
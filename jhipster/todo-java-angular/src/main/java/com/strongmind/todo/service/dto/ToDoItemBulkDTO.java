@@ -0,0 +1,54 @@
+package com.strongmind.todo.service.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A DTO for a batch of toDoItem changes applied in a single transaction.
+ */
+public class ToDoItemBulkDTO {
+
+    private List<ToDoItemDTO> create = new ArrayList<>();
+
+    private List<ToDoItemDTO> update = new ArrayList<>();
+
+    private List<Long> delete = new ArrayList<>();
+
+    public List<ToDoItemDTO> getCreate() {
+        return create;
+    }
+
+    public void setCreate(List<ToDoItemDTO> create) {
+        this.create = create == null ? new ArrayList<>() : create;
+    }
+
+    public List<ToDoItemDTO> getUpdate() {
+        return update;
+    }
+
+    public void setUpdate(List<ToDoItemDTO> update) {
+        this.update = update == null ? new ArrayList<>() : update;
+    }
+
+    public List<Long> getDelete() {
+        return delete;
+    }
+
+    public void setDelete(List<Long> delete) {
+        this.delete = delete == null ? new ArrayList<>() : delete;
+    }
+
+    public int size() {
+        return create.size() + update.size() + delete.size();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ToDoItemBulkDTO{" +
+            "create=" + create.size() +
+            ", update=" + update.size() +
+            ", delete=" + delete.size() +
+            "}";
+    }
+}
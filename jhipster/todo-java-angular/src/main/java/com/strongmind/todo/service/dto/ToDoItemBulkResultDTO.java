@@ -0,0 +1,28 @@
+package com.strongmind.todo.service.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A DTO for the per-item outcome of a {@link ToDoItemBulkDTO}, in request order.
+ */
+public class ToDoItemBulkResultDTO {
+
+    private final List<BulkItemResultDTO> created = new ArrayList<>();
+
+    private final List<BulkItemResultDTO> updated = new ArrayList<>();
+
+    private final List<BulkItemResultDTO> deleted = new ArrayList<>();
+
+    public List<BulkItemResultDTO> getCreated() {
+        return created;
+    }
+
+    public List<BulkItemResultDTO> getUpdated() {
+        return updated;
+    }
+
+    public List<BulkItemResultDTO> getDeleted() {
+        return deleted;
+    }
+}
@@ -0,0 +1,128 @@
+package com.strongmind.todo.service.dto;
+
+import com.strongmind.todo.domain.enumeration.ItemStatus;
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * A DTO for the {@link com.strongmind.todo.domain.ToDoItem} entity.
+ */
+public class ToDoItemDTO implements Serializable {
+
+    private Long id;
+
+    private String description;
+
+    private ItemStatus status;
+
+    private Long version;
+
+    private UserDTO user;
+
+    public ToDoItemDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    /**
+     * Constructor used by JPQL constructor expressions, for toDoItems whose user is already known.
+     *
+     * @param id the id of the toDoItem.
+     * @param description the description of the toDoItem.
+     * @param status the status of the toDoItem.
+     * @param version the version of the toDoItem.
+     */
+    public ToDoItemDTO(Long id, String description, ItemStatus status, Long version) {
+        this(id, description, status, version, null, null);
+    }
+
+    /**
+     * Constructor used by JPQL constructor expressions, so that the DTO is read straight from the selected columns.
+     *
+     * @param id the id of the toDoItem.
+     * @param description the description of the toDoItem.
+     * @param status the status of the toDoItem.
+     * @param version the version of the toDoItem.
+     * @param userId the id of the user of the toDoItem, or {@code null} if it has none.
+     * @param userLogin the login of the user of the toDoItem, or {@code null} if it has none.
+     */
+    public ToDoItemDTO(Long id, String description, ItemStatus status, Long version, Long userId, String userLogin) {
+        this.id = id;
+        this.description = description;
+        this.status = status;
+        this.version = version;
+        this.user = userId == null ? null : new UserDTO(userId, userLogin);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public ItemStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(ItemStatus status) {
+        this.status = status;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public UserDTO getUser() {
+        return user;
+    }
+
+    public void setUser(UserDTO user) {
+        this.user = user;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ToDoItemDTO)) {
+            return false;
+        }
+
+        ToDoItemDTO toDoItemDTO = (ToDoItemDTO) o;
+        if (this.id == null) {
+            return false;
+        }
+        return Objects.equals(this.id, toDoItemDTO.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.id);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ToDoItemDTO{" +
+            "id=" + getId() +
+            ", description='" + getDescription() + "'" +
+            ", status='" + getStatus() + "'" +
+            ", version=" + getVersion() +
+            ", user=" + getUser() +
+            "}";
+    }
+}
@@ -0,0 +1,33 @@
+package com.strongmind.todo.service.dto;
+
+/**
+ * A DTO for the fields identifying the state of a {@link com.strongmind.todo.domain.ToDoItem}: its id and version.
+ */
+public class ToDoItemVersionDTO {
+
+    private final Long id;
+
+    private final Long version;
+
+    public ToDoItemVersionDTO(Long id, Long version) {
+        this.id = id;
+        this.version = version;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ToDoItemVersionDTO{" +
+            "id=" + id +
+            ", version=" + version +
+            "}";
+    }
+}
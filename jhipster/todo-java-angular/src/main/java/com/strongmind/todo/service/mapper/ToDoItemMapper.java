@@ -0,0 +1,30 @@
+package com.strongmind.todo.service.mapper;
+
+import com.strongmind.todo.domain.ToDoItem;
+import com.strongmind.todo.domain.User;
+import com.strongmind.todo.service.dto.ToDoItemDTO;
+import com.strongmind.todo.service.dto.UserDTO;
+import org.mapstruct.*;
+
+/**
+ * Mapper for the entity {@link ToDoItem} and its DTO {@link ToDoItemDTO}.
+ */
+@Mapper(componentModel = "spring")
+public interface ToDoItemMapper extends EntityMapper<ToDoItemDTO, ToDoItem> {
+    @Mapping(target = "user", source = "user", qualifiedByName = "userLogin")
+    ToDoItemDTO toDto(ToDoItem s);
+
+    @Named("userLogin")
+    @BeanMapping(ignoreByDefault = true)
+    @Mapping(target = "id", source = "id")
+    @Mapping(target = "login", source = "login")
+    UserDTO toDtoUserLogin(User user);
+
+    @Mapping(target = "user", source = "user", qualifiedByName = "userId")
+    ToDoItem toEntity(ToDoItemDTO toDoItemDTO);
+
+    @Named("userId")
+    @BeanMapping(ignoreByDefault = true)
+    @Mapping(target = "id", source = "id")
+    User toEntityUserId(UserDTO userDTO);
+}
@@ -0,0 +1,194 @@
+package com.strongmind.todo.web.filter;
+
+import com.strongmind.todo.config.ApplicationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Filter shedding the requests beyond an adaptive concurrency limit, before they wait for a database connection.
+ * <p>
+ * The requests are split in groups by path prefix, each with its own {@link GradientConcurrencyLimit}, so that an
+ * overloaded group does not shed the requests of the others. A request beyond the limit of its group is answered
+ * at once with {@code 503 (Service Unavailable)} and a {@code Retry-After} header.
+ * <p>
+ * An asynchronous request, such as an export, is in flight until its asynchronous processing completes, fails or
+ * times out, not only until its first dispatch returns. Its latency, which is the length of its stream rather than
+ * the time the server took to answer, is not sampled by the limit.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    public static final String LIMIT_METER_NAME = "http.server.concurrency.limit";
+    public static final String INFLIGHT_METER_NAME = "http.server.concurrency.inflight";
+    public static final String REJECTED_METER_NAME = "http.server.concurrency.rejected";
+    public static final String GROUP_DIMENSION = "group";
+    public static final String DEFAULT_GROUP = "default";
+
+    private static final String REJECTED_BODY = "{\"title\":\"Service Unavailable\",\"status\":503}";
+
+    private final List<Map.Entry<String, Group>> groupsByPrefix = new ArrayList<>();
+
+    private final Group defaultGroup;
+
+    private final long retryAfterSeconds;
+
+    /**
+     * @param prefixesByGroup the path prefixes of each group; the other requests make the {@value #DEFAULT_GROUP} group.
+     * @param properties the settings of the limit of each group.
+     * @param meterRegistry the registry of the limit, in flight and rejected meters of each group.
+     */
+    public ConcurrencyLimitFilter(
+        Map<String, List<String>> prefixesByGroup,
+        ApplicationProperties.ConcurrencyLimit properties,
+        MeterRegistry meterRegistry
+    ) {
+        prefixesByGroup.forEach((name, prefixes) -> {
+            Group group = new Group(name, newLimit(properties), meterRegistry);
+            prefixes.forEach(prefix -> groupsByPrefix.add(Map.entry(prefix, group)));
+        });
+        // Match the longest prefixes first
+        groupsByPrefix.sort((a, b) -> b.getKey().length() - a.getKey().length());
+        this.defaultGroup = new Group(DEFAULT_GROUP, newLimit(properties), meterRegistry);
+        this.retryAfterSeconds = properties.getRetryAfterSeconds();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        Group group = groupOf(request.getRequestURI().substring(request.getContextPath().length()));
+        int inflight = group.inflight.incrementAndGet();
+        if (inflight > group.limit.getLimit()) {
+            group.inflight.decrementAndGet();
+            group.rejected.increment();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+            response.setContentType("application/problem+json");
+            response.getWriter().write(REJECTED_BODY);
+            return;
+        }
+        InflightRequest inflightRequest = new InflightRequest(group, inflight);
+        boolean asyncStarted = false;
+        try {
+            filterChain.doFilter(request, response);
+            asyncStarted = request.isAsyncStarted();
+        } finally {
+            if (asyncStarted) {
+                request.getAsyncContext().addListener(inflightRequest);
+            } else {
+                inflightRequest.end(true);
+            }
+        }
+    }
+
+    private static GradientConcurrencyLimit newLimit(ApplicationProperties.ConcurrencyLimit properties) {
+        return new GradientConcurrencyLimit(
+            properties.getInitialLimit(),
+            properties.getMinLimit(),
+            properties.getMaxLimit(),
+            properties.getRttTolerance(),
+            0.2,
+            600
+        );
+    }
+
+    private Group groupOf(String path) {
+        for (Map.Entry<String, Group> entry : groupsByPrefix) {
+            if (path.startsWith(entry.getKey())) {
+                return entry.getValue();
+            }
+        }
+        return defaultGroup;
+    }
+
+    /**
+     * A request in flight, ended once, by its first dispatch or by the end of its asynchronous processing.
+     */
+    private static final class InflightRequest implements AsyncListener {
+
+        private final Group group;
+
+        private final int inflight;
+
+        private final long start = System.nanoTime();
+
+        private final AtomicBoolean ended = new AtomicBoolean();
+
+        private InflightRequest(Group group, int inflight) {
+            this.group = group;
+            this.inflight = inflight;
+        }
+
+        private void end(boolean sampled) {
+            if (ended.compareAndSet(false, true)) {
+                if (sampled) {
+                    group.limit.onSample(System.nanoTime() - start, inflight);
+                }
+                group.inflight.decrementAndGet();
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            end(false);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            end(false);
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            end(false);
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Still in flight
+        }
+    }
+
+    private static final class Group {
+
+        private final GradientConcurrencyLimit limit;
+
+        private final AtomicInteger inflight = new AtomicInteger();
+
+        private final Counter rejected;
+
+        private Group(String name, GradientConcurrencyLimit limit, MeterRegistry meterRegistry) {
+            this.limit = limit;
+            Gauge
+                .builder(LIMIT_METER_NAME, limit, GradientConcurrencyLimit::getLimit)
+                .description("Current concurrency limit of the requests")
+                .tag(GROUP_DIMENSION, name)
+                .register(meterRegistry);
+            Gauge
+                .builder(INFLIGHT_METER_NAME, inflight, AtomicInteger::get)
+                .description("Requests in flight")
+                .tag(GROUP_DIMENSION, name)
+                .register(meterRegistry);
+            this.rejected =
+                Counter
+                    .builder(REJECTED_METER_NAME)
+                    .description("Requests rejected beyond the concurrency limit")
+                    .tag(GROUP_DIMENSION, name)
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.strongmind.todo.web.filter;
+
+/**
+ * Concurrency limit adjusted from the observed latency, following the gradient algorithm.
+ * <p>
+ * A long-term average of the latency is compared to each new sample: while the latency stays close to its average the
+ * limit grows by about its square root, and when the latency rises beyond {@code rttTolerance} times its average the
+ * limit shrinks proportionally, down to half of its value per sample. Samples taken while less than half of the limit
+ * is used say nothing about the capacity and are ignored.
+ */
+class GradientConcurrencyLimit {
+
+    private static final int WARMUP_SAMPLES = 10;
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final double rttTolerance;
+
+    private final double smoothing;
+
+    private final double longRttFactor;
+
+    private volatile int limit;
+
+    private double estimatedLimit;
+
+    private double longRtt;
+
+    private long samples;
+
+    GradientConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double rttTolerance, double smoothing, int longWindow) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.rttTolerance = rttTolerance;
+        this.smoothing = smoothing;
+        this.longRttFactor = 2.0 / (longWindow + 1);
+        this.estimatedLimit = Math.min(Math.max(initialLimit, minLimit), maxLimit);
+        this.limit = (int) estimatedLimit;
+    }
+
+    int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Record the latency of a request.
+     *
+     * @param rttNanos the latency of the request.
+     * @param inflight the number of requests in flight when it started, itself included.
+     */
+    synchronized void onSample(long rttNanos, int inflight) {
+        double shortRtt = Math.max(rttNanos, 1);
+        samples++;
+        if (samples <= WARMUP_SAMPLES) {
+            longRtt += (shortRtt - longRtt) / samples;
+        } else {
+            longRtt += (shortRtt - longRtt) * longRttFactor;
+        }
+        // After the latency dropped, let the average catch up faster
+        if (longRtt / shortRtt > 2) {
+            longRtt *= 0.95;
+        }
+
+        if (inflight < estimatedLimit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, rttTolerance * longRtt / shortRtt));
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        newLimit = estimatedLimit * (1 - smoothing) + newLimit * smoothing;
+        estimatedLimit = Math.min(Math.max(newLimit, minLimit), maxLimit);
+        limit = (int) estimatedLimit;
+    }
+}
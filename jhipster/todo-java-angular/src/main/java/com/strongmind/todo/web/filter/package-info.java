@@ -0,0 +1,4 @@
+/**
+ * Servlet filters.
+ */
+package com.strongmind.todo.web.filter;
@@ -1,19 +1,37 @@
 package com.strongmind.todo.web.rest;
 
-import com.strongmind.todo.domain.ToDoItem;
-import com.strongmind.todo.repository.ToDoItemRepository;
+import static com.strongmind.todo.web.rest.util.CursorPaginationUtil.CURSOR_PARAM;
+import static com.strongmind.todo.web.rest.util.CursorPaginationUtil.SIZE_PARAM;
+
+import com.strongmind.todo.domain.enumeration.ItemStatus;
+import com.strongmind.todo.service.ToDoItemExportService;
+import com.strongmind.todo.service.ToDoItemQueryService;
+import com.strongmind.todo.service.ToDoItemService;
+import com.strongmind.todo.service.dto.ToDoItemBulkDTO;
+import com.strongmind.todo.service.dto.ToDoItemBulkResultDTO;
+import com.strongmind.todo.service.dto.ToDoItemDTO;
+import com.strongmind.todo.service.dto.ToDoItemVersionDTO;
 import com.strongmind.todo.web.rest.errors.BadRequestAlertException;
+import com.strongmind.todo.web.rest.util.CursorPaginationUtil;
+import com.strongmind.todo.web.rest.util.ETagUtil;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.ResponseUtil;
 
@@ -22,36 +40,54 @@ import tech.jhipster.web.util.ResponseUtil;
  */
 @RestController
 @RequestMapping("/api")
-@Transactional
 public class ToDoItemResource {
 
     private final Logger log = LoggerFactory.getLogger(ToDoItemResource.class);
 
     private static final String ENTITY_NAME = "toDoItem";
 
+    private static final int MAX_PAGE_SIZE = 500;
+
+    private static final int MAX_BULK_SIZE = 1000;
+
+    /**
+     * Let browsers keep the toDoItems, but revalidate them with their ETag on every use.
+     */
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
-    private final ToDoItemRepository toDoItemRepository;
+    private final ToDoItemService toDoItemService;
 
-    public ToDoItemResource(ToDoItemRepository toDoItemRepository) {
-        this.toDoItemRepository = toDoItemRepository;
+    private final ToDoItemQueryService toDoItemQueryService;
+
+    private final ToDoItemExportService toDoItemExportService;
+
+    public ToDoItemResource(
+        ToDoItemService toDoItemService,
+        ToDoItemQueryService toDoItemQueryService,
+        ToDoItemExportService toDoItemExportService
+    ) {
+        this.toDoItemService = toDoItemService;
+        this.toDoItemQueryService = toDoItemQueryService;
+        this.toDoItemExportService = toDoItemExportService;
     }
 
     /**
      * {@code POST  /to-do-items} : Create a new toDoItem.
      *
-     * @param toDoItem the toDoItem to create.
-     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new toDoItem, or with status {@code 400 (Bad Request)} if the toDoItem has already an ID.
+     * @param toDoItemDTO the toDoItemDTO to create.
+     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new toDoItemDTO, or with status {@code 400 (Bad Request)} if the toDoItem has already an ID.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PostMapping("/to-do-items")
-    public ResponseEntity<ToDoItem> createToDoItem(@RequestBody ToDoItem toDoItem) throws URISyntaxException {
-        log.debug("REST request to save ToDoItem : {}", toDoItem);
-        if (toDoItem.getId() != null) {
+    public ResponseEntity<ToDoItemDTO> createToDoItem(@RequestBody ToDoItemDTO toDoItemDTO) throws URISyntaxException {
+        log.debug("REST request to save ToDoItem : {}", toDoItemDTO);
+        if (toDoItemDTO.getId() != null) {
             throw new BadRequestAlertException("A new toDoItem cannot already have an ID", ENTITY_NAME, "idexists");
         }
-        ToDoItem result = toDoItemRepository.save(toDoItem);
+        ToDoItemDTO result = toDoItemService.save(toDoItemDTO);
         return ResponseEntity
             .created(new URI("/api/to-do-items/" + result.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
@@ -60,109 +96,240 @@ public class ToDoItemResource {
 
     /**
      * {@code PUT  /to-do-items/:id} : Updates an existing toDoItem.
+     * <p>
+     * The toDoItem is loaded once and modified in place; the update is conditioned on its version, so a concurrent
+     * modification is reported instead of being overwritten.
      *
-     * @param id the id of the toDoItem to save.
-     * @param toDoItem the toDoItem to update.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated toDoItem,
-     * or with status {@code 400 (Bad Request)} if the toDoItem is not valid,
+     * @param id the id of the toDoItemDTO to save.
+     * @param toDoItemDTO the toDoItemDTO to update.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated toDoItemDTO,
+     * or with status {@code 400 (Bad Request)} if the toDoItemDTO is not valid,
+     * or with status {@code 409 (Conflict)} if the toDoItem was modified since the given version,
      * or with status {@code 500 (Internal Server Error)} if the toDoItem couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/to-do-items/{id}")
-    public ResponseEntity<ToDoItem> updateToDoItem(
+    public ResponseEntity<ToDoItemDTO> updateToDoItem(
         @PathVariable(value = "id", required = false) final Long id,
-        @RequestBody ToDoItem toDoItem
+        @RequestBody ToDoItemDTO toDoItemDTO
     ) throws URISyntaxException {
-        log.debug("REST request to update ToDoItem : {}, {}", id, toDoItem);
-        if (toDoItem.getId() == null) {
+        log.debug("REST request to update ToDoItem : {}, {}", id, toDoItemDTO);
+        if (toDoItemDTO.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
         }
-        if (!Objects.equals(id, toDoItem.getId())) {
+        if (!Objects.equals(id, toDoItemDTO.getId())) {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!toDoItemRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
-
-        ToDoItem result = toDoItemRepository.save(toDoItem);
+        ToDoItemDTO result = toDoItemService
+            .update(toDoItemDTO)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
         return ResponseEntity
             .ok()
-            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, toDoItem.getId().toString()))
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, toDoItemDTO.getId().toString()))
             .body(result);
     }
 
     /**
      * {@code PATCH  /to-do-items/:id} : Partial updates given fields of an existing toDoItem, field will ignore if it is null
+     * <p>
+     * The toDoItem is loaded once and modified in place; the update is conditioned on its version, so a concurrent
+     * modification is reported instead of being overwritten.
      *
-     * @param id the id of the toDoItem to save.
-     * @param toDoItem the toDoItem to update.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated toDoItem,
-     * or with status {@code 400 (Bad Request)} if the toDoItem is not valid,
-     * or with status {@code 404 (Not Found)} if the toDoItem is not found,
+     * @param id the id of the toDoItemDTO to save.
+     * @param toDoItemDTO the toDoItemDTO to update.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated toDoItemDTO,
+     * or with status {@code 400 (Bad Request)} if the toDoItemDTO is not valid or is not found,
+     * or with status {@code 409 (Conflict)} if the toDoItem was modified since the given version,
      * or with status {@code 500 (Internal Server Error)} if the toDoItem couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PatchMapping(value = "/to-do-items/{id}", consumes = { "application/json", "application/merge-patch+json" })
-    public ResponseEntity<ToDoItem> partialUpdateToDoItem(
+    public ResponseEntity<ToDoItemDTO> partialUpdateToDoItem(
         @PathVariable(value = "id", required = false) final Long id,
-        @RequestBody ToDoItem toDoItem
+        @RequestBody ToDoItemDTO toDoItemDTO
     ) throws URISyntaxException {
-        log.debug("REST request to partial update ToDoItem partially : {}, {}", id, toDoItem);
-        if (toDoItem.getId() == null) {
+        log.debug("REST request to partial update ToDoItem partially : {}, {}", id, toDoItemDTO);
+        if (toDoItemDTO.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
         }
-        if (!Objects.equals(id, toDoItem.getId())) {
+        if (!Objects.equals(id, toDoItemDTO.getId())) {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!toDoItemRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
+        ToDoItemDTO result = toDoItemService
+            .partialUpdate(toDoItemDTO)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        return ResponseEntity
+            .ok()
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, toDoItemDTO.getId().toString()))
+            .body(result);
+    }
 
-        Optional<ToDoItem> result = toDoItemRepository
-            .findById(toDoItem.getId())
-            .map(existingToDoItem -> {
-                if (toDoItem.getDescription() != null) {
-                    existingToDoItem.setDescription(toDoItem.getDescription());
-                }
-                if (toDoItem.getStatus() != null) {
-                    existingToDoItem.setStatus(toDoItem.getStatus());
-                }
-
-                return existingToDoItem;
-            })
-            .map(toDoItemRepository::save);
-
-        return ResponseUtil.wrapOrNotFound(
-            result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, toDoItem.getId().toString())
-        );
+    /**
+     * {@code POST  /to-do-items/bulk} : Creates, updates and deletes toDoItems in a single transaction.
+     * <p>
+     * Invalid operations are reported in the result and do not prevent the others from being applied.
+     *
+     * @param bulk the toDoItems to create and update, and the ids of the toDoItems to delete.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the outcome of each operation,
+     * or with status {@code 400 (Bad Request)} if the bulk holds more than {@value #MAX_BULK_SIZE} operations.
+     */
+    @PostMapping("/to-do-items/bulk")
+    public ResponseEntity<ToDoItemBulkResultDTO> bulkToDoItems(@RequestBody ToDoItemBulkDTO bulk) {
+        log.debug("REST request to apply ToDoItem bulk : {}", bulk);
+        if (bulk.size() > MAX_BULK_SIZE) {
+            throw new BadRequestAlertException("Too many operations in bulk", ENTITY_NAME, "bulktoolarge");
+        }
+        return ResponseEntity.ok().body(toDoItemService.bulk(bulk));
     }
 
     /**
-     * {@code GET  /to-do-items} : get all the toDoItems.
+     * {@code GET  /to-do-items} : get a page of the toDoItems, ordered by id.
+     * <p>
+     * Pages are addressed by keyset: the {@code next} link of the {@code Link} header carries an opaque cursor
+     * pointing after the last item of the current page, so every page costs the same whatever its position.
+     * <p>
+     * The page is tagged with a weak ETag computed from the ids and versions of its items. When the request
+     * carries a matching {@code If-None-Match}, only these ids and versions are read and no body is sent.
      *
      * @param eagerload flag to eager load entities from relationships (This is applicable for many-to-many).
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of toDoItems in body.
+     * @param status the status to filter on, if any.
+     * @param cursor the cursor of the page to get, as returned in the {@code next} link; absent for the first page.
+     * @param size the maximum number of toDoItems to return, capped to {@value #MAX_PAGE_SIZE}.
+     * @param webRequest the current request.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of toDoItemDTOs in body,
+     * or with status {@code 304 (Not Modified)} if the page did not change,
+     * or with status {@code 400 (Bad Request)} if the cursor or the size is invalid.
      */
     @GetMapping("/to-do-items")
-    public List<ToDoItem> getAllToDoItems(@RequestParam(required = false, defaultValue = "false") boolean eagerload) {
-        log.debug("REST request to get all ToDoItems");
-        return toDoItemRepository.findAllWithEagerRelationships();
+    public ResponseEntity<List<ToDoItemDTO>> getAllToDoItems(
+        @RequestParam(required = false, defaultValue = "false") boolean eagerload,
+        @RequestParam(required = false) ItemStatus status,
+        @RequestParam(value = CURSOR_PARAM, required = false) String cursor,
+        @RequestParam(value = SIZE_PARAM, required = false, defaultValue = "20") int size,
+        WebRequest webRequest
+    ) {
+        log.debug("REST request to get a page of ToDoItems after cursor {}", cursor);
+        int pageSize = pageSize(size);
+        long afterId = afterId(cursor);
+
+        // Fetch one extra row to know whether there is a next page without counting
+        if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            List<ToDoItemVersionDTO> versions = toDoItemQueryService.findAllIdAndVersionAfter(status, afterId, pageSize + 1);
+            String eTag = ETagUtil.weakETag(versions, ToDoItemVersionDTO::getId, ToDoItemVersionDTO::getVersion);
+            if (webRequest.checkNotModified(eTag)) {
+                String nextCursor = versions.size() > pageSize
+                    ? CursorPaginationUtil.encodeCursor(versions.get(pageSize - 1).getId())
+                    : null;
+                return ResponseEntity
+                    .status(HttpStatus.NOT_MODIFIED)
+                    .headers(paginationHeaders(nextCursor, pageSize))
+                    .eTag(eTag)
+                    .cacheControl(REVALIDATE)
+                    .build();
+            }
+        }
+        List<ToDoItemDTO> toDoItems = toDoItemQueryService.findAllAfter(status, afterId, pageSize + 1);
+        String eTag = ETagUtil.weakETag(toDoItems, ToDoItemDTO::getId, ToDoItemDTO::getVersion);
+        String nextCursor = null;
+        if (toDoItems.size() > pageSize) {
+            toDoItems = new ArrayList<>(toDoItems.subList(0, pageSize));
+            nextCursor = CursorPaginationUtil.encodeCursor(toDoItems.get(pageSize - 1).getId());
+        }
+        return ResponseEntity.ok().headers(paginationHeaders(nextCursor, pageSize)).eTag(eTag).cacheControl(REVALIDATE).body(toDoItems);
+    }
+
+    /**
+     * {@code GET  /to-do-items/mine} : get a page of the toDoItems of the current user, ordered by id.
+     * <p>
+     * Pages are addressed by keyset, as for {@code GET /to-do-items}.
+     *
+     * @param status the status to filter on, if any.
+     * @param cursor the cursor of the page to get, as returned in the {@code next} link; absent for the first page.
+     * @param size the maximum number of toDoItems to return, capped to {@value #MAX_PAGE_SIZE}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of toDoItemDTOs in body,
+     * or with status {@code 400 (Bad Request)} if the cursor or the size is invalid.
+     */
+    @GetMapping("/to-do-items/mine")
+    public ResponseEntity<List<ToDoItemDTO>> getMyToDoItems(
+        @RequestParam(required = false) ItemStatus status,
+        @RequestParam(value = CURSOR_PARAM, required = false) String cursor,
+        @RequestParam(value = SIZE_PARAM, required = false, defaultValue = "20") int size
+    ) {
+        log.debug("REST request to get a page of the current user's ToDoItems after cursor {}", cursor);
+        int pageSize = pageSize(size);
+        List<ToDoItemDTO> toDoItems = toDoItemQueryService.findAllOfCurrentUserAfter(status, afterId(cursor), pageSize + 1);
+        String nextCursor = null;
+        if (toDoItems.size() > pageSize) {
+            toDoItems = new ArrayList<>(toDoItems.subList(0, pageSize));
+            nextCursor = CursorPaginationUtil.encodeCursor(toDoItems.get(pageSize - 1).getId());
+        }
+        return ResponseEntity.ok().headers(paginationHeaders(nextCursor, pageSize)).body(toDoItems);
+    }
+
+    private static int pageSize(int size) {
+        if (size < 1) {
+            throw new BadRequestAlertException("Invalid page size", ENTITY_NAME, "sizeinvalid");
+        }
+        return Math.min(size, MAX_PAGE_SIZE);
+    }
+
+    private static long afterId(String cursor) {
+        if (cursor == null) {
+            return Long.MIN_VALUE;
+        }
+        try {
+            return CursorPaginationUtil.decodeCursor(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Invalid cursor", ENTITY_NAME, "cursorinvalid");
+        }
+    }
+
+    private HttpHeaders paginationHeaders(String nextCursor, int pageSize) {
+        return CursorPaginationUtil.generateCursorPaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), nextCursor, pageSize);
+    }
+
+    /**
+     * {@code GET  /to-do-items/export} : export all the toDoItems as newline-delimited JSON.
+     * <p>
+     * The body is streamed from a database cursor while it is written, so the whole result set is never held in memory.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the toDoItems streamed in body.
+     */
+    @GetMapping("/to-do-items/export")
+    public ResponseEntity<StreamingResponseBody> exportToDoItems() {
+        log.debug("REST request to export all ToDoItems");
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(toDoItemExportService::exportAsNdjson);
     }
 
     /**
      * {@code GET  /to-do-items/:id} : get the "id" toDoItem.
+     * <p>
+     * The toDoItem is tagged with a strong ETag derived from its version. When the request carries a matching
+     * {@code If-None-Match}, only the version is read and no body is sent.
      *
-     * @param id the id of the toDoItem to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the toDoItem, or with status {@code 404 (Not Found)}.
+     * @param id the id of the toDoItemDTO to retrieve.
+     * @param webRequest the current request.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the toDoItemDTO,
+     * or with status {@code 304 (Not Modified)} if the toDoItem did not change, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/to-do-items/{id}")
-    public ResponseEntity<ToDoItem> getToDoItem(@PathVariable Long id) {
+    public ResponseEntity<ToDoItemDTO> getToDoItem(@PathVariable Long id, WebRequest webRequest) {
         log.debug("REST request to get ToDoItem : {}", id);
-        Optional<ToDoItem> toDoItem = toDoItemRepository.findOneWithEagerRelationships(id);
-        return ResponseUtil.wrapOrNotFound(toDoItem);
+        if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            Optional<String> eTag = toDoItemQueryService.findVersion(id).map(ETagUtil::strongETag);
+            if (eTag.isPresent() && webRequest.checkNotModified(eTag.get())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag.get()).cacheControl(REVALIDATE).build();
+            }
+        }
+        Optional<ToDoItemDTO> toDoItemDTO = toDoItemQueryService.findOne(id);
+        HttpHeaders headers = new HttpHeaders();
+        toDoItemDTO.ifPresent(toDoItem -> {
+            headers.setETag(ETagUtil.strongETag(toDoItem.getVersion()));
+            headers.setCacheControl(REVALIDATE);
+        });
+        return ResponseUtil.wrapOrNotFound(toDoItemDTO, headers);
     }
 
     /**
@@ -174,7 +341,7 @@ public class ToDoItemResource {
     @DeleteMapping("/to-do-items/{id}")
     public ResponseEntity<Void> deleteToDoItem(@PathVariable Long id) {
         log.debug("REST request to delete ToDoItem : {}", id);
-        toDoItemRepository.deleteById(id);
+        toDoItemService.delete(id);
         return ResponseEntity
             .noContent()
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, true, ENTITY_NAME, id.toString()))
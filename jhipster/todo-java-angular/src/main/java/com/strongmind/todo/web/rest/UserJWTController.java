@@ -1,17 +1,18 @@
 package com.strongmind.todo.web.rest;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.strongmind.todo.security.LoginThrottle;
 import com.strongmind.todo.security.jwt.JWTFilter;
 import com.strongmind.todo.security.jwt.TokenProvider;
 import com.strongmind.todo.web.rest.vm.LoginVM;
+import java.util.concurrent.CompletableFuture;
+import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 /**
@@ -25,24 +26,48 @@ public class UserJWTController {
 
     private final AuthenticationManagerBuilder authenticationManagerBuilder;
 
-    public UserJWTController(TokenProvider tokenProvider, AuthenticationManagerBuilder authenticationManagerBuilder) {
+    private final LoginThrottle loginThrottle;
+
+    public UserJWTController(
+        TokenProvider tokenProvider,
+        AuthenticationManagerBuilder authenticationManagerBuilder,
+        LoginThrottle loginThrottle
+    ) {
         this.tokenProvider = tokenProvider;
         this.authenticationManagerBuilder = authenticationManagerBuilder;
+        this.loginThrottle = loginThrottle;
     }
 
+    /**
+     * {@code POST  /authenticate} : authenticate a user.
+     * <p>
+     * The password is checked by {@link LoginThrottle}, which answers {@code 429 (Too Many Requests)} when the attempt
+     * is not admitted. The response is completed asynchronously, once the password is checked, so that the request
+     * thread is not held meanwhile.
+     *
+     * @param loginVM the login and password.
+     * @param request the request, for the address of the client.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the JWT in body and header.
+     */
     @PostMapping("/authenticate")
-    public ResponseEntity<JWTToken> authorize(@Valid @RequestBody LoginVM loginVM) {
+    public CompletableFuture<ResponseEntity<JWTToken>> authorize(@Valid @RequestBody LoginVM loginVM, HttpServletRequest request) {
         UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
             loginVM.getUsername(),
             loginVM.getPassword()
         );
 
-        Authentication authentication = authenticationManagerBuilder.getObject().authenticate(authenticationToken);
-        SecurityContextHolder.getContext().setAuthentication(authentication);
-        String jwt = tokenProvider.createToken(authentication, loginVM.isRememberMe());
-        HttpHeaders httpHeaders = new HttpHeaders();
-        httpHeaders.add(JWTFilter.AUTHORIZATION_HEADER, "Bearer " + jwt);
-        return new ResponseEntity<>(new JWTToken(jwt), httpHeaders, HttpStatus.OK);
+        return loginThrottle
+            .authenticate(
+                request.getRemoteAddr(),
+                loginVM.getUsername(),
+                () -> authenticationManagerBuilder.getObject().authenticate(authenticationToken)
+            )
+            .thenApply(authentication -> {
+                String jwt = tokenProvider.createToken(authentication, loginVM.isRememberMe());
+                HttpHeaders httpHeaders = new HttpHeaders();
+                httpHeaders.add(JWTFilter.AUTHORIZATION_HEADER, "Bearer " + jwt);
+                return new ResponseEntity<>(new JWTToken(jwt), httpHeaders, HttpStatus.OK);
+            });
     }
 
     /**
@@ -1,5 +1,6 @@
 package com.strongmind.todo.web.rest.errors;
 
+import com.strongmind.todo.security.TooManyAuthenticationAttemptsException;
 import java.net.URI;
 import java.util.Arrays;
 import java.util.Collection;
@@ -12,8 +13,10 @@ import javax.servlet.http.HttpServletRequest;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.env.Environment;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageConversionException;
 import org.springframework.validation.BindingResult;
@@ -164,6 +167,23 @@ public class ExceptionTranslator implements ProblemHandling, SecurityAdviceTrait
         return create(ex, problem, request);
     }
 
+    @ExceptionHandler
+    public ResponseEntity<Problem> handleTooManyAuthenticationAttempts(TooManyAuthenticationAttemptsException ex, NativeWebRequest request) {
+        Problem problem = Problem
+            .builder()
+            .withStatus(Status.TOO_MANY_REQUESTS)
+            .with(MESSAGE_KEY, ErrorConstants.ERR_TOO_MANY_LOGIN_ATTEMPTS)
+            .build();
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()));
+        return create(ex, problem, request, headers);
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<Problem> handleTaskRejected(TaskRejectedException ex, NativeWebRequest request) {
+        return create(Status.SERVICE_UNAVAILABLE, ex, request);
+    }
+
     @Override
     public ProblemBuilder prepare(final Throwable throwable, final StatusType status, final URI type) {
         Collection<String> activeProfiles = Arrays.asList(env.getActiveProfiles());
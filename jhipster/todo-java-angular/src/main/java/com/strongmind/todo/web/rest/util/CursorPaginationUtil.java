@@ -0,0 +1,75 @@
+package com.strongmind.todo.web.rest.util;
+
+import java.nio.ByteBuffer;
+import java.text.MessageFormat;
+import java.util.Base64;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Utility class for handling keyset (cursor) pagination.
+ * <p>
+ * Unlike {@link tech.jhipster.web.util.PaginationUtil}, the next page is addressed by an opaque cursor
+ * carrying the key of the last returned row, so no {@code OFFSET} or total count is ever needed.
+ * Pagination uses the same kind of links as GitHub: only a {@code next} link is emitted, and only when
+ * there is a next page.
+ */
+public final class CursorPaginationUtil {
+
+    public static final String CURSOR_PARAM = "cursor";
+    public static final String SIZE_PARAM = "size";
+
+    private static final String HEADER_LINK_FORMAT = "<{0}>; rel=\"{1}\"";
+
+    private CursorPaginationUtil() {}
+
+    /**
+     * Encode the key of the last row of a page as an opaque cursor.
+     *
+     * @param lastId the id of the last row returned.
+     * @return the URL-safe cursor.
+     */
+    public static String encodeCursor(long lastId) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(ByteBuffer.allocate(Long.BYTES).putLong(lastId).array());
+    }
+
+    /**
+     * Decode a cursor created by {@link #encodeCursor(long)}.
+     *
+     * @param cursor the cursor sent by the client.
+     * @return the id of the last row of the previous page.
+     * @throws IllegalArgumentException if the cursor is malformed.
+     */
+    public static long decodeCursor(String cursor) {
+        byte[] bytes = Base64.getUrlDecoder().decode(cursor);
+        if (bytes.length != Long.BYTES) {
+            throw new IllegalArgumentException("Malformed cursor: " + cursor);
+        }
+        return ByteBuffer.wrap(bytes).getLong();
+    }
+
+    /**
+     * Generate the pagination headers for a keyset page.
+     *
+     * @param uriBuilder the URI builder of the current request.
+     * @param nextCursor the cursor of the next page, or {@code null} if this is the last page.
+     * @param size the page size.
+     * @return the http headers, with a {@code Link} header when there is a next page.
+     */
+    public static HttpHeaders generateCursorPaginationHttpHeaders(UriComponentsBuilder uriBuilder, String nextCursor, int size) {
+        HttpHeaders headers = new HttpHeaders();
+        if (nextCursor != null) {
+            headers.add(HttpHeaders.LINK, MessageFormat.format(HEADER_LINK_FORMAT, prepareCursorUri(uriBuilder, nextCursor, size), "next"));
+        }
+        return headers;
+    }
+
+    private static String prepareCursorUri(UriComponentsBuilder uriBuilder, String cursor, int size) {
+        return uriBuilder
+            .replaceQueryParam(CURSOR_PARAM, cursor)
+            .replaceQueryParam(SIZE_PARAM, Integer.toString(size))
+            .toUriString()
+            .replace(",", "%2C")
+            .replace(";", "%3B");
+    }
+}
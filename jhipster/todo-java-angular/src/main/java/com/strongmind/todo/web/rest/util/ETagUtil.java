@@ -0,0 +1,55 @@
+package com.strongmind.todo.web.rest.util;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * Utility class for computing entity tags from versioned entities, without serializing them.
+ */
+public final class ETagUtil {
+
+    private static final int WEAK_ETAG_BYTES = 16;
+
+    private ETagUtil() {}
+
+    /**
+     * Strong entity tag of a single versioned entity.
+     *
+     * @param version the version of the entity.
+     * @return the quoted entity tag.
+     */
+    public static String strongETag(long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Weak entity tag of a list of versioned entities, changing whenever an entity is added, removed or updated.
+     *
+     * @param items the entities, or projections of them.
+     * @param id the function extracting the id of an entity.
+     * @param version the function extracting the version of an entity.
+     * @param <T> the type of the entities.
+     * @return the weak entity tag.
+     */
+    public static <T> String weakETag(List<T> items, ToLongFunction<T> id, ToLongFunction<T> version) {
+        ByteBuffer buffer = ByteBuffer.allocate(items.size() * 2 * Long.BYTES);
+        for (T item : items) {
+            buffer.putLong(id.applyAsLong(item)).putLong(version.applyAsLong(item));
+        }
+        byte[] digest = sha256().digest(buffer.array());
+        return "W/\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, WEAK_ETAG_BYTES)) + "\"";
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
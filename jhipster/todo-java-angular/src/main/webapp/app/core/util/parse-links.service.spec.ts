@@ -32,5 +32,10 @@ describe('Parse links service test', () => {
       const links = { last: 0, first: 0 };
       expect(service.parse(' </api/audits?page=0&size=20>; rel="last",</api/audits?page=0&size=20>; rel="first"')).toEqual(links);
     }));
+
+    it('should return cursors when keyset headers are passed', inject([ParseLinks], (service: ParseLinks) => {
+      const cursors = { next: 'AAAAAAAAA-g' };
+      expect(service.parseCursors(' </api/to-do-items?cursor=AAAAAAAAA-g&size=20>; rel="next"')).toEqual(cursors);
+    }));
   });
 });
@@ -11,13 +11,29 @@ export class ParseLinks {
    * Method to parse the links
    */
   parse(header: string): { [key: string]: number } {
+    const pages = this.parseParam(header, 'page');
+    const links: { [key: string]: number } = {};
+    Object.keys(pages).forEach(name => {
+      links[name] = parseInt(pages[name], 10);
+    });
+    return links;
+  }
+
+  /**
+   * Method to parse the cursors of keyset paginated links
+   */
+  parseCursors(header: string): { [key: string]: string } {
+    return this.parseParam(header, 'cursor');
+  }
+
+  private parseParam(header: string, param: string): { [key: string]: string } {
     if (header.length === 0) {
       throw new Error('input must not be of zero length');
     }
 
     // Split parts by comma
     const parts: string[] = header.split(',');
-    const links: { [key: string]: number } = {};
+    const links: { [key: string]: string } = {};
 
     // Parse each part into a named link
     parts.forEach(p => {
@@ -37,9 +53,10 @@ export class ParseLinks {
         return $3 ?? '';
       });
 
-      if (queryString.page !== undefined) {
+      const value = queryString[param];
+      if (value !== undefined) {
         const name: string = section[1].replace(/rel="(.*)"/, '$1').trim();
-        links[name] = parseInt(queryString.page, 10);
+        links[name] = value;
       }
     });
     return links;
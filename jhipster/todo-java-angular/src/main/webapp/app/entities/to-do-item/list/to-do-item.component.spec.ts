@@ -41,6 +41,38 @@ describe('ToDoItem Management Component', () => {
 
     // THEN
     expect(service.query).toHaveBeenCalled();
-    expect(comp.toDoItems?.[0]).toEqual(expect.objectContaining({ id: 123 }));
+    expect(comp.toDoItems[0]).toEqual(expect.objectContaining({ id: 123 }));
+  });
+
+  it('should load the next page using the cursor of the next link', () => {
+    // GIVEN
+    jest.spyOn(service, 'query').mockReturnValue(
+      of(
+        new HttpResponse({
+          body: [{ id: 123 }],
+          headers: new HttpHeaders({ link: '<http://localhost/api/to-do-items?cursor=AAAAAAAAAHs&size=20>; rel="next"' }),
+        })
+      )
+    );
+    comp.ngOnInit();
+
+    // WHEN
+    comp.loadNextPage();
+
+    // THEN
+    expect(service.query).toHaveBeenLastCalledWith(expect.objectContaining({ cursor: 'AAAAAAAAAHs' }));
+    expect(comp.toDoItems).toHaveLength(2);
+  });
+
+  it('should re-initialize the list on reset', () => {
+    // GIVEN
+    comp.ngOnInit();
+
+    // WHEN
+    comp.reset();
+
+    // THEN
+    expect(service.query).toHaveBeenCalledTimes(2);
+    expect(comp.toDoItems).toHaveLength(1);
   });
 });
@@ -1,28 +1,40 @@
 import { Component, OnInit } from '@angular/core';
-import { HttpResponse } from '@angular/common/http';
+import { HttpHeaders, HttpResponse } from '@angular/common/http';
 import { NgbModal } from '@ng-bootstrap/ng-bootstrap';
 
 import { IToDoItem } from '../to-do-item.model';
+
+import { ITEMS_PER_PAGE } from 'app/config/pagination.constants';
 import { ToDoItemService } from '../service/to-do-item.service';
 import { ToDoItemDeleteDialogComponent } from '../delete/to-do-item-delete-dialog.component';
+import { ParseLinks } from 'app/core/util/parse-links.service';
 
 @Component({
   selector: 'jhi-to-do-item',
   templateUrl: './to-do-item.component.html',
 })
 export class ToDoItemComponent implements OnInit {
-  toDoItems?: IToDoItem[];
+  toDoItems: IToDoItem[];
   isLoading = false;
+  itemsPerPage: number;
+  nextCursor?: string;
 
-  constructor(protected toDoItemService: ToDoItemService, protected modalService: NgbModal) {}
+  constructor(protected toDoItemService: ToDoItemService, protected modalService: NgbModal, protected parseLinks: ParseLinks) {
+    this.toDoItems = [];
+    this.itemsPerPage = ITEMS_PER_PAGE;
+  }
 
   loadAll(): void {
     this.isLoading = true;
 
-    this.toDoItemService.query().subscribe({
+    const req: { [key: string]: string | number } = { size: this.itemsPerPage };
+    if (this.nextCursor) {
+      req.cursor = this.nextCursor;
+    }
+    this.toDoItemService.query(req).subscribe({
       next: (res: HttpResponse<IToDoItem[]>) => {
         this.isLoading = false;
-        this.toDoItems = res.body ?? [];
+        this.paginateToDoItems(res.body, res.headers);
       },
       error: () => {
         this.isLoading = false;
@@ -30,6 +42,18 @@ export class ToDoItemComponent implements OnInit {
     });
   }
 
+  reset(): void {
+    this.nextCursor = undefined;
+    this.toDoItems = [];
+    this.loadAll();
+  }
+
+  loadNextPage(): void {
+    if (this.nextCursor && !this.isLoading) {
+      this.loadAll();
+    }
+  }
+
   ngOnInit(): void {
     this.loadAll();
   }
@@ -44,8 +68,18 @@ export class ToDoItemComponent implements OnInit {
     // unsubscribe not needed because closed completes on modal close
     modalRef.closed.subscribe(reason => {
       if (reason === 'deleted') {
-        this.loadAll();
+        this.reset();
       }
     });
   }
+
+  protected paginateToDoItems(data: IToDoItem[] | null, headers: HttpHeaders): void {
+    const link = headers.get('link');
+    this.nextCursor = link ? this.parseLinks.parseCursors(link).next : undefined;
+    if (data) {
+      for (const d of data) {
+        this.toDoItems.push(d);
+      }
+    }
+  }
 }
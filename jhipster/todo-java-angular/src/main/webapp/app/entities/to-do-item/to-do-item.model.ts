@@ -5,11 +5,18 @@ export interface IToDoItem {
   id?: number;
   description?: string | null;
   status?: ItemStatus | null;
+  version?: number | null;
   user?: IUser | null;
 }
 
 export class ToDoItem implements IToDoItem {
-  constructor(public id?: number, public description?: string | null, public status?: ItemStatus | null, public user?: IUser | null) {}
+  constructor(
+    public id?: number,
+    public description?: string | null,
+    public status?: ItemStatus | null,
+    public version?: number | null,
+    public user?: IUser | null
+  ) {}
 }
 
 export function getToDoItemIdentifier(toDoItem: IToDoItem): number | undefined {
@@ -25,6 +25,7 @@ export class ToDoItemUpdateComponent implements OnInit {
     id: [],
     description: [],
     status: [],
+    version: [],
     user: [],
   });
 
@@ -85,6 +86,7 @@ export class ToDoItemUpdateComponent implements OnInit {
       id: toDoItem.id,
       description: toDoItem.description,
       status: toDoItem.status,
+      version: toDoItem.version,
       user: toDoItem.user,
     });
 
@@ -105,6 +107,7 @@ export class ToDoItemUpdateComponent implements OnInit {
       id: this.editForm.get(['id'])!.value,
       description: this.editForm.get(['description'])!.value,
       status: this.editForm.get(['status'])!.value,
+      version: this.editForm.get(['version'])!.value,
       user: this.editForm.get(['user'])!.value,
     };
   }
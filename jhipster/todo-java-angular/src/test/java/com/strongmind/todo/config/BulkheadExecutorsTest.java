@@ -0,0 +1,98 @@
+package com.strongmind.todo.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+class BulkheadExecutorsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private ThreadPoolTaskExecutor executor;
+
+    @AfterEach
+    void shutdown() {
+        release.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    void testCallerRunsWhenFull() throws Exception {
+        executor = saturated(ApplicationProperties.RejectionPolicy.CALLER_RUNS);
+        AtomicReference<Thread> thread = new AtomicReference<>();
+
+        executor.execute(() -> thread.set(Thread.currentThread()));
+
+        assertThat(thread.get()).isSameAs(Thread.currentThread());
+        assertThat(meterRegistry.get("executor.rejected").tag("name", "test").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testDiscardsWhenFull() throws Exception {
+        executor = saturated(ApplicationProperties.RejectionPolicy.DISCARD);
+        AtomicReference<Thread> thread = new AtomicReference<>();
+
+        executor.execute(() -> thread.set(Thread.currentThread()));
+
+        assertThat(thread.get()).isNull();
+        assertThat(meterRegistry.get("executor.rejected").tag("name", "test").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testAbortsWhenFull() throws Exception {
+        executor = saturated(ApplicationProperties.RejectionPolicy.ABORT);
+
+        assertThatThrownBy(() -> executor.execute(() -> {})).isInstanceOf(TaskRejectedException.class);
+        assertThat(meterRegistry.get("executor.rejected").tag("name", "test").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testPublishesQueueDepthAndTaskLatency() throws Exception {
+        executor = saturated(ApplicationProperties.RejectionPolicy.ABORT);
+
+        assertThat(meterRegistry.get("executor.queued").tag("name", "test").gauge().value()).isEqualTo(1);
+        assertThat(meterRegistry.get("executor.active").tag("name", "test").gauge().value()).isEqualTo(1);
+
+        release.countDown();
+        executor.getThreadPoolExecutor().shutdown();
+        assertThat(executor.getThreadPoolExecutor().awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(meterRegistry.get("executor.idle").tag("name", "test").timer().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("executor").tag("name", "test").timer().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("executor.queued").tag("name", "test").gauge().value()).isZero();
+    }
+
+    /**
+     * An executor with one thread busy and one task in its queue.
+     */
+    private ThreadPoolTaskExecutor saturated(ApplicationProperties.RejectionPolicy rejectionPolicy) throws InterruptedException {
+        ThreadPoolTaskExecutor executor = BulkheadExecutors.create("test", 1, 1, 1, rejectionPolicy, "test-", meterRegistry);
+        executor.initialize();
+        CountDownLatch started = new CountDownLatch(1);
+        executor.execute(() -> {
+            started.countDown();
+            awaitRelease();
+        });
+        assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+        executor.execute(this::awaitRelease);
+        return executor;
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.strongmind.todo.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.strongmind.todo.domain.ToDoItem;
+import com.strongmind.todo.repository.UserRepository;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import javax.cache.CacheManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Tests for the disk tiers of {@link CacheConfiguration}.
+ */
+class CacheConfigurationTest {
+
+    private static final String TO_DO_ITEMS = ToDoItem.class.getName();
+
+    @TempDir
+    Path persistenceDirectory;
+
+    private final ApplicationProperties applicationProperties = new ApplicationProperties();
+
+    private CacheConfiguration cacheConfiguration;
+
+    @BeforeEach
+    void setup() {
+        ApplicationProperties.CacheRegion region = new ApplicationProperties.CacheRegion(DataSize.ofKilobytes(100), null);
+        region.setDiskSize(DataSize.ofMegabytes(1));
+        applicationProperties.getCache().getRegions().put(TO_DO_ITEMS, region);
+        applicationProperties.getCache().setPersistenceDirectory(persistenceDirectory.toString());
+        cacheConfiguration = new CacheConfiguration(new JHipsterProperties(), applicationProperties);
+    }
+
+    @Test
+    void testReloadsEntriesPersistedBySameBuild() {
+        try (CacheManager cacheManager = start("abc1234")) {
+            cacheManager.getCache(TO_DO_ITEMS).put("id", "toDoItem");
+        }
+
+        try (CacheManager cacheManager = start("abc1234")) {
+            assertThat(cacheManager.getCache(TO_DO_ITEMS).get("id")).isEqualTo("toDoItem");
+        }
+    }
+
+    @Test
+    void testDropsEntriesPersistedByAnotherBuild() {
+        try (CacheManager cacheManager = start("abc1234")) {
+            cacheManager.getCache(TO_DO_ITEMS).put("id", "toDoItem");
+        }
+
+        try (CacheManager cacheManager = start("def5678")) {
+            assertThat(cacheManager.getCache(TO_DO_ITEMS).get("id")).isNull();
+        }
+    }
+
+    @Test
+    void testDropsEntriesOfUnknownBuild() {
+        try (CacheManager cacheManager = start(null)) {
+            cacheManager.getCache(TO_DO_ITEMS).put("id", "toDoItem");
+        }
+
+        try (CacheManager cacheManager = start(null)) {
+            assertThat(cacheManager.getCache(TO_DO_ITEMS).get("id")).isNull();
+        }
+    }
+
+    @Test
+    void testKeepsOtherFilesOfPersistenceDirectory() throws Exception {
+        Path otherFile = Files.writeString(persistenceDirectory.resolve("other"), "kept");
+        try (CacheManager cacheManager = start("abc1234")) {
+            cacheManager.getCache(TO_DO_ITEMS).put("id", "toDoItem");
+        }
+
+        try (CacheManager cacheManager = start("def5678")) {
+            assertThat(cacheManager.getCache(TO_DO_ITEMS).get("id")).isNull();
+        }
+        assertThat(otherFile).hasContent("kept");
+    }
+
+    @Test
+    void testUserRegionsCannotHaveDiskTier() {
+        ApplicationProperties.CacheRegion region = new ApplicationProperties.CacheRegion(DataSize.ofKilobytes(100), null);
+        region.setDiskSize(DataSize.ofMegabytes(1));
+        applicationProperties.getCache().getRegions().put(UserRepository.USERS_BY_LOGIN_CACHE, region);
+
+        assertThatThrownBy(() -> cacheConfiguration.jcacheConfiguration(UserRepository.USERS_BY_LOGIN_CACHE))
+            .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void testDiskTierRequiresPersistenceDirectory() {
+        applicationProperties.getCache().setPersistenceDirectory(null);
+
+        assertThatThrownBy(() -> cacheConfiguration.jcacheConfiguration(TO_DO_ITEMS))
+            .isInstanceOf(IllegalStateException.class);
+    }
+
+    private CacheManager start(String buildPrefix) {
+        CacheManager cacheManager = cacheConfiguration.createCacheManager(buildPrefix);
+        cacheConfiguration.cacheManagerCustomizer().customize(cacheManager);
+        return cacheManager;
+    }
+}
@@ -0,0 +1,95 @@
+package com.strongmind.todo.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.strongmind.todo.IntegrationTest;
+import com.strongmind.todo.domain.User;
+import com.strongmind.todo.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Objects;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for {@link CacheFootprintMetrics}, on the {@code usersByLogin} region given an off-heap tier by
+ * the test configuration, and on the user regions sized in entries.
+ */
+@IntegrationTest
+class CacheFootprintMetricsIT {
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    public void cleanup() {
+        cache().clear();
+        Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE)).clear();
+    }
+
+    @Test
+    void testPublishesFootprintOfEachTier() {
+        User user = new User();
+        user.setLogin("footprint");
+        user.setEmail("footprint@localhost");
+
+        cache().put(user.getLogin(), user);
+
+        assertThat(gauge("cache.tier.mappings", "offheap")).isEqualTo(1);
+        assertThat(gauge("cache.tier.occupied", "offheap")).isPositive();
+        assertThat(gauge("cache.tier.allocated", "offheap")).isBetween(gauge("cache.tier.occupied", "offheap"), 16.0 * 1024 * 1024);
+
+        assertThat(cache().get(user.getLogin(), User.class)).extracting(User::getEmail).isEqualTo(user.getEmail());
+
+        assertThat(gauge("cache.tier.mappings", "heap")).isEqualTo(1);
+        // The heap tier is sized in entries
+        assertThat(meterRegistry.find("cache.tier.occupied").tag("name", UserRepository.USERS_BY_LOGIN_CACHE).tag("tier", "heap").gauge())
+            .isNull();
+    }
+
+    @Test
+    void testEntityLoadedInTransactionIsCached() {
+        // Loaded within a transaction, the user and its authorities are still attached to the session when cached
+        new TransactionTemplate(transactionManager)
+            .executeWithoutResult(status -> assertThat(userRepository.findOneWithAuthoritiesByEmailIgnoreCase("admin@localhost")).isPresent());
+
+        assertThat(
+            meterRegistry.get("cache.tier.mappings").tag("name", UserRepository.USERS_BY_EMAIL_CACHE).tag("tier", "heap").gauge().value()
+        )
+            .isEqualTo(1);
+        User cached = Objects
+            .requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE))
+            .get("admin@localhost", User.class);
+        assertThat(cached).isNotNull();
+        assertThat(cached.getAuthorities()).isNotEmpty();
+    }
+
+    @Test
+    void testHeapOnlyRegionHasNoOffHeapTier() {
+        assertThat(meterRegistry.find("cache.tier.mappings").tag("name", UserRepository.USERS_BY_EMAIL_CACHE).tag("tier", "heap").gauge())
+            .isNotNull();
+        assertThat(meterRegistry.find("cache.tier.mappings").tag("name", UserRepository.USERS_BY_EMAIL_CACHE).tag("tier", "offheap").gauge())
+            .isNull();
+    }
+
+    private Cache cache() {
+        return Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE));
+    }
+
+    private double gauge(String name, String tier) {
+        return meterRegistry.get(name).tag("name", UserRepository.USERS_BY_LOGIN_CACHE).tag("tier", tier).gauge().value();
+    }
+}
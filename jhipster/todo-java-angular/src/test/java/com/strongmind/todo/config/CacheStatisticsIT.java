@@ -0,0 +1,96 @@
+package com.strongmind.todo.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.strongmind.todo.IntegrationTest;
+import com.strongmind.todo.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Map;
+import java.util.Objects;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import tech.jhipster.config.metric.JHipsterMetricsEndpoint;
+
+/**
+ * Integration tests for the statistics of the cache regions, on the {@code usersByLogin} region.
+ */
+@IntegrationTest
+class CacheStatisticsIT {
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void setup() {
+        Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE)).clear();
+    }
+
+    @Test
+    void testPublishesRegionStatistics() {
+        double hits = counter("cache.gets", "hit");
+        double misses = counter("cache.gets", "miss");
+        double puts = meterRegistry.get("cache.puts").tag("name", UserRepository.USERS_BY_LOGIN_CACHE).functionCounter().count();
+        long loads = meterRegistry.get("cache.loads").tag("name", UserRepository.USERS_BY_LOGIN_CACHE).tag("result", "success").timer().count();
+
+        userRepository.findOneWithAuthoritiesByLogin("admin");
+        userRepository.findOneWithAuthoritiesByLogin("admin");
+
+        assertThat(counter("cache.gets", "hit")).isEqualTo(hits + 1);
+        assertThat(counter("cache.gets", "miss")).isEqualTo(misses + 1);
+        assertThat(meterRegistry.get("cache.puts").tag("name", UserRepository.USERS_BY_LOGIN_CACHE).functionCounter().count())
+            .isEqualTo(puts + 1);
+        assertThat(meterRegistry.get("cache.size").tag("name", UserRepository.USERS_BY_LOGIN_CACHE).gauge().value()).isEqualTo(1);
+        assertThat(
+            meterRegistry.get("cache.loads").tag("name", UserRepository.USERS_BY_LOGIN_CACHE).tag("result", "success").timer().count()
+        )
+            .isEqualTo(loads + 1);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRegionsAreInJHipsterMetrics() {
+        userRepository.findOneWithAuthoritiesByLogin("admin");
+
+        Map<String, Map<String, Double>> cacheMetrics = (Map<String, Map<String, Double>>) new JHipsterMetricsEndpoint(meterRegistry)
+            .allMetrics()
+            .get("cache");
+
+        assertThat(cacheMetrics).containsKeys(UserRepository.USERS_BY_LOGIN_CACHE, com.strongmind.todo.domain.ToDoItem.class.getName());
+        assertThat(cacheMetrics.get(UserRepository.USERS_BY_LOGIN_CACHE))
+            .containsKeys("cache.gets.hit", "cache.gets.miss", "cache.puts", "cache.evictions", "cache.removals", "cache.size");
+    }
+
+    @Test
+    void testRegionsHaveStatisticsInCachesEndpoint() {
+        userRepository.findOneWithAuthoritiesByLogin("admin");
+
+        CacheStatisticsEndpoint.CacheStatisticsDescriptor descriptor = (CacheStatisticsEndpoint.CacheStatisticsDescriptor) new CacheStatisticsEndpoint(
+            Map.of("cacheManager", cacheManager),
+            meterRegistry
+        )
+            .caches()
+            .getCacheManagers()
+            .get("cacheManager")
+            .getCaches()
+            .get(UserRepository.USERS_BY_LOGIN_CACHE);
+
+        assertThat(descriptor.getTarget()).isNotEmpty();
+        assertThat(descriptor.getMisses()).isPositive();
+        assertThat(descriptor.getPuts()).isPositive();
+        assertThat(descriptor.getSize()).isEqualTo(1);
+        assertThat(descriptor.getLoads()).isPositive();
+        assertThat(descriptor.getMeanLoadMillis()).isNotNegative();
+    }
+
+    private double counter(String name, String result) {
+        return meterRegistry.get(name).tag("name", UserRepository.USERS_BY_LOGIN_CACHE).tag("result", result).functionCounter().count();
+    }
+}
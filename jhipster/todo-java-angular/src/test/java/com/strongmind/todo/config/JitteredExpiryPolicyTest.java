@@ -0,0 +1,27 @@
+package com.strongmind.todo.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class JitteredExpiryPolicyTest {
+
+    @Test
+    void testShortensTimeToLiveByUpToJitter() {
+        JitteredExpiryPolicy expiryPolicy = new JitteredExpiryPolicy(Duration.ofHours(1), 0.1);
+        Set<Duration> expiries = new HashSet<>();
+
+        for (int i = 0; i < 100; i++) {
+            Duration expiry = expiryPolicy.getExpiryForCreation("key", "value");
+            assertThat(expiry).isBetween(Duration.ofMinutes(54), Duration.ofHours(1));
+            expiries.add(expiry);
+        }
+
+        assertThat(expiries).hasSizeGreaterThan(1);
+        assertThat(expiryPolicy.getExpiryForAccess("key", () -> "value")).isNull();
+        assertThat(expiryPolicy.getExpiryForUpdate("key", () -> "value", "value")).isBetween(Duration.ofMinutes(54), Duration.ofHours(1));
+    }
+}
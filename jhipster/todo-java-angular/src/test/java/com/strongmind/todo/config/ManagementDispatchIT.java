@@ -0,0 +1,50 @@
+package com.strongmind.todo.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.strongmind.todo.TodoApp;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.actuate.autoconfigure.endpoint.web.WebEndpointProperties;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Integration tests for the dispatch of the management requests to their own executor, on a running Undertow server.
+ */
+@SpringBootTest(classes = TodoApp.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ManagementDispatchIT {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private WebEndpointProperties webEndpointProperties;
+
+    @Autowired
+    @Qualifier("managementExecutor")
+    private ThreadPoolTaskExecutor managementExecutor;
+
+    @Test
+    void managementRequestsAreServedByManagementExecutor() {
+        long tasks = managementExecutor.getThreadPoolExecutor().getTaskCount();
+
+        // The health may be down in tests (no mail server): only check that the endpoint answered
+        assertThat(restTemplate.getForEntity(webEndpointProperties.getBasePath() + "/health", String.class).getBody())
+            .contains("\"status\"");
+
+        assertThat(managementExecutor.getThreadPoolExecutor().getTaskCount()).isEqualTo(tasks + 1);
+    }
+
+    @Test
+    void apiRequestsAreNotServedByManagementExecutor() {
+        long tasks = managementExecutor.getThreadPoolExecutor().getTaskCount();
+
+        assertThat(restTemplate.getForEntity("/api/account", String.class).getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+
+        assertThat(managementExecutor.getThreadPoolExecutor().getTaskCount()).isEqualTo(tasks);
+    }
+}
@@ -0,0 +1,210 @@
+package com.strongmind.todo.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.configuration.MutableConfiguration;
+import org.ehcache.core.config.DefaultConfiguration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+
+class RefreshAheadCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final MutableClock clock = new MutableClock();
+
+    private final AtomicInteger reloads = new AtomicInteger();
+
+    private final List<Runnable> refreshes = new ArrayList<>();
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    private CacheManager cacheManager;
+
+    private RefreshAheadCache cache;
+
+    @BeforeEach
+    void setup() {
+        EhcacheCachingProvider cachingProvider = (EhcacheCachingProvider) Caching.getCachingProvider(EhcacheCachingProvider.class.getName());
+        cacheManager =
+            cachingProvider.getCacheManager(
+                URI.create("urn:refresh-ahead-cache-test"),
+                new DefaultConfiguration(cachingProvider.getDefaultClassLoader())
+            );
+        cache =
+            new RefreshAheadCache(
+                cacheManager.createCache("test", new MutableConfiguration<>()),
+                key -> key + "-reloaded-" + reloads.incrementAndGet(),
+                Duration.ofMinutes(45),
+                refreshes::add,
+                clock,
+                meterRegistry
+            );
+    }
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+        cacheManager.close();
+    }
+
+    @Test
+    void testConcurrentMissesLoadOnce() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        Future<String> first = executor.submit(() ->
+            cache.get(
+                "key",
+                () -> {
+                    loads.incrementAndGet();
+                    loading.countDown();
+                    release.await(10, TimeUnit.SECONDS);
+                    return "value";
+                }
+            )
+        );
+        assertThat(loading.await(10, TimeUnit.SECONDS)).isTrue();
+        List<Future<String>> others = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            others.add(executor.submit(() -> cache.get("key", () -> "value-" + loads.incrementAndGet())));
+        }
+        while (meterRegistry.get("cache.loads.coalesced").counter().count() < 3) {
+            Thread.sleep(10);
+        }
+
+        release.countDown();
+
+        assertThat(first.get(10, TimeUnit.SECONDS)).isEqualTo("value");
+        for (Future<String> other : others) {
+            assertThat(other.get(10, TimeUnit.SECONDS)).isEqualTo("value");
+        }
+        assertThat(loads).hasValue(1);
+        assertThat(cache.get("key", String.class)).isEqualTo("value");
+    }
+
+    @Test
+    void testFailedLoadFailsCoalescedMisses() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> first = executor.submit(() ->
+            cache.get(
+                "key",
+                () -> {
+                    loading.countDown();
+                    release.await(10, TimeUnit.SECONDS);
+                    throw new IllegalStateException("Database unavailable");
+                }
+            )
+        );
+        assertThat(loading.await(10, TimeUnit.SECONDS)).isTrue();
+        Future<String> other = executor.submit(() -> cache.get("key", () -> "value"));
+        while (meterRegistry.get("cache.loads.coalesced").counter().count() < 1) {
+            Thread.sleep(10);
+        }
+
+        release.countDown();
+
+        assertThatThrownBy(() -> first.get(10, TimeUnit.SECONDS)).hasCauseInstanceOf(Cache.ValueRetrievalException.class);
+        assertThatThrownBy(() -> other.get(10, TimeUnit.SECONDS)).hasCauseInstanceOf(Cache.ValueRetrievalException.class);
+        assertThat(cache.get("key")).isNull();
+        assertThat(meterRegistry.get("cache.loads").tag("result", "failure").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testCachesNullValues() {
+        assertThat(cache.<String>get("key", () -> null)).isNull();
+
+        assertThat(cache.get("key")).isNotNull();
+        assertThat(cache.get("key", () -> "value")).isNull();
+    }
+
+    @Test
+    void testReloadsOldEntryOnHitInBackground() {
+        cache.put("key", "value");
+        clock.advance(Duration.ofMinutes(44));
+        assertThat(cache.get("key", () -> "loaded")).isEqualTo("value");
+        assertThat(refreshes).isEmpty();
+
+        clock.advance(Duration.ofMinutes(2));
+        assertThat(cache.get("key", () -> "loaded")).isEqualTo("value");
+        assertThat(cache.get("key").get()).isEqualTo("value");
+        assertThat(refreshes).hasSize(1);
+
+        refreshes.get(0).run();
+
+        assertThat(cache.get("key", String.class)).isEqualTo("key-reloaded-1");
+        assertThat(meterRegistry.get("cache.refreshes").tag("result", "success").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.loads").tag("result", "success").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testReloadDoesNotRestoreEvictedEntry() {
+        cache.put("key", "value");
+        clock.advance(Duration.ofHours(1));
+        cache.get("key");
+
+        cache.evict("key");
+        refreshes.get(0).run();
+
+        assertThat(cache.get("key")).isNull();
+    }
+
+    @Test
+    void testMissAfterEvictionDoesNotWaitForReload() {
+        cache.put("key", "value");
+        clock.advance(Duration.ofHours(1));
+        cache.get("key");
+
+        cache.evict("key");
+
+        assertThat(cache.get("key", () -> "changed")).isEqualTo("changed");
+        assertThat(meterRegistry.get("cache.loads.coalesced").counter().count()).isZero();
+        refreshes.get(0).run();
+        assertThat(cache.get("key", String.class)).isEqualTo("changed");
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant instant = Instant.now();
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.strongmind.todo.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class VirtualThreadSupportTest {
+
+    private final boolean available = Runtime.version().feature() >= 21;
+
+    @Test
+    void testIsDisabledByDefault() {
+        assertThat(VirtualThreadSupport.isEnabled(new ApplicationProperties())).isFalse();
+    }
+
+    @Test
+    void testIsEnabledOnlyWhereAvailable() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getVirtualThreads().setEnabled(true);
+
+        assertThat(VirtualThreadSupport.isEnabled(applicationProperties)).isEqualTo(available);
+        assertThat(VirtualThreadSupport.newVirtualThreadPerTaskExecutor("test-").isPresent()).isEqualTo(available);
+    }
+}
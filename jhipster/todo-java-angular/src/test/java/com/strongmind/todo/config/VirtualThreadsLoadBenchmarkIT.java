@@ -0,0 +1,148 @@
+package com.strongmind.todo.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.strongmind.todo.TodoApp;
+import com.strongmind.todo.security.AuthoritiesConstants;
+import com.strongmind.todo.security.jwt.JWTFilter;
+import com.strongmind.todo.security.jwt.TokenProvider;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+/**
+ * Load test of the application served by platform threads (the Undertow workers) and by virtual threads.
+ * <p>
+ * Each mode starts the application on its own database and port; {@value #CLIENTS} clients then fetch their page of
+ * toDoItems in a loop, each request running a query. The adaptive concurrency limit is disabled, so that the threads
+ * and the connection pool are the only bounds. The virtual-thread mode is only measured on a JDK which has them. Run
+ * it with {@code -Dbenchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@Timeout(value = 5, unit = TimeUnit.MINUTES)
+class VirtualThreadsLoadBenchmarkIT {
+
+    private static final int CLIENTS = 200;
+
+    private static final long WARM_UP_MILLIS = 5_000;
+
+    private static final long MEASURE_MILLIS = 15_000;
+
+    private final Logger log = LoggerFactory.getLogger(VirtualThreadsLoadBenchmarkIT.class);
+
+    @Test
+    void comparePlatformAndVirtualThreads() throws Exception {
+        log.info("Platform threads: {}", measure(false));
+        if (VirtualThreadSupport.newVirtualThreadPerTaskExecutor("probe-").isPresent()) {
+            log.info("Virtual threads: {}", measure(true));
+        } else {
+            log.info("Virtual threads: not available in Java {}", Runtime.version().feature());
+        }
+    }
+
+    private static Result measure(boolean virtualThreads) throws Exception {
+        try (
+            ConfigurableApplicationContext context = new SpringApplicationBuilder(TodoApp.class)
+                .properties(
+                    "server.port=0",
+                    "spring.datasource.url=jdbc:h2:mem:load-" + virtualThreads + ";DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                    "application.concurrency-limit.enabled=false",
+                    "application.virtual-threads.enabled=" + virtualThreads
+                )
+                .run()
+        ) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            String jwt = context
+                .getBean(TokenProvider.class)
+                .createToken(
+                    new UsernamePasswordAuthenticationToken(
+                        "user",
+                        "",
+                        Collections.singletonList(new SimpleGrantedAuthority(AuthoritiesConstants.USER))
+                    ),
+                    false
+                );
+            HttpRequest request = HttpRequest
+                .newBuilder(URI.create("http://localhost:" + port + "/api/to-do-items/mine?size=20"))
+                .header(JWTFilter.AUTHORIZATION_HEADER, "Bearer " + jwt)
+                .build();
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+            run(client, request, WARM_UP_MILLIS);
+            return run(client, request, MEASURE_MILLIS);
+        }
+    }
+
+    private static Result run(HttpClient client, HttpRequest request, long durationMillis) throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        try {
+            long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(durationMillis);
+            List<Future<long[]>> futures = new ArrayList<>();
+            for (int i = 0; i < CLIENTS; i++) {
+                futures.add(
+                    clients.submit(() -> {
+                        long[] latencies = new long[1024];
+                        int count = 0;
+                        while (System.nanoTime() < end) {
+                            long start = System.nanoTime();
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            assertThat(response.statusCode()).isEqualTo(200);
+                            if (count == latencies.length) {
+                                latencies = Arrays.copyOf(latencies, count * 2);
+                            }
+                            latencies[count++] = System.nanoTime() - start;
+                        }
+                        return Arrays.copyOf(latencies, count);
+                    })
+                );
+            }
+            long[] latencies = new long[0];
+            for (Future<long[]> future : futures) {
+                long[] clientLatencies = future.get();
+                int offset = latencies.length;
+                latencies = Arrays.copyOf(latencies, offset + clientLatencies.length);
+                System.arraycopy(clientLatencies, 0, latencies, offset, clientLatencies.length);
+            }
+            Arrays.sort(latencies);
+            return new Result(latencies.length * 1000L / durationMillis, latencies[(int) (latencies.length * 0.99)] / 1000);
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    private static final class Result {
+
+        private final long requestsPerSecond;
+
+        private final long p99Micros;
+
+        private Result(long requestsPerSecond, long p99Micros) {
+            this.requestsPerSecond = requestsPerSecond;
+            this.p99Micros = p99Micros;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d requests/s, p99 %.1f ms", requestsPerSecond, p99Micros / 1000.0);
+        }
+    }
+}
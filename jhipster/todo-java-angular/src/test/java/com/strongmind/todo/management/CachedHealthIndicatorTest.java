@@ -0,0 +1,87 @@
+package com.strongmind.todo.management;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+
+class CachedHealthIndicatorTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    private final AtomicInteger checks = new AtomicInteger();
+
+    private final AtomicBoolean busy = new AtomicBoolean();
+
+    private volatile Status status = Status.UP;
+
+    private final HealthIndicator delegate = () -> {
+        checks.incrementAndGet();
+        return Health.status(status).build();
+    };
+
+    private final CachedHealthIndicator healthIndicator = new CachedHealthIndicator(delegate, 5000, 60000, busy::get, now::get);
+
+    @Test
+    void testHealthIsReusedDuringTtl() {
+        assertThat(healthIndicator.health().getStatus()).isEqualTo(Status.UP);
+        status = Status.DOWN;
+        advance(4999);
+
+        assertThat(healthIndicator.health().getStatus()).isEqualTo(Status.UP);
+        assertThat(checks).hasValue(1);
+
+        advance(1);
+
+        assertThat(healthIndicator.health().getStatus()).isEqualTo(Status.DOWN);
+        assertThat(checks).hasValue(2);
+    }
+
+    @Test
+    void testCheckIsSkippedWhileBusy() {
+        healthIndicator.health();
+        status = Status.DOWN;
+        busy.set(true);
+        advance(30000);
+
+        assertThat(healthIndicator.health().getStatus()).isEqualTo(Status.UP);
+        assertThat(checks).hasValue(1);
+
+        advance(30000);
+
+        assertThat(healthIndicator.health().getStatus()).isEqualTo(Status.DOWN);
+        assertThat(checks).hasValue(2);
+    }
+
+    @Test
+    void testConcurrentProbesGetPreviousHealth() {
+        AtomicBoolean checking = new AtomicBoolean();
+        CachedHealthIndicator[] reentrant = new CachedHealthIndicator[1];
+        reentrant[0] =
+            new CachedHealthIndicator(
+                () -> {
+                    if (checking.compareAndSet(false, true)) {
+                        // A probe arriving while the check runs
+                        assertThat(reentrant[0].health().getStatus()).isEqualTo(Status.UNKNOWN);
+                    }
+                    return Health.up().build();
+                },
+                5000,
+                60000,
+                () -> false,
+                now::get
+            );
+
+        assertThat(reentrant[0].health().getStatus()).isEqualTo(Status.UP);
+    }
+
+    private void advance(long millis) {
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+}
@@ -0,0 +1,67 @@
+package com.strongmind.todo.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import com.strongmind.todo.IntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests checking that the hot lookup paths are served by an index rather than a table scan.
+ * <p>
+ * The functional {@code upper(email)} index only exists on PostgreSQL: it is checked when the tests run against
+ * PostgreSQL, with the {@code testcontainers} profile.
+ */
+@IntegrationTest
+class QueryPlanIT {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void findOneByActivationKeyUsesIndex() {
+        assertThat(explain("select * from jhi_user where activation_key = 'key'")).containsIgnoringCase("idx_user_activation_key");
+    }
+
+    @Test
+    void findOneByResetKeyUsesIndex() {
+        assertThat(explain("select * from jhi_user where reset_key = 'key'")).containsIgnoringCase("idx_user_reset_key");
+    }
+
+    @Test
+    void findToDoItemsOfUserUsesIndex() {
+        assertThat(explain("select * from to_do_item where user_id = 1 and status = 'ToDo' and id > 0 order by id"))
+            .containsIgnoringCase("idx_to_do_item_user_status_id");
+        // H2 also indexes foreign keys by itself and picks that index without status: only check the table is not scanned
+        assertThat(explain("select * from to_do_item where user_id = 1 and id > 0 order by id")).doesNotContainIgnoringCase("tableScan");
+    }
+
+    @Test
+    @Transactional
+    void findOneByEmailIgnoreCaseUsesIndex() {
+        assumeTrue("PostgreSQL".equals(databaseProductName()), "The upper(email) index only exists on PostgreSQL");
+        // The few rows of the test database are cheaper to scan: only a plan without scan shows the index is usable
+        jdbcTemplate.execute("set local enable_seqscan = off");
+
+        assertThat(explain("select * from jhi_user where upper(email) = upper('admin@localhost')"))
+            .containsIgnoringCase("idx_user_upper_email");
+    }
+
+    @Test
+    void explainReportsTableScans() {
+        assertThat(explain("select * from jhi_user where last_name = 'name'")).containsIgnoringCase("tableScan");
+    }
+
+    private String explain(String query) {
+        // One row on H2, one row per node of the plan on PostgreSQL
+        return String.join("\n", jdbcTemplate.queryForList("explain " + query, String.class));
+    }
+
+    private String databaseProductName() {
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+    }
+}
@@ -0,0 +1,65 @@
+package com.strongmind.todo.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.OptionalInt;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+/**
+ * Test class for the {@link AuthorityRegistry} utility class.
+ */
+class AuthorityRegistryTest {
+
+    @Test
+    void testKnownAuthoritiesAreShared() {
+        assertThat(AuthorityRegistry.of(AuthoritiesConstants.ADMIN)).isSameAs(AuthorityRegistry.of(AuthoritiesConstants.ADMIN));
+        assertThat(AuthorityRegistry.of(AuthoritiesConstants.USER).getAuthority()).isEqualTo(AuthoritiesConstants.USER);
+    }
+
+    @Test
+    void testUnknownAuthorityIsCreated() {
+        assertThat(AuthorityRegistry.of("ROLE_OTHER")).isEqualTo(new SimpleGrantedAuthority("ROLE_OTHER"));
+    }
+
+    @Test
+    void testFromClaim() {
+        List<GrantedAuthority> authorities = AuthorityRegistry.fromClaim(AuthoritiesConstants.ADMIN + ", " + AuthoritiesConstants.USER + ",");
+
+        assertThat(authorities)
+            .containsExactly(AuthorityRegistry.of(AuthoritiesConstants.ADMIN), AuthorityRegistry.of(AuthoritiesConstants.USER));
+        assertThat(authorities.get(0)).isSameAs(AuthorityRegistry.of(AuthoritiesConstants.ADMIN));
+        assertThat(AuthorityRegistry.fromClaim(AuthoritiesConstants.ADMIN + ", " + AuthoritiesConstants.USER + ",")).isSameAs(authorities);
+    }
+
+    @Test
+    void testFromClaimWithUnknownAuthority() {
+        assertThat(AuthorityRegistry.fromClaim("ROLE_OTHER," + AuthoritiesConstants.USER))
+            .containsExactly(new SimpleGrantedAuthority("ROLE_OTHER"), AuthorityRegistry.of(AuthoritiesConstants.USER));
+        assertThat(AuthorityRegistry.fromClaim("")).isEmpty();
+    }
+
+    @Test
+    void testMaskRoundTrip() {
+        List<GrantedAuthority> authorities = List.of(
+            AuthorityRegistry.of(AuthoritiesConstants.USER),
+            new SimpleGrantedAuthority(AuthoritiesConstants.ADMIN)
+        );
+
+        OptionalInt mask = AuthorityRegistry.toMask(authorities);
+
+        assertThat(mask).isPresent();
+        assertThat(AuthorityRegistry.fromMask(mask.getAsInt()))
+            .containsExactlyInAnyOrderElementsOf(authorities)
+            .isSameAs(AuthorityRegistry.fromMask(mask.getAsInt()));
+        assertThat(AuthorityRegistry.toMask(List.of())).hasValue(0);
+        assertThat(AuthorityRegistry.fromMask(0)).isEmpty();
+    }
+
+    @Test
+    void testNoMaskWithUnknownAuthority() {
+        assertThat(AuthorityRegistry.toMask(List.of(new SimpleGrantedAuthority("ROLE_OTHER")))).isEmpty();
+    }
+}
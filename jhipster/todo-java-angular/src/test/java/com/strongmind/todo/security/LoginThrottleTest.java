@@ -0,0 +1,120 @@
+package com.strongmind.todo.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.strongmind.todo.config.ApplicationProperties;
+import com.strongmind.todo.management.SecurityMetersService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+/**
+ * Test class for the {@link LoginThrottle}.
+ */
+class LoginThrottleTest {
+
+    private static final String THROTTLED_LOGINS_METER_EXPECTED_NAME = "security.authentication.throttled-logins";
+
+    private final Authentication authentication = new UsernamePasswordAuthenticationToken("user", "", Collections.emptyList());
+
+    private MeterRegistry meterRegistry;
+
+    private ThreadPoolTaskExecutor executor;
+
+    private LoginThrottle loginThrottle;
+
+    @BeforeEach
+    public void setup() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        ApplicationProperties.Security.Login login = applicationProperties.getSecurity().getLogin();
+        login.setIpBurst(3);
+        login.setLoginFailuresBurst(2);
+
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.initialize();
+
+        meterRegistry = new SimpleMeterRegistry();
+        loginThrottle = new LoginThrottle(applicationProperties, executor, new SecurityMetersService(meterRegistry));
+    }
+
+    @AfterEach
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void testAttemptsAreThrottledByIp() {
+        for (int i = 0; i < 3; i++) {
+            assertThat(loginThrottle.authenticate("10.0.0.1", "user-" + i, () -> authentication).join()).isSameAs(authentication);
+        }
+
+        assertThatThrownBy(() -> loginThrottle.authenticate("10.0.0.1", "user", () -> authentication))
+            .isInstanceOf(TooManyAuthenticationAttemptsException.class)
+            .extracting("retryAfterSeconds")
+            .isEqualTo(1L);
+        assertThat(loginThrottle.authenticate("10.0.0.2", "user", () -> authentication).join()).isSameAs(authentication);
+        assertThat(meterRegistry.get(THROTTLED_LOGINS_METER_EXPECTED_NAME).tag("cause", "ip").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testOnlyFailuresAreThrottledByLogin() {
+        assertThatThrownBy(() -> loginThrottle.authenticate("10.0.0.1", "User", this::badCredentials).join())
+            .hasCauseInstanceOf(BadCredentialsException.class);
+        assertThatThrownBy(() -> loginThrottle.authenticate("10.0.0.2", "user", this::badCredentials).join())
+            .hasCauseInstanceOf(BadCredentialsException.class);
+
+        assertThatThrownBy(() -> loginThrottle.authenticate("10.0.0.3", "user", () -> authentication))
+            .isInstanceOf(TooManyAuthenticationAttemptsException.class);
+        assertThat(loginThrottle.authenticate("10.0.0.3", "other", () -> authentication).join()).isSameAs(authentication);
+        assertThat(meterRegistry.get(THROTTLED_LOGINS_METER_EXPECTED_NAME).tag("cause", "login").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testAttemptsAreRejectedWhenHashingIsBusy() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Authentication> busy = loginThrottle.authenticate(
+            "10.0.0.1",
+            "busy",
+            () -> {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return authentication;
+            }
+        );
+        started.await();
+        // The caller is not blocked by the password check
+        assertThat(busy).isNotDone();
+        // Fill the queue behind the busy thread
+        executor.execute(() -> {});
+
+        assertThatThrownBy(() -> loginThrottle.authenticate("10.0.0.2", "user", () -> authentication))
+            .isInstanceOf(TooManyAuthenticationAttemptsException.class);
+        assertThat(meterRegistry.get(THROTTLED_LOGINS_METER_EXPECTED_NAME).tag("cause", "busy-hashing").counter().count()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(busy.get(10, TimeUnit.SECONDS)).isSameAs(authentication);
+    }
+
+    private Authentication badCredentials() {
+        throw new BadCredentialsException("Bad credentials");
+    }
+}
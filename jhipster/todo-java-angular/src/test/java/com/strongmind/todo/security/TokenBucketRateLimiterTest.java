@@ -0,0 +1,84 @@
+package com.strongmind.todo.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the {@link TokenBucketRateLimiter}.
+ */
+class TokenBucketRateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong(42);
+
+    @Test
+    void testBurstThenRate() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(3, 60, 100, now::get);
+
+        assertThat(limiter.tryAcquire("key")).isZero();
+        assertThat(limiter.tryAcquire("key")).isZero();
+        assertThat(limiter.tryAcquire("key")).isZero();
+        assertThat(limiter.tryAcquire("key")).isEqualTo(TimeUnit.SECONDS.toNanos(1));
+        assertThat(limiter.tryAcquire("other")).isZero();
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertThat(limiter.tryAcquire("key")).isZero();
+        assertThat(limiter.tryAcquire("key")).isPositive();
+    }
+
+    @Test
+    void testAvailableInDoesNotTakeToken() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 60, 100, now::get);
+
+        assertThat(limiter.availableIn("key")).isZero();
+        assertThat(limiter.availableIn("key")).isZero();
+        assertThat(limiter.tryAcquire("key")).isZero();
+        assertThat(limiter.availableIn("key")).isEqualTo(TimeUnit.SECONDS.toNanos(1));
+    }
+
+    @Test
+    void testBucketsAreRefilled() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(2, 60, 100, now::get);
+        limiter.tryAcquire("key");
+        limiter.tryAcquire("key");
+
+        now.addAndGet(TimeUnit.MINUTES.toNanos(1));
+
+        assertThat(limiter.tryAcquire("key")).isZero();
+        assertThat(limiter.tryAcquire("key")).isZero();
+        assertThat(limiter.tryAcquire("key")).isPositive();
+    }
+
+    @Test
+    void testKeysAreBounded() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 60, 10, now::get);
+        for (int i = 0; i < 100; i++) {
+            assertThat(limiter.tryAcquire("key-" + i)).isZero();
+            assertThat(limiter.size()).isLessThanOrEqualTo(10);
+            now.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        }
+    }
+
+    @Test
+    void testFloodOfKeysDoesNotResetThrottledKey() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 60, 10, now::get);
+        limiter.tryAcquire("victim");
+        assertThat(limiter.tryAcquire("victim")).isPositive();
+
+        for (int i = 0; i < 1000; i++) {
+            limiter.tryAcquire(UUID.randomUUID().toString());
+            assertThat(limiter.size()).isLessThanOrEqualTo(10);
+        }
+
+        assertThat(limiter.availableIn("victim")).isPositive();
+        assertThat(limiter.tryAcquire("victim")).isPositive();
+        assertThat(limiter.tryAcquire(UUID.randomUUID().toString())).isPositive();
+        assertThat(limiter.availableIn(UUID.randomUUID().toString())).isPositive();
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertThat(limiter.tryAcquire(UUID.randomUUID().toString())).isZero();
+    }
+}
@@ -0,0 +1,93 @@
+package com.strongmind.todo.security.jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.strongmind.todo.config.ApplicationProperties;
+import com.strongmind.todo.management.SecurityMetersService;
+import com.strongmind.todo.security.AuthoritiesConstants;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Cost per request of {@link JWTFilter}, with the cache of verified tokens disabled (one verification per request)
+ * and enabled (one verification per token).
+ * <p>
+ * Each request bears one of {@value #TOKENS} tokens, as if that many users were active. Run it with {@code -Dbenchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class JWTFilterBenchmarkIT {
+
+    private static final String BASE64_SECRET =
+        "fd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8";
+
+    private static final int TOKENS = 100;
+
+    private static final int REQUESTS = 200_000;
+
+    private static final int ITERATIONS = 10;
+
+    private final Logger log = LoggerFactory.getLogger(JWTFilterBenchmarkIT.class);
+
+    @Test
+    void compareUncachedAndCachedFilter() throws Exception {
+        long uncachedNanos = measure(0);
+        long cachedNanos = measure(10_000);
+
+        log.info("JWTFilter without token cache: median {} ns per request", uncachedNanos);
+        log.info("JWTFilter with token cache: median {} ns per request", cachedNanos);
+    }
+
+    private static long measure(int tokenCacheMaxSize) throws Exception {
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getSecurity().getAuthentication().getJwt().setBase64Secret(BASE64_SECRET);
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getSecurity().setTokenCacheMaxSize(tokenCacheMaxSize);
+        TokenProvider tokenProvider = new TokenProvider(
+            jHipsterProperties,
+            applicationProperties,
+            new SecurityMetersService(new SimpleMeterRegistry())
+        );
+        JWTFilter jwtFilter = new JWTFilter(tokenProvider);
+
+        MockHttpServletRequest[] requests = new MockHttpServletRequest[TOKENS];
+        for (int i = 0; i < TOKENS; i++) {
+            String jwt = tokenProvider.createToken(
+                new UsernamePasswordAuthenticationToken(
+                    "user-" + i,
+                    "",
+                    Collections.singletonList(new SimpleGrantedAuthority(AuthoritiesConstants.USER))
+                ),
+                false
+            );
+            requests[i] = new MockHttpServletRequest();
+            requests[i].addHeader(JWTFilter.AUTHORIZATION_HEADER, "Bearer " + jwt);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        long[] nanos = new long[ITERATIONS];
+        // The first iteration warms up the filter and is overwritten
+        for (int i = -1; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            for (int j = 0; j < REQUESTS; j++) {
+                jwtFilter.doFilter(requests[j % TOKENS], response, new MockFilterChain());
+            }
+            nanos[Math.max(i, 0)] = (System.nanoTime() - start) / REQUESTS;
+            assertThat(SecurityContextHolder.getContext().getAuthentication()).isNotNull();
+            SecurityContextHolder.clearContext();
+        }
+        Arrays.sort(nanos);
+        return nanos[ITERATIONS / 2];
+    }
+}
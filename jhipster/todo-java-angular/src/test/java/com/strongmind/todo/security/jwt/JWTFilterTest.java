@@ -2,10 +2,12 @@ package com.strongmind.todo.security.jwt;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import com.strongmind.todo.config.ApplicationProperties;
 import com.strongmind.todo.management.SecurityMetersService;
 import com.strongmind.todo.security.AuthoritiesConstants;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.util.Collections;
 import org.junit.jupiter.api.BeforeEach;
@@ -15,6 +17,7 @@ import org.springframework.mock.web.MockFilterChain;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.test.util.ReflectionTestUtils;
@@ -22,6 +25,10 @@ import tech.jhipster.config.JHipsterProperties;
 
 class JWTFilterTest {
 
+    private static final String TOKEN_CACHE_METER_EXPECTED_NAME = "security.authentication.token-cache";
+
+    private MeterRegistry meterRegistry;
+
     private TokenProvider tokenProvider;
 
     private JWTFilter jwtFilter;
@@ -32,9 +39,10 @@ class JWTFilterTest {
         String base64Secret = "fd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8";
         jHipsterProperties.getSecurity().getAuthentication().getJwt().setBase64Secret(base64Secret);
 
-        SecurityMetersService securityMetersService = new SecurityMetersService(new SimpleMeterRegistry());
+        meterRegistry = new SimpleMeterRegistry();
+        SecurityMetersService securityMetersService = new SecurityMetersService(meterRegistry);
 
-        tokenProvider = new TokenProvider(jHipsterProperties, securityMetersService);
+        tokenProvider = new TokenProvider(jHipsterProperties, new ApplicationProperties(), securityMetersService);
         ReflectionTestUtils.setField(tokenProvider, "key", Keys.hmacShaKeyFor(Decoders.BASE64.decode(base64Secret)));
 
         ReflectionTestUtils.setField(tokenProvider, "tokenValidityInMilliseconds", 60000);
@@ -61,6 +69,32 @@ class JWTFilterTest {
         assertThat(SecurityContextHolder.getContext().getAuthentication().getCredentials()).hasToString(jwt);
     }
 
+    @Test
+    void testJWTFilterReusesVerifiedToken() throws Exception {
+        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+            "test-user",
+            "test-password",
+            Collections.singletonList(new SimpleGrantedAuthority(AuthoritiesConstants.USER))
+        );
+        String jwt = tokenProvider.createToken(authentication, false);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(JWTFilter.AUTHORIZATION_HEADER, "Bearer " + jwt);
+        request.setRequestURI("/api/test");
+        jwtFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        Authentication firstAuthentication = SecurityContextHolder.getContext().getAuthentication();
+
+        SecurityContextHolder.getContext().setAuthentication(null);
+        jwtFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        // A fresh authentication around the principal verified once
+        Authentication secondAuthentication = SecurityContextHolder.getContext().getAuthentication();
+        assertThat(secondAuthentication).isNotSameAs(firstAuthentication);
+        assertThat(secondAuthentication.getPrincipal()).isSameAs(firstAuthentication.getPrincipal());
+        assertThat(secondAuthentication.getAuthorities()).isEqualTo(firstAuthentication.getAuthorities());
+        assertThat(meterRegistry.get(TOKEN_CACHE_METER_EXPECTED_NAME).tag("result", "miss").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(TOKEN_CACHE_METER_EXPECTED_NAME).tag("result", "hit").counter().count()).isEqualTo(1);
+    }
+
     @Test
     void testJWTFilterInvalidToken() throws Exception {
         String jwt = "wrong_jwt";
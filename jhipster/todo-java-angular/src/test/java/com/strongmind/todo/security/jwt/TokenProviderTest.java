@@ -2,8 +2,12 @@ package com.strongmind.todo.security.jwt;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import com.strongmind.todo.config.ApplicationProperties;
 import com.strongmind.todo.management.SecurityMetersService;
 import com.strongmind.todo.security.AuthoritiesConstants;
+import com.strongmind.todo.security.AuthorityRegistry;
+import com.strongmind.todo.security.DomainUser;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
@@ -36,7 +40,7 @@ class TokenProviderTest {
 
         SecurityMetersService securityMetersService = new SecurityMetersService(new SimpleMeterRegistry());
 
-        tokenProvider = new TokenProvider(jHipsterProperties, securityMetersService);
+        tokenProvider = new TokenProvider(jHipsterProperties, new ApplicationProperties(), securityMetersService);
         key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(base64Secret));
 
         ReflectionTestUtils.setField(tokenProvider, "key", key);
@@ -88,6 +92,80 @@ class TokenProviderTest {
         assertThat(isTokenValid).isFalse();
     }
 
+    @Test
+    void testUserIdIsKeptInToken() {
+        List<GrantedAuthority> authorities = List.of(new SimpleGrantedAuthority(AuthoritiesConstants.USER));
+        DomainUser user = new DomainUser(42L, "user", "", authorities);
+        String token = tokenProvider.createToken(new UsernamePasswordAuthenticationToken(user, "", authorities), false);
+
+        Authentication authentication = tokenProvider.getAuthentication(token);
+
+        assertThat(authentication.getPrincipal()).isInstanceOf(DomainUser.class);
+        assertThat(((DomainUser) authentication.getPrincipal()).getId()).isEqualTo(42L);
+        assertThat(authentication.getName()).isEqualTo("user");
+    }
+
+    @Test
+    void testUserIdIsNullInTokenWithoutIt() {
+        String token = tokenProvider.createToken(createAuthentication(), false);
+
+        Authentication authentication = tokenProvider.getAuthentication(token);
+
+        assertThat(((DomainUser) authentication.getPrincipal()).getId()).isNull();
+    }
+
+    @Test
+    void testKnownAuthoritiesAreWrittenAsBitmask() {
+        List<GrantedAuthority> authorities = List.of(
+            new SimpleGrantedAuthority(AuthoritiesConstants.ADMIN),
+            new SimpleGrantedAuthority(AuthoritiesConstants.USER)
+        );
+        String token = tokenProvider.createToken(new UsernamePasswordAuthenticationToken("admin", "", authorities), false);
+
+        Claims claims = Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+        Authentication authentication = tokenProvider.getAuthentication(token);
+
+        assertThat(claims).doesNotContainKey("auth").containsKey("am");
+        assertThat(authentication.getAuthorities())
+            .extracting(GrantedAuthority::getAuthority)
+            .containsExactlyInAnyOrder(AuthoritiesConstants.ADMIN, AuthoritiesConstants.USER);
+        assertThat(authentication.getAuthorities()).allMatch(authority -> authority == AuthorityRegistry.of(authority.getAuthority()));
+    }
+
+    @Test
+    void testUnknownAuthoritiesAreWrittenAsNames() {
+        List<GrantedAuthority> authorities = List.of(
+            new SimpleGrantedAuthority("ROLE_OTHER"),
+            new SimpleGrantedAuthority(AuthoritiesConstants.USER)
+        );
+        String token = tokenProvider.createToken(new UsernamePasswordAuthenticationToken("user", "", authorities), false);
+
+        Claims claims = Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+
+        assertThat(claims).containsEntry("auth", "ROLE_OTHER," + AuthoritiesConstants.USER).doesNotContainKey("am");
+        assertThat(tokenProvider.getAuthentication(token).getAuthorities())
+            .extracting(GrantedAuthority::getAuthority)
+            .containsExactlyInAnyOrder("ROLE_OTHER", AuthoritiesConstants.USER);
+    }
+
+    @Test
+    void testTokenWithAuthorityNamesIsStillAccepted() {
+        String token = Jwts
+            .builder()
+            .setSubject("user")
+            .claim("auth", AuthoritiesConstants.ADMIN + "," + AuthoritiesConstants.USER)
+            .signWith(key, SignatureAlgorithm.HS512)
+            .setExpiration(new Date(new Date().getTime() + ONE_MINUTE))
+            .compact();
+
+        Authentication authentication = tokenProvider.getAuthentication(token);
+
+        assertThat(authentication.getAuthorities())
+            .extracting(GrantedAuthority::getAuthority)
+            .containsExactly(AuthoritiesConstants.ADMIN, AuthoritiesConstants.USER);
+        assertThat(authentication.getAuthorities()).allMatch(authority -> authority == AuthorityRegistry.of(authority.getAuthority()));
+    }
+
     @Test
     void testKeyIsSetFromSecretWhenSecretIsNotEmpty() {
         final String secret = "NwskoUmKHZtzGRKJKVjsJF7BtQMMxNWi";
@@ -96,7 +174,7 @@ class TokenProviderTest {
 
         SecurityMetersService securityMetersService = new SecurityMetersService(new SimpleMeterRegistry());
 
-        TokenProvider tokenProvider = new TokenProvider(jHipsterProperties, securityMetersService);
+        TokenProvider tokenProvider = new TokenProvider(jHipsterProperties, new ApplicationProperties(), securityMetersService);
 
         Key key = (Key) ReflectionTestUtils.getField(tokenProvider, "key");
         assertThat(key).isNotNull().isEqualTo(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)));
@@ -110,7 +188,7 @@ class TokenProviderTest {
 
         SecurityMetersService securityMetersService = new SecurityMetersService(new SimpleMeterRegistry());
 
-        TokenProvider tokenProvider = new TokenProvider(jHipsterProperties, securityMetersService);
+        TokenProvider tokenProvider = new TokenProvider(jHipsterProperties, new ApplicationProperties(), securityMetersService);
 
         Key key = (Key) ReflectionTestUtils.getField(tokenProvider, "key");
         assertThat(key).isNotNull().isEqualTo(Keys.hmacShaKeyFor(Decoders.BASE64.decode(base64Secret)));
@@ -0,0 +1,76 @@
+package com.strongmind.todo.security.jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.strongmind.todo.security.DomainUser;
+import java.nio.ByteBuffer;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import org.junit.jupiter.api.Test;
+
+class VerifiedTokenCacheTest {
+
+    private static final long NOW = 1_000_000;
+
+    private final Clock clock = Clock.fixed(Instant.ofEpochMilli(NOW), ZoneOffset.UTC);
+
+    @Test
+    void testDigestDependsOnTheWholeToken() {
+        assertThat(VerifiedTokenCache.digest("header.payload.signature")).isEqualTo(VerifiedTokenCache.digest("header.payload.signature"));
+        assertThat(VerifiedTokenCache.digest("header.payload.signature")).isNotEqualTo(VerifiedTokenCache.digest("header.other.signature"));
+    }
+
+    @Test
+    void testReturnsPrincipalUntilExpiration() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10, clock);
+        ByteBuffer valid = VerifiedTokenCache.digest("valid");
+        ByteBuffer expired = VerifiedTokenCache.digest("expired");
+        DomainUser principal = principal("user");
+
+        cache.put(valid, principal, NOW + 1);
+        cache.put(expired, principal, NOW);
+
+        assertThat(cache.get(valid)).isSameAs(principal);
+        assertThat(cache.get(expired)).isNull();
+        assertThat(cache.get(VerifiedTokenCache.digest("unknown"))).isNull();
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    void testStaysWithinMaxSize() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10, clock);
+        for (int i = 0; i < 100; i++) {
+            cache.put(VerifiedTokenCache.digest("token-" + i), principal("user-" + i), NOW + 60000);
+            assertThat(cache.size()).isLessThanOrEqualTo(10);
+        }
+        assertThat(cache.get(VerifiedTokenCache.digest("token-99"))).isNotNull();
+    }
+
+    @Test
+    void testEvictsExpiredEntriesFirst() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10, clock);
+        cache.put(VerifiedTokenCache.digest("valid"), principal("valid"), NOW + 60000);
+        for (int i = 0; i < 9; i++) {
+            cache.put(VerifiedTokenCache.digest("expired-" + i), principal("expired-" + i), NOW);
+        }
+
+        cache.put(VerifiedTokenCache.digest("new"), principal("new"), NOW + 60000);
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get(VerifiedTokenCache.digest("valid"))).isNotNull();
+    }
+
+    @Test
+    void testIsDisabledWithZeroMaxSize() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(0, clock);
+        cache.put(VerifiedTokenCache.digest("token"), principal("user"), NOW + 60000);
+
+        assertThat(cache.get(VerifiedTokenCache.digest("token"))).isNull();
+    }
+
+    private static DomainUser principal(String login) {
+        return new DomainUser(null, login, "", Collections.emptyList());
+    }
+}
@@ -0,0 +1,211 @@
+package com.strongmind.todo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.strongmind.todo.TodoApp;
+import com.strongmind.todo.domain.Authority;
+import com.strongmind.todo.domain.ToDoItem;
+import com.strongmind.todo.domain.User;
+import com.strongmind.todo.domain.enumeration.ItemStatus;
+import com.strongmind.todo.repository.AuthorityRepository;
+import com.strongmind.todo.repository.ToDoItemRepository;
+import com.strongmind.todo.repository.UserRepository;
+import com.strongmind.todo.security.AuthoritiesConstants;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import javax.cache.Caching;
+import javax.persistence.EntityManagerFactory;
+import org.ehcache.core.config.DefaultConfiguration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.JCacheManagerCustomizer;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for {@link CacheInvalidationService} between two nodes of the application, each with its own
+ * second level cache and invalidation port, sharing one database: a change committed on a node evicts the entities
+ * and collections cached by the other one.
+ */
+class CacheInvalidationClusterIT {
+
+    private static final String HOST = InetAddress.getLoopbackAddress().getHostAddress();
+
+    private static final Logger log = LoggerFactory.getLogger(CacheInvalidationClusterIT.class);
+
+    private static ConfigurableApplicationContext node;
+
+    private static ConfigurableApplicationContext otherNode;
+
+    @BeforeAll
+    static void startNodes() {
+        int[] ports = freePorts();
+        String peers = HOST + ":" + ports[0] + "," + HOST + ":" + ports[1];
+        node = startNode(ports[0], peers);
+        otherNode = startNode(ports[1], peers);
+        assertThat(node.getBean(javax.cache.CacheManager.class)).isNotSameAs(otherNode.getBean(javax.cache.CacheManager.class));
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        if (otherNode != null) {
+            otherNode.close();
+        }
+        if (node != null) {
+            node.close();
+        }
+    }
+
+    @Test
+    void testToDoItemUpdateEvictsOtherNode() throws Exception {
+        Long id = inTransaction(node, context -> context.getBean(ToDoItemRepository.class).save(toDoItem()).getId());
+        try {
+            inTransaction(otherNode, context -> context.getBean(ToDoItemRepository.class).findById(id));
+            assertThat(secondLevelCache(otherNode).containsEntity(ToDoItem.class, id)).isTrue();
+
+            inTransaction(node, context -> context.getBean(ToDoItemRepository.class).findById(id).get().description("changed"));
+            long committed = System.nanoTime();
+
+            awaitEviction(() -> secondLevelCache(otherNode).containsEntity(ToDoItem.class, id));
+            log.info(
+                "ToDoItem evicted from the other node {} ms after the commit",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - committed)
+            );
+            String description = inTransaction(
+                otherNode,
+                context -> context.getBean(ToDoItemRepository.class).findById(id).get().getDescription()
+            );
+            assertThat(description).isEqualTo("changed");
+        } finally {
+            inTransaction(node, context -> {
+                context.getBean(ToDoItemRepository.class).deleteById(id);
+                return null;
+            });
+        }
+    }
+
+    @Test
+    void testAuthoritiesChangeEvictsOtherNode() throws Exception {
+        Long id = inTransaction(node, context -> context.getBean(UserRepository.class).findOneByLogin("user").get().getId());
+        String role = User.class.getName() + ".authorities";
+        inTransaction(otherNode, context -> loadAuthorities(context, id));
+        assertThat(secondLevelCache(otherNode).containsCollection(role, id)).isTrue();
+
+        inTransaction(node, context -> changeAuthorities(context, id, true));
+        try {
+            long committed = System.nanoTime();
+
+            awaitEviction(() -> secondLevelCache(otherNode).containsCollection(role, id));
+            log.info(
+                "User authorities evicted from the other node {} ms after the commit",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - committed)
+            );
+            Set<Authority> authorities = inTransaction(otherNode, context -> loadAuthorities(context, id));
+            assertThat(authorities).hasSize(2);
+        } finally {
+            inTransaction(node, context -> changeAuthorities(context, id, false));
+        }
+    }
+
+    private static ToDoItem toDoItem() {
+        return new ToDoItem().description("cluster").status(ItemStatus.ToDo);
+    }
+
+    private static Set<Authority> loadAuthorities(ConfigurableApplicationContext context, Long id) {
+        User user = context.getBean(UserRepository.class).findById(id).get();
+        Hibernate.initialize(user.getAuthorities());
+        return user.getAuthorities();
+    }
+
+    private static Void changeAuthorities(ConfigurableApplicationContext context, Long id, boolean add) {
+        User user = context.getBean(UserRepository.class).findById(id).get();
+        Authority admin = context.getBean(AuthorityRepository.class).findById(AuthoritiesConstants.ADMIN).get();
+        if (add) {
+            user.getAuthorities().add(admin);
+        } else {
+            user.getAuthorities().remove(admin);
+        }
+        return null;
+    }
+
+    private static <T> T inTransaction(ConfigurableApplicationContext context, Function<ConfigurableApplicationContext, T> action) {
+        return new TransactionTemplate(context.getBean(PlatformTransactionManager.class)).execute(status -> action.apply(context));
+    }
+
+    private static org.hibernate.Cache secondLevelCache(ConfigurableApplicationContext context) {
+        return context.getBean(EntityManagerFactory.class).getCache().unwrap(org.hibernate.Cache.class);
+    }
+
+    private static void awaitEviction(BooleanSupplier cached) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (cached.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertThat(cached.getAsBoolean()).isFalse();
+    }
+
+    private static ConfigurableApplicationContext startNode(int port, String peers) {
+        return new SpringApplicationBuilder(TodoApp.class, NodeCacheConfiguration.class)
+            .run(
+                "--server.port=0",
+                // Both nodes share a database of their own, and evict the caches of each other
+                "--spring.datasource.url=jdbc:h2:mem:todo-cluster;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                "--spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+                "--application.cache.invalidation.enabled=true",
+                "--application.cache.invalidation.bind-address=" + HOST,
+                "--application.cache.invalidation.port=" + port,
+                "--application.cache.invalidation.peers=" + peers
+            );
+    }
+
+    private static int[] freePorts() {
+        try (
+            ServerSocket first = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+            ServerSocket second = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())
+        ) {
+            return new int[] { first.getLocalPort(), second.getLocalPort() };
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * The cache manager of a node, of its own rather than the one of the JVM, named after its invalidation port.
+     */
+    @TestConfiguration
+    static class NodeCacheConfiguration {
+
+        @Bean
+        public javax.cache.CacheManager jCacheCacheManager(
+            ObjectProvider<JCacheManagerCustomizer> cacheManagerCustomizers,
+            @Value("${application.cache.invalidation.port}") int port
+        ) {
+            EhcacheCachingProvider cachingProvider = (EhcacheCachingProvider) Caching.getCachingProvider(
+                EhcacheCachingProvider.class.getName()
+            );
+            javax.cache.CacheManager cacheManager = cachingProvider.getCacheManager(
+                URI.create("urn:todo-node-" + port),
+                new DefaultConfiguration(cachingProvider.getDefaultClassLoader())
+            );
+            cacheManagerCustomizers.orderedStream().forEach(customizer -> customizer.customize(cacheManager));
+            return cacheManager;
+        }
+    }
+}
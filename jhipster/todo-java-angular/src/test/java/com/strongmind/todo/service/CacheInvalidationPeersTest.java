@@ -0,0 +1,118 @@
+package com.strongmind.todo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link CacheInvalidationPeers}, with several nodes on the loopback interface.
+ */
+class CacheInvalidationPeersTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final Map<Integer, BlockingQueue<CacheInvalidation>> received = new ConcurrentHashMap<>();
+
+    private final List<CacheInvalidationPeers> nodes = new ArrayList<>();
+
+    @AfterEach
+    void shutdown() {
+        nodes.forEach(CacheInvalidationPeers::close);
+    }
+
+    @Test
+    void testInvalidationReachesEveryOtherNode() throws Exception {
+        List<Integer> ports = freePorts(3);
+        for (int port : ports) {
+            start(port, ports);
+        }
+        CacheInvalidation invalidation = CacheInvalidation.of(CacheInvalidation.Kind.ENTITY, "com.strongmind.todo.domain.User", List.of(1L, 2L));
+
+        nodes.get(0).publish(invalidation);
+
+        assertThat(received.get(ports.get(1)).poll(10, TimeUnit.SECONDS)).isEqualTo(invalidation);
+        assertThat(received.get(ports.get(2)).poll(10, TimeUnit.SECONDS)).isEqualTo(invalidation);
+        assertThat(received.get(ports.get(0)).poll(200, TimeUnit.MILLISECONDS)).isNull();
+        assertThat(meterRegistry.get("cache.invalidations.latency").timer().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("cache.invalidations.latency").timer().max(TimeUnit.MILLISECONDS)).isLessThan(1000);
+    }
+
+    @Test
+    void testUnreachableNodeClearsRegionsWhenBack() throws Exception {
+        List<Integer> ports = freePorts(2);
+        start(ports.get(0), ports);
+
+        nodes.get(0).publish(CacheInvalidation.of(CacheInvalidation.Kind.CACHE, "usersByLogin", List.of("user")));
+        while (meterRegistry.get("cache.invalidations").tag("result", "dropped").counter().count() < 1) {
+            Thread.sleep(10);
+        }
+        start(ports.get(1), ports);
+
+        assertThat(received.get(ports.get(1)).poll(10, TimeUnit.SECONDS))
+            .isEqualTo(CacheInvalidation.clear(CacheInvalidation.Kind.CACHE, "usersByLogin"));
+    }
+
+    @Test
+    void testKeysOtherThanStringsAndNumbersClearTheRegion() {
+        CacheInvalidation invalidation = CacheInvalidation.of(CacheInvalidation.Kind.CACHE, "cache", List.of(new Object()));
+
+        assertThat(invalidation.isClear()).isTrue();
+    }
+
+    @Test
+    void testInvalidationIsReadAsWritten() throws IOException {
+        CacheInvalidation invalidation = CacheInvalidation.of(CacheInvalidation.Kind.COLLECTION, "role", List.of("login", 42L, 7));
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        invalidation.write(new DataOutputStream(bytes));
+
+        assertThat(CacheInvalidation.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())))).isEqualTo(invalidation);
+    }
+
+    private void start(int port, List<Integer> ports) throws IOException {
+        BlockingQueue<CacheInvalidation> invalidations = new LinkedBlockingQueue<>();
+        received.put(port, invalidations);
+        CacheInvalidationPeers node = new CacheInvalidationPeers(
+            InetAddress.getLoopbackAddress().getHostAddress(),
+            port,
+            ports.stream().map(peerPort -> InetAddress.getLoopbackAddress().getHostAddress() + ":" + peerPort).collect(Collectors.toList()),
+            100,
+            1000,
+            invalidations::add,
+            meterRegistry
+        );
+        nodes.add(node);
+        node.start();
+    }
+
+    private static List<Integer> freePorts(int count) throws IOException {
+        List<ServerSocket> sockets = new ArrayList<>();
+        try {
+            for (int i = 0; i < count; i++) {
+                sockets.add(new ServerSocket(0, 1, InetAddress.getLoopbackAddress()));
+            }
+            return sockets.stream().map(ServerSocket::getLocalPort).collect(Collectors.toList());
+        } finally {
+            for (ServerSocket socket : sockets) {
+                socket.close();
+            }
+        }
+    }
+}
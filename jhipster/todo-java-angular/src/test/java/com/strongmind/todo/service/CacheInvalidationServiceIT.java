@@ -0,0 +1,152 @@
+package com.strongmind.todo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.strongmind.todo.IntegrationTest;
+import com.strongmind.todo.repository.UserRepository;
+import com.strongmind.todo.service.dto.AdminUserDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for {@link CacheInvalidationService}, exchanging invalidations with another node listening on the
+ * loopback interface.
+ */
+@IntegrationTest
+class CacheInvalidationServiceIT {
+
+    private static final String HOST = InetAddress.getLoopbackAddress().getHostAddress();
+
+    private static final int[] PORTS = freePorts();
+
+    private static final BlockingQueue<CacheInvalidation> received = new LinkedBlockingQueue<>();
+
+    private static final CacheInvalidationPeers otherNode = startOtherNode();
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private CacheInvalidationService cacheInvalidationService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @DynamicPropertySource
+    static void invalidationProperties(DynamicPropertyRegistry registry) {
+        registry.add("application.cache.invalidation.enabled", () -> "true");
+        registry.add("application.cache.invalidation.bind-address", () -> HOST);
+        registry.add("application.cache.invalidation.port", () -> PORTS[0]);
+        registry.add("application.cache.invalidation.peers", () -> HOST + ":" + PORTS[0] + "," + HOST + ":" + PORTS[1]);
+    }
+
+    @AfterAll
+    static void stopOtherNode() {
+        otherNode.close();
+    }
+
+    @BeforeEach
+    public void setup() {
+        received.clear();
+    }
+
+    @Test
+    void testUserChangeEvictsOtherNodeAfterCommit() throws Exception {
+        AdminUserDTO user = new AdminUserDTO();
+        user.setLogin("invalidation");
+        user.setEmail("invalidation@localhost");
+
+        userService.createUser(user);
+        try {
+            CacheInvalidation expected = CacheInvalidation.of(CacheInvalidation.Kind.CACHE, UserRepository.USERS_BY_LOGIN_CACHE, List.of("invalidation"));
+            CacheInvalidation invalidation;
+            do {
+                invalidation = received.poll(10, TimeUnit.SECONDS);
+            } while (invalidation != null && !invalidation.equals(expected));
+            assertThat(invalidation).isEqualTo(expected);
+        } finally {
+            userService.deleteUser("invalidation");
+        }
+    }
+
+    @Test
+    void testRolledBackEvictionIsNotSent() throws Exception {
+        new TransactionTemplate(transactionManager)
+            .executeWithoutResult(status -> {
+                cacheInvalidationService.evict(UserRepository.USERS_BY_LOGIN_CACHE, List.of("admin"));
+                status.setRollbackOnly();
+            });
+
+        assertThat(received.poll(500, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    @Test
+    void testOtherNodeInvalidationEvictsEntry() throws Exception {
+        userRepository.findOneWithAuthoritiesByLogin("admin");
+        assertThat(usersByLogin().get("admin")).isNotNull();
+
+        otherNode.publish(CacheInvalidation.of(CacheInvalidation.Kind.CACHE, UserRepository.USERS_BY_LOGIN_CACHE, List.of("admin")));
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (usersByLogin().get("admin") != null && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(usersByLogin().get("admin")).isNull();
+    }
+
+    private Cache usersByLogin() {
+        return Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE));
+    }
+
+    private static CacheInvalidationPeers startOtherNode() {
+        CacheInvalidationPeers node = new CacheInvalidationPeers(
+            HOST,
+            PORTS[1],
+            List.of(HOST + ":" + PORTS[0]),
+            100,
+            1000,
+            received::add,
+            new SimpleMeterRegistry()
+        );
+        try {
+            node.start();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return node;
+    }
+
+    private static int[] freePorts() {
+        try (
+            ServerSocket first = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+            ServerSocket second = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())
+        ) {
+            return new int[] { first.getLocalPort(), second.getLocalPort() };
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.strongmind.todo.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+/**
+ * Minimal SMTP server standing in for a real one in the tests: it accepts every message, except for the recipients
+ * it is told to reject, and records the recipients of the messages received and the number of sessions.
+ */
+class LocalSmtpServer implements AutoCloseable {
+
+    private final ServerSocket serverSocket;
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    private final AtomicInteger sessions = new AtomicInteger();
+
+    private final List<String> recipients = Collections.synchronizedList(new ArrayList<>());
+
+    private final Set<String> rejectedRecipients = ConcurrentHashMap.newKeySet();
+
+    LocalSmtpServer() throws IOException {
+        serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        executor.execute(this::accept);
+    }
+
+    /**
+     * Create a mail sender connecting to this server.
+     */
+    JavaMailSenderImpl mailSender() {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost(serverSocket.getInetAddress().getHostAddress());
+        mailSender.setPort(serverSocket.getLocalPort());
+        return mailSender;
+    }
+
+    /**
+     * Reject the messages to a recipient with a permanent error (550).
+     */
+    void reject(String recipient) {
+        rejectedRecipients.add(recipient.toLowerCase(Locale.ROOT));
+    }
+
+    int getSessions() {
+        return sessions.get();
+    }
+
+    List<String> getRecipients() {
+        synchronized (recipients) {
+            return new ArrayList<>(recipients);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        executor.shutdownNow();
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                executor.execute(() -> serve(socket));
+            } catch (IOException e) {
+                // Closed
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        sessions.incrementAndGet();
+        try (
+            socket;
+            BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            Writer writer = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII)
+        ) {
+            reply(writer, "220 localhost ESMTP");
+            List<String> messageRecipients = new ArrayList<>();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String command = line.toUpperCase(Locale.ROOT);
+                if (command.startsWith("EHLO") || command.startsWith("HELO")) {
+                    reply(writer, "250 localhost");
+                } else if (command.startsWith("MAIL FROM:")) {
+                    messageRecipients.clear();
+                    reply(writer, "250 OK");
+                } else if (command.startsWith("RCPT TO:")) {
+                    String recipient = line.substring("RCPT TO:".length()).trim().replaceAll("[<>]", "");
+                    if (rejectedRecipients.contains(recipient.toLowerCase(Locale.ROOT))) {
+                        reply(writer, "550 5.1.1 Mailbox unavailable");
+                    } else {
+                        messageRecipients.add(recipient);
+                        reply(writer, "250 OK");
+                    }
+                } else if (command.equals("DATA")) {
+                    reply(writer, "354 End data with <CR><LF>.<CR><LF>");
+                    while ((line = reader.readLine()) != null && !line.equals(".")) {
+                        // Skip the content
+                    }
+                    recipients.addAll(messageRecipients);
+                    reply(writer, "250 OK");
+                } else if (command.equals("QUIT")) {
+                    reply(writer, "221 Bye");
+                    return;
+                } else if (command.equals("RSET")) {
+                    messageRecipients.clear();
+                    reply(writer, "250 OK");
+                } else if (command.equals("NOOP")) {
+                    reply(writer, "250 OK");
+                } else {
+                    reply(writer, "502 Command not implemented");
+                }
+            }
+        } catch (IOException e) {
+            // Connection closed by the client
+        }
+    }
+
+    private static void reply(Writer writer, String reply) throws IOException {
+        writer.write(reply + "\r\n");
+        writer.flush();
+    }
+}
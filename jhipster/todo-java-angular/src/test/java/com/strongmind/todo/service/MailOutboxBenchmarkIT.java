@@ -0,0 +1,83 @@
+package com.strongmind.todo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.strongmind.todo.IntegrationTest;
+import com.strongmind.todo.config.ApplicationProperties;
+import com.strongmind.todo.repository.MailOutboxMessageRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Throughput of {@link MailOutboxDispatcher} for a bulk send, with one SMTP connection per email and with batches
+ * sharing one connection, against a {@link LocalSmtpServer}.
+ * <p>
+ * The time includes claiming and deleting the messages of the outbox. Run it with {@code -Dbenchmark=true}.
+ */
+@IntegrationTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@Timeout(value = 5, unit = TimeUnit.MINUTES)
+class MailOutboxBenchmarkIT {
+
+    private static final int MESSAGES = 2000;
+
+    private final Logger log = LoggerFactory.getLogger(MailOutboxBenchmarkIT.class);
+
+    @Autowired
+    private MailOutboxService mailOutboxService;
+
+    @Autowired
+    private MailOutboxMessageRepository mailOutboxMessageRepository;
+
+    @Autowired
+    private JHipsterProperties jHipsterProperties;
+
+    @AfterEach
+    public void cleanup() {
+        mailOutboxMessageRepository.deleteAll();
+    }
+
+    @Test
+    void compareEmailsPerSecond() throws Exception {
+        // Warm up
+        measure(10);
+
+        long perMessage = measure(1);
+        long batched = measure(50);
+
+        log.info("Outbox with one SMTP connection per email: {} emails/s", perMessage);
+        log.info("Outbox with batches of 50 emails per SMTP connection: {} emails/s", batched);
+    }
+
+    private long measure(int batchSize) throws Exception {
+        String content = "<html>" + "x".repeat(2000) + "</html>";
+        for (int i = 0; i < MESSAGES; i++) {
+            mailOutboxService.enqueue("user-" + i + "@example.com", "subject", content);
+        }
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getMailOutbox().setBatchSize(batchSize);
+        try (LocalSmtpServer smtpServer = new LocalSmtpServer()) {
+            MailOutboxDispatcher dispatcher = new MailOutboxDispatcher(
+                mailOutboxService,
+                smtpServer.mailSender(),
+                jHipsterProperties,
+                applicationProperties,
+                new SimpleMeterRegistry()
+            );
+            long start = System.nanoTime();
+            dispatcher.dispatch();
+            long nanos = System.nanoTime() - start;
+
+            assertThat(smtpServer.getRecipients()).hasSize(MESSAGES);
+            return MESSAGES * TimeUnit.SECONDS.toNanos(1) / nanos;
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.strongmind.todo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.strongmind.todo.IntegrationTest;
+import com.strongmind.todo.config.ApplicationProperties;
+import com.strongmind.todo.domain.MailOutboxMessage;
+import com.strongmind.todo.repository.MailOutboxMessageRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Integration tests for {@link MailOutboxDispatcher}, against a {@link LocalSmtpServer}.
+ */
+@IntegrationTest
+class MailOutboxDispatcherIT {
+
+    @Autowired
+    private MailOutboxService mailOutboxService;
+
+    @Autowired
+    private MailOutboxMessageRepository mailOutboxMessageRepository;
+
+    @Autowired
+    private JHipsterProperties jHipsterProperties;
+
+    private final ApplicationProperties applicationProperties = new ApplicationProperties();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private LocalSmtpServer smtpServer;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        smtpServer = new LocalSmtpServer();
+        applicationProperties.getMailOutbox().setBatchSize(10);
+        applicationProperties.getMailOutbox().setMaxAttempts(2);
+    }
+
+    @AfterEach
+    public void cleanup() throws Exception {
+        smtpServer.close();
+        mailOutboxMessageRepository.deleteAll();
+    }
+
+    @Test
+    void testSendsBatchOverOneConnection() {
+        for (int i = 0; i < 3; i++) {
+            mailOutboxService.enqueue("user-" + i + "@example.com", "subject", "<html>content</html>");
+        }
+
+        assertThat(dispatcher(smtpServer.mailSender()).dispatchBatch()).isEqualTo(3);
+
+        assertThat(smtpServer.getRecipients()).containsExactlyInAnyOrder("user-0@example.com", "user-1@example.com", "user-2@example.com");
+        assertThat(smtpServer.getSessions()).isEqualTo(1);
+        assertThat(mailOutboxMessageRepository.count()).isZero();
+        assertThat(meterRegistry.get("mail.outbox.messages").tag("result", "sent").counter().count()).isEqualTo(3);
+    }
+
+    @Test
+    void testDrainsAllBatches() {
+        for (int i = 0; i < 25; i++) {
+            mailOutboxService.enqueue("user-" + i + "@example.com", "subject", "<html>content</html>");
+        }
+
+        dispatcher(smtpServer.mailSender()).dispatch();
+
+        assertThat(smtpServer.getRecipients()).hasSize(25);
+        assertThat(smtpServer.getSessions()).isEqualTo(3);
+        assertThat(mailOutboxMessageRepository.count()).isZero();
+    }
+
+    @Test
+    void testRetriesLaterWhenServerIsUnavailable() throws Exception {
+        MailOutboxMessage message = mailOutboxService.enqueue("user@example.com", "subject", "<html>content</html>");
+        JavaMailSenderImpl unavailable = new JavaMailSenderImpl();
+        unavailable.setHost(InetAddress.getLoopbackAddress().getHostAddress());
+        try (ServerSocket closed = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            unavailable.setPort(closed.getLocalPort());
+        }
+
+        dispatcher(unavailable).dispatchBatch();
+
+        MailOutboxMessage retried = mailOutboxMessageRepository.findById(message.getId()).orElseThrow();
+        assertThat(retried.getAttempts()).isEqualTo(1);
+        assertThat(retried.getLastError()).isNotEmpty();
+        assertThat(retried.getNextAttemptAt())
+            .isAfter(Instant.now().plusMillis(applicationProperties.getMailOutbox().getInitialBackoffMillis() / 2 - 1000))
+            .isBefore(Instant.now().plusMillis(applicationProperties.getMailOutbox().getInitialBackoffMillis() + 1000));
+        assertThat(dispatcher(smtpServer.mailSender()).dispatchBatch()).isZero();
+        assertThat(meterRegistry.get("mail.outbox.messages").tag("result", "retried").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testGivesUpAfterMaxAttempts() throws Exception {
+        MailOutboxMessage message = mailOutboxService.enqueue("user@example.com", "subject", "<html>content</html>");
+        message.setAttempts(applicationProperties.getMailOutbox().getMaxAttempts() - 1);
+        mailOutboxMessageRepository.save(message);
+        JavaMailSenderImpl unavailable = new JavaMailSenderImpl();
+        unavailable.setHost(InetAddress.getLoopbackAddress().getHostAddress());
+        try (ServerSocket closed = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            unavailable.setPort(closed.getLocalPort());
+        }
+
+        dispatcher(unavailable).dispatchBatch();
+
+        assertThat(mailOutboxMessageRepository.findById(message.getId()).orElseThrow().getNextAttemptAt()).isNull();
+        assertThat(mailOutboxService.countPending()).isZero();
+    }
+
+    @Test
+    void testGivesUpOnRejectedRecipientAndSendsTheOthers() {
+        smtpServer.reject("unknown@example.com");
+        MailOutboxMessage rejected = mailOutboxService.enqueue("unknown@example.com", "subject", "<html>content</html>");
+        mailOutboxService.enqueue("user@example.com", "subject", "<html>content</html>");
+
+        dispatcher(smtpServer.mailSender()).dispatchBatch();
+
+        assertThat(smtpServer.getRecipients()).containsExactly("user@example.com");
+        assertThat(mailOutboxMessageRepository.findAll()).singleElement().isEqualTo(rejected);
+        assertThat(mailOutboxMessageRepository.findById(rejected.getId()).orElseThrow().getNextAttemptAt()).isNull();
+        assertThat(meterRegistry.get("mail.outbox.messages").tag("result", "abandoned").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testDoesNotSendMessagesNotDue() {
+        MailOutboxMessage message = mailOutboxService.enqueue("user@example.com", "subject", "<html>content</html>");
+        message.setNextAttemptAt(Instant.now().plus(1, ChronoUnit.HOURS));
+        mailOutboxMessageRepository.save(message);
+
+        assertThat(dispatcher(smtpServer.mailSender()).dispatchBatch()).isZero();
+        assertThat(smtpServer.getSessions()).isZero();
+    }
+
+    @Test
+    void testPendingGaugeIsCountedByDispatch() {
+        MailOutboxMessage notDue = mailOutboxService.enqueue("later@example.com", "subject", "<html>content</html>");
+        notDue.setNextAttemptAt(Instant.now().plus(1, ChronoUnit.HOURS));
+        mailOutboxMessageRepository.save(notDue);
+        MailOutboxDispatcher dispatcher = dispatcher(smtpServer.mailSender());
+        assertThat(meterRegistry.get("mail.outbox.pending").gauge().value()).isZero();
+
+        dispatcher.dispatch();
+
+        assertThat(meterRegistry.get("mail.outbox.pending").gauge().value()).isEqualTo(1);
+
+        mailOutboxService.enqueue("user@example.com", "subject", "<html>content</html>");
+        assertThat(meterRegistry.get("mail.outbox.pending").gauge().value()).isEqualTo(1);
+        dispatcher.dispatch();
+
+        assertThat(smtpServer.getRecipients()).containsExactly("user@example.com");
+        assertThat(meterRegistry.get("mail.outbox.pending").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void testDeletesAbandonedMessagesAfterRetention() {
+        long retentionHours = applicationProperties.getMailOutbox().getAbandonedRetentionHours();
+        MailOutboxMessage expired = abandoned(Instant.now().minus(retentionHours + 1, ChronoUnit.HOURS));
+        MailOutboxMessage recent = abandoned(Instant.now().minus(1, ChronoUnit.HOURS));
+        MailOutboxMessage retried = mailOutboxService.enqueue("retried@example.com", "subject", "<html>content</html>");
+        retried.setCreatedDate(expired.getCreatedDate());
+        retried.setNextAttemptAt(Instant.now().plus(1, ChronoUnit.HOURS));
+        mailOutboxMessageRepository.save(retried);
+
+        dispatcher(smtpServer.mailSender()).deleteAbandoned();
+
+        assertThat(mailOutboxMessageRepository.findAll()).containsExactlyInAnyOrder(recent, retried);
+    }
+
+    @Test
+    void testBackoffDoublesUpToMaximum() {
+        applicationProperties.getMailOutbox().setInitialBackoffMillis(1000);
+        applicationProperties.getMailOutbox().setMaxBackoffMillis(5000);
+        MailOutboxDispatcher dispatcher = dispatcher(smtpServer.mailSender());
+
+        assertThat(dispatcher.backoffMillis(1)).isBetween(500L, 1000L);
+        assertThat(dispatcher.backoffMillis(2)).isBetween(1000L, 2000L);
+        assertThat(dispatcher.backoffMillis(3)).isBetween(2000L, 4000L);
+        assertThat(dispatcher.backoffMillis(10)).isBetween(2500L, 5000L);
+        assertThat(dispatcher.backoffMillis(100)).isBetween(2500L, 5000L);
+    }
+
+    private MailOutboxDispatcher dispatcher(JavaMailSender javaMailSender) {
+        return new MailOutboxDispatcher(mailOutboxService, javaMailSender, jHipsterProperties, applicationProperties, meterRegistry);
+    }
+
+    private MailOutboxMessage abandoned(Instant createdDate) {
+        MailOutboxMessage message = mailOutboxService.enqueue("abandoned@example.com", "subject", "<html>content</html>");
+        message.setCreatedDate(createdDate);
+        message.setNextAttemptAt(null);
+        return mailOutboxMessageRepository.save(message);
+    }
+}
@@ -7,6 +7,7 @@ import static org.mockito.Mockito.*;
 import com.strongmind.todo.IntegrationTest;
 import com.strongmind.todo.config.Constants;
 import com.strongmind.todo.domain.User;
+import com.strongmind.todo.repository.MailOutboxMessageRepository;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
@@ -14,6 +15,7 @@ import java.io.InputStreamReader;
 import java.net.URI;
 import java.net.URL;
 import java.nio.charset.Charset;
+import java.util.Locale;
 import java.util.Properties;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -21,6 +23,7 @@ import javax.mail.Multipart;
 import javax.mail.internet.MimeBodyPart;
 import javax.mail.internet.MimeMessage;
 import javax.mail.internet.MimeMultipart;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
@@ -56,6 +59,12 @@ class MailServiceIT {
     @Autowired
     private SpringTemplateEngine templateEngine;
 
+    @Autowired
+    private MailOutboxService mailOutboxService;
+
+    @Autowired
+    private MailOutboxMessageRepository mailOutboxMessageRepository;
+
     @Spy
     private JavaMailSenderImpl javaMailSender;
 
@@ -68,7 +77,12 @@ class MailServiceIT {
     public void setup() {
         MockitoAnnotations.openMocks(this);
         doNothing().when(javaMailSender).send(any(MimeMessage.class));
-        mailService = new MailService(jHipsterProperties, javaMailSender, messageSource, templateEngine);
+        mailService = new MailService(jHipsterProperties, javaMailSender, messageSource, templateEngine, mailOutboxService);
+    }
+
+    @AfterEach
+    public void cleanup() {
+        mailOutboxMessageRepository.deleteAll();
     }
 
     @Test
@@ -154,12 +168,15 @@ class MailServiceIT {
         user.setLogin("john");
         user.setEmail("john.doe@example.com");
         mailService.sendActivationEmail(user);
-        verify(javaMailSender).send(messageCaptor.capture());
-        MimeMessage message = messageCaptor.getValue();
-        assertThat(message.getAllRecipients()[0]).hasToString(user.getEmail());
-        assertThat(message.getFrom()[0]).hasToString(jHipsterProperties.getMail().getFrom());
-        assertThat(message.getContent().toString()).isNotEmpty();
-        assertThat(message.getDataHandler().getContentType()).isEqualTo("text/html;charset=UTF-8");
+        verify(javaMailSender, never()).send(any(MimeMessage.class));
+        assertThat(mailOutboxMessageRepository.findAll())
+            .singleElement()
+            .satisfies(message -> {
+                assertThat(message.getRecipient()).isEqualTo(user.getEmail());
+                assertThat(message.getSubject()).isNotEmpty();
+                assertThat(message.getContent()).isNotEmpty();
+                assertThat(message.getNextAttemptAt()).isNotNull();
+            });
     }
 
     @Test
@@ -169,12 +186,15 @@ class MailServiceIT {
         user.setLogin("john");
         user.setEmail("john.doe@example.com");
         mailService.sendCreationEmail(user);
-        verify(javaMailSender).send(messageCaptor.capture());
-        MimeMessage message = messageCaptor.getValue();
-        assertThat(message.getAllRecipients()[0]).hasToString(user.getEmail());
-        assertThat(message.getFrom()[0]).hasToString(jHipsterProperties.getMail().getFrom());
-        assertThat(message.getContent().toString()).isNotEmpty();
-        assertThat(message.getDataHandler().getContentType()).isEqualTo("text/html;charset=UTF-8");
+        verify(javaMailSender, never()).send(any(MimeMessage.class));
+        assertThat(mailOutboxMessageRepository.findAll())
+            .singleElement()
+            .satisfies(message -> {
+                assertThat(message.getRecipient()).isEqualTo(user.getEmail());
+                assertThat(message.getSubject()).isNotEmpty();
+                assertThat(message.getContent()).isNotEmpty();
+                assertThat(message.getNextAttemptAt()).isNotNull();
+            });
     }
 
     @Test
@@ -184,12 +204,25 @@ class MailServiceIT {
         user.setLogin("john");
         user.setEmail("john.doe@example.com");
         mailService.sendPasswordResetMail(user);
-        verify(javaMailSender).send(messageCaptor.capture());
-        MimeMessage message = messageCaptor.getValue();
-        assertThat(message.getAllRecipients()[0]).hasToString(user.getEmail());
-        assertThat(message.getFrom()[0]).hasToString(jHipsterProperties.getMail().getFrom());
-        assertThat(message.getContent().toString()).isNotEmpty();
-        assertThat(message.getDataHandler().getContentType()).isEqualTo("text/html;charset=UTF-8");
+        verify(javaMailSender, never()).send(any(MimeMessage.class));
+        assertThat(mailOutboxMessageRepository.findAll())
+            .singleElement()
+            .satisfies(message -> {
+                assertThat(message.getRecipient()).isEqualTo(user.getEmail());
+                assertThat(message.getSubject()).isNotEmpty();
+                assertThat(message.getContent()).isNotEmpty();
+                assertThat(message.getNextAttemptAt()).isNotNull();
+            });
+    }
+
+    @Test
+    void testWarmUpTemplatesForAllLocales() {
+        assertThat(mailService.supportedLocales()).extracting(Locale::toLanguageTag).contains(Constants.DEFAULT_LANGUAGE);
+
+        mailService.warmUpTemplates();
+
+        verify(javaMailSender, never()).send(any(MimeMessage.class));
+        assertThat(mailOutboxMessageRepository.count()).isZero();
     }
 
     @Test
@@ -0,0 +1,114 @@
+package com.strongmind.todo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.strongmind.todo.IntegrationTest;
+import com.strongmind.todo.config.Constants;
+import com.strongmind.todo.domain.User;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.MessageSource;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring5.SpringTemplateEngine;
+import org.thymeleaf.spring5.templateresolver.SpringResourceTemplateResolver;
+import org.thymeleaf.templatemode.TemplateMode;
+
+/**
+ * Render latency of each email template, with the template engine of the application (templates cached, expressions
+ * compiled), and with engines which cache the templates but interpret their expressions, or parse the templates at
+ * each render (as in the dev profile).
+ * <p>
+ * Run it with {@code -Dbenchmark=true}.
+ */
+@IntegrationTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@Timeout(value = 5, unit = TimeUnit.MINUTES)
+class MailTemplateBenchmarkIT {
+
+    private static final List<String> TEMPLATES = List.of("mail/activationEmail", "mail/creationEmail", "mail/passwordResetEmail");
+
+    private static final int RENDERS = 10_000;
+
+    private static final int ITERATIONS = 5;
+
+    private final Logger log = LoggerFactory.getLogger(MailTemplateBenchmarkIT.class);
+
+    @Autowired
+    private SpringTemplateEngine templateEngine;
+
+    @Autowired
+    private MessageSource messageSource;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Test
+    void compareRenderLatency() {
+        SpringTemplateEngine compiled = templateEngine(true, true);
+        SpringTemplateEngine interpreted = templateEngine(true, false);
+        SpringTemplateEngine uncached = templateEngine(false, false);
+        // Warm up all the engines before measuring any
+        for (String template : TEMPLATES) {
+            measure(compiled, template);
+            measure(interpreted, template);
+            measure(uncached, template);
+        }
+        for (String template : TEMPLATES) {
+            log.info(
+                "{}: median {} ns per render by the application, {} ns compiled, {} ns interpreted, {} ns parsed at each render",
+                template,
+                measure(templateEngine, template),
+                measure(compiled, template),
+                measure(interpreted, template),
+                measure(uncached, template)
+            );
+        }
+    }
+
+    private SpringTemplateEngine templateEngine(boolean cacheable, boolean compiled) {
+        SpringResourceTemplateResolver templateResolver = new SpringResourceTemplateResolver();
+        templateResolver.setApplicationContext(applicationContext);
+        templateResolver.setPrefix("classpath:/templates/");
+        templateResolver.setSuffix(".html");
+        templateResolver.setTemplateMode(TemplateMode.HTML);
+        templateResolver.setCharacterEncoding("UTF-8");
+        templateResolver.setCacheable(cacheable);
+        SpringTemplateEngine engine = new SpringTemplateEngine();
+        engine.setTemplateResolver(templateResolver);
+        engine.setTemplateEngineMessageSource(messageSource);
+        engine.setEnableSpringELCompiler(compiled);
+        return engine;
+    }
+
+    private static long measure(SpringTemplateEngine engine, String template) {
+        User user = new User();
+        user.setLogin("john");
+        user.setActivationKey("activation-key");
+        user.setResetKey("reset-key");
+        Locale locale = Locale.forLanguageTag(Constants.DEFAULT_LANGUAGE);
+
+        long[] nanos = new long[ITERATIONS];
+        // The first iteration warms up the engine and is overwritten
+        for (int i = -1; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            for (int j = 0; j < RENDERS; j++) {
+                Context context = new Context(locale);
+                context.setVariable("user", user);
+                context.setVariable("baseUrl", "http://127.0.0.1:8080");
+                assertThat(engine.process(template, context)).isNotEmpty();
+            }
+            nanos[Math.max(i, 0)] = (System.nanoTime() - start) / RENDERS;
+        }
+        Arrays.sort(nanos);
+        return nanos[ITERATIONS / 2];
+    }
+}
@@ -0,0 +1,78 @@
+package com.strongmind.todo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.strongmind.todo.IntegrationTest;
+import com.strongmind.todo.domain.ToDoItem;
+import com.strongmind.todo.domain.enumeration.ItemStatus;
+import com.strongmind.todo.repository.ToDoItemRepository;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for {@link ToDoItemExportService}.
+ */
+@IntegrationTest
+@Transactional
+class ToDoItemExportServiceIT {
+
+    @Autowired
+    private ToDoItemRepository toDoItemRepository;
+
+    @Autowired
+    private ToDoItemExportService toDoItemExportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManager em;
+
+    @Test
+    void assertThatAllToDoItemsAreExportedOnePerLine() throws Exception {
+        List<ToDoItem> toDoItems = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            toDoItems.add(toDoItemRepository.saveAndFlush(new ToDoItem().description("item " + i).status(ItemStatus.ToDo)));
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        toDoItemExportService.exportAsNdjson(out);
+
+        String ndjson = out.toString(StandardCharsets.UTF_8);
+        assertThat(ndjson).endsWith("\n");
+        String[] lines = ndjson.split("\n");
+        assertThat(lines).hasSize(toDoItems.size());
+        for (int i = 0; i < lines.length; i++) {
+            JsonNode node = objectMapper.readTree(lines[i]);
+            assertThat(node.get("id").asLong()).isEqualTo(toDoItems.get(i).getId());
+            assertThat(node.get("description").asText()).isEqualTo("item " + i);
+        }
+    }
+
+    @Test
+    void assertThatPersistenceContextIsClearedWhileExporting() throws Exception {
+        ToDoItem first = toDoItemRepository.saveAndFlush(new ToDoItem().description("first").status(ItemStatus.ToDo));
+        toDoItemRepository.saveAndFlush(new ToDoItem().description("second").status(ItemStatus.Done));
+
+        toDoItemExportService.exportAsNdjson(new ByteArrayOutputStream());
+
+        // The test configuration clears the persistence context every 2 rows
+        assertThat(em.contains(first)).isFalse();
+    }
+
+    @Test
+    void assertThatEmptyExportWritesNothing() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        toDoItemExportService.exportAsNdjson(out);
+
+        assertThat(out.size()).isZero();
+    }
+}
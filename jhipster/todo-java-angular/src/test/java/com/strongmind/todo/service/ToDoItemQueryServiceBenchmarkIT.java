@@ -0,0 +1,161 @@
+package com.strongmind.todo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.strongmind.todo.IntegrationTest;
+import com.strongmind.todo.domain.ToDoItem;
+import com.strongmind.todo.domain.User;
+import com.strongmind.todo.domain.enumeration.ItemStatus;
+import com.strongmind.todo.repository.ToDoItemRepository;
+import com.strongmind.todo.repository.UserRepository;
+import com.strongmind.todo.service.dto.ToDoItemDTO;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Latency and allocation comparison between reading managed {@link ToDoItem} entities and reading
+ * {@link ToDoItemDTO} projections through {@link ToDoItemQueryService}, on a list of {@value #ROWS} items.
+ * <p>
+ * Both paths read and serialize the whole list in a transaction, as the REST layer does. Run it with {@code -Dbenchmark=true}.
+ */
+@IntegrationTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@Timeout(value = 5, unit = TimeUnit.MINUTES)
+class ToDoItemQueryServiceBenchmarkIT {
+
+    private static final int ROWS = 10_000;
+
+    private static final int USERS = 20;
+
+    private static final int ITERATIONS = 20;
+
+    private final Logger log = LoggerFactory.getLogger(ToDoItemQueryServiceBenchmarkIT.class);
+
+    @Autowired
+    private ToDoItemRepository toDoItemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ToDoItemQueryService toDoItemQueryService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    private final List<User> users = new ArrayList<>();
+
+    @BeforeEach
+    public void initDatabase() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < USERS; i++) {
+                users.add(userRepository.save(newUser(i)));
+            }
+            List<ToDoItem> toDoItems = new ArrayList<>();
+            for (int i = 0; i < ROWS; i++) {
+                toDoItems.add(new ToDoItem().description("benchmark " + i).status(ItemStatus.ToDo).user(users.get(i % USERS)));
+            }
+            toDoItemRepository.saveAll(toDoItems);
+        });
+    }
+
+    @AfterEach
+    public void cleanup() {
+        toDoItemRepository.deleteAllInBatch();
+        userRepository.deleteAll(users);
+    }
+
+    @Test
+    void compareEntityAndDtoReads() throws Exception {
+        Callable<Integer> entityRead = () -> inTransaction(() -> serialize(toDoItemRepository.findAllWithToOneRelationships()));
+        Callable<Integer> dtoRead = () -> inTransaction(() -> serialize(toDoItemQueryService.findAllAfter(null, Long.MIN_VALUE, ROWS)));
+
+        // Warm up both paths
+        for (int i = 0; i < ITERATIONS; i++) {
+            assertThat(entityRead.call()).isEqualTo(ROWS);
+            assertThat(dtoRead.call()).isEqualTo(ROWS);
+        }
+
+        long[] entityNanos = new long[ITERATIONS];
+        long[] entityBytes = new long[ITERATIONS];
+        long[] dtoNanos = new long[ITERATIONS];
+        long[] dtoBytes = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            measure(entityRead, entityNanos, entityBytes, i);
+            measure(dtoRead, dtoNanos, dtoBytes, i);
+        }
+
+        log.info(
+            "Entity read of {} items: median {} ms, {} MB allocated",
+            ROWS,
+            median(entityNanos) / 1_000_000,
+            median(entityBytes) / (1024 * 1024)
+        );
+        log.info("DTO read of {} items: median {} ms, {} MB allocated", ROWS, median(dtoNanos) / 1_000_000, median(dtoBytes) / (1024 * 1024));
+    }
+
+    private static User newUser(int i) {
+        User user = new User();
+        user.setLogin("benchmark-" + i);
+        user.setPassword(RandomStringUtils.random(60));
+        user.setActivated(true);
+        user.setEmail("benchmark-" + i + "@localhost");
+        user.setFirstName("john");
+        user.setLastName("doe");
+        user.setLangKey("en");
+        return user;
+    }
+
+    private int inTransaction(Callable<Integer> read) {
+        return transactionTemplate.execute(status -> {
+            try {
+                return read.call();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    private int serialize(List<?> toDoItems) throws Exception {
+        objectMapper.writeValueAsBytes(toDoItems);
+        return toDoItems.size();
+    }
+
+    private static void measure(Callable<Integer> read, long[] nanos, long[] bytes, int i) throws Exception {
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = threadMXBean.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        read.call();
+        nanos[i] = System.nanoTime() - start;
+        bytes[i] = threadMXBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
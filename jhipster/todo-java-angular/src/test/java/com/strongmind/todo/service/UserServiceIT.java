@@ -1,23 +1,41 @@
 package com.strongmind.todo.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.when;
 
 import com.strongmind.todo.IntegrationTest;
+import com.strongmind.todo.config.ApplicationProperties;
 import com.strongmind.todo.config.Constants;
+import com.strongmind.todo.domain.JobCheckpoint;
+import com.strongmind.todo.domain.ToDoItem;
 import com.strongmind.todo.domain.User;
+import com.strongmind.todo.domain.enumeration.ItemStatus;
+import com.strongmind.todo.repository.JobCheckpointRepository;
+import com.strongmind.todo.repository.ToDoItemRepository;
 import com.strongmind.todo.repository.UserRepository;
 import com.strongmind.todo.service.dto.AdminUserDTO;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
 import org.apache.commons.lang3.RandomStringUtils;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.TransientDataAccessResourceException;
 import org.springframework.data.auditing.AuditingHandler;
 import org.springframework.data.auditing.DateTimeProvider;
 import org.springframework.data.domain.Page;
@@ -29,7 +47,6 @@ import tech.jhipster.security.RandomUtil;
  * Integration tests for {@link UserService}.
  */
 @IntegrationTest
-@Transactional
 class UserServiceIT {
 
     private static final String DEFAULT_LOGIN = "johndoe";
@@ -44,6 +61,8 @@ class UserServiceIT {
 
     private static final String DEFAULT_LANGKEY = "dummy";
 
+    private static final String PURGE_LOGIN_PREFIX = "purge-";
+
     @Autowired
     private UserRepository userRepository;
 
@@ -53,6 +72,21 @@ class UserServiceIT {
     @Autowired
     private AuditingHandler auditingHandler;
 
+    @SpyBean
+    private JobCheckpointRepository jobCheckpointRepository;
+
+    @Autowired
+    private ToDoItemRepository toDoItemRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    @Autowired
+    private EntityManager em;
+
     @MockBean
     private DateTimeProvider dateTimeProvider;
 
@@ -74,6 +108,28 @@ class UserServiceIT {
         auditingHandler.setDateTimeProvider(dateTimeProvider);
     }
 
+    @AfterEach
+    public void cleanup() {
+        applicationProperties.getUserPurge().setChunkSize(new ApplicationProperties.UserPurge().getChunkSize());
+        applicationProperties.getUserPurge().setMaxDurationMillis(new ApplicationProperties.UserPurge().getMaxDurationMillis());
+        // The removals of not activated users commit their chunks
+        toDoItemRepository.deleteAll(
+            toDoItemRepository
+                .findAll()
+                .stream()
+                .filter(toDoItem -> PURGE_LOGIN_PREFIX.equals(toDoItem.getDescription()))
+                .collect(Collectors.toList())
+        );
+        userRepository.deleteAll(
+            userRepository
+                .findAll()
+                .stream()
+                .filter(purgeUser -> purgeUser.getLogin().startsWith(PURGE_LOGIN_PREFIX))
+                .collect(Collectors.toList())
+        );
+        jobCheckpointRepository.findById(UserService.REMOVE_NOT_ACTIVATED_USERS_JOB).ifPresent(jobCheckpointRepository::delete);
+    }
+
     @Test
     @Transactional
     void assertThatUserMustExistToResetPassword() {
@@ -159,11 +215,9 @@ class UserServiceIT {
         dbUser.setCreatedDate(now.minus(4, ChronoUnit.DAYS));
         userRepository.saveAndFlush(user);
         Instant threeDaysAgo = now.minus(3, ChronoUnit.DAYS);
-        List<User> users = userRepository.findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(threeDaysAgo);
-        assertThat(users).isNotEmpty();
+        assertThat(notActivatedUserIds(threeDaysAgo)).contains(dbUser.getId());
         userService.removeNotActivatedUsers();
-        users = userRepository.findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(threeDaysAgo);
-        assertThat(users).isEmpty();
+        assertThat(notActivatedUserIds(threeDaysAgo)).doesNotContain(dbUser.getId());
     }
 
     @Test
@@ -176,10 +230,127 @@ class UserServiceIT {
         dbUser.setCreatedDate(now.minus(4, ChronoUnit.DAYS));
         userRepository.saveAndFlush(user);
         Instant threeDaysAgo = now.minus(3, ChronoUnit.DAYS);
-        List<User> users = userRepository.findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(threeDaysAgo);
-        assertThat(users).isEmpty();
+        assertThat(notActivatedUserIds(threeDaysAgo)).doesNotContain(dbUser.getId());
         userService.removeNotActivatedUsers();
         Optional<User> maybeDbUser = userRepository.findById(dbUser.getId());
         assertThat(maybeDbUser).contains(dbUser);
     }
+
+    @Test
+    void assertThatNotActivatedUsersAreDeletedByChunks() {
+        applicationProperties.getUserPurge().setChunkSize(2);
+        List<User> notActivatedUsers = List.of(
+            saveNotActivatedUserCreated4DaysAgo("purge-0"),
+            saveNotActivatedUserCreated4DaysAgo("purge-1"),
+            saveNotActivatedUserCreated4DaysAgo("purge-2")
+        );
+        User owner = saveNotActivatedUserCreated4DaysAgo("purge-owner");
+        toDoItemRepository.saveAndFlush(new ToDoItem().description(PURGE_LOGIN_PREFIX).status(ItemStatus.ToDo).user(owner));
+        notActivatedUsers.forEach(notActivatedUser -> userRepository.findOneWithAuthoritiesByLogin(notActivatedUser.getLogin()));
+        assertThat(usersByLogin().get("purge-0")).isNotNull();
+
+        userService.removeNotActivatedUsers();
+
+        notActivatedUsers.forEach(notActivatedUser -> assertThat(userRepository.findOneByLogin(notActivatedUser.getLogin())).isEmpty());
+        notActivatedUsers.forEach(notActivatedUser -> assertThat(usersByLogin().get(notActivatedUser.getLogin())).isNull());
+        assertThat(userRepository.findOneByLogin(owner.getLogin())).isPresent();
+        assertThat(jobCheckpointRepository.findById(UserService.REMOVE_NOT_ACTIVATED_USERS_JOB)).isEmpty();
+    }
+
+    @Test
+    void assertThatRemovalOfNotActivatedUsersResumesFromCheckpoint() {
+        applicationProperties.getUserPurge().setChunkSize(1);
+        applicationProperties.getUserPurge().setMaxDurationMillis(0);
+        User first = saveNotActivatedUserCreated4DaysAgo("purge-0");
+        User second = saveNotActivatedUserCreated4DaysAgo("purge-1");
+
+        userService.removeNotActivatedUsers();
+
+        assertThat(userRepository.findOneByLogin(first.getLogin())).isEmpty();
+        assertThat(userRepository.findOneByLogin(second.getLogin())).isPresent();
+        assertThat(jobCheckpointRepository.findById(UserService.REMOVE_NOT_ACTIVATED_USERS_JOB))
+            .map(JobCheckpoint::getLastId)
+            .contains(first.getId());
+
+        userService.removeNotActivatedUsers();
+
+        assertThat(userRepository.findOneByLogin(second.getLogin())).isEmpty();
+
+        userService.removeNotActivatedUsers();
+
+        assertThat(jobCheckpointRepository.findById(UserService.REMOVE_NOT_ACTIVATED_USERS_JOB)).isEmpty();
+    }
+
+    @Test
+    void assertThatRemovalOfNotActivatedUsersKeepsCommittedChunksOnFailure() {
+        applicationProperties.getUserPurge().setChunkSize(1);
+        User first = saveNotActivatedUserCreated4DaysAgo("purge-0");
+        User second = saveNotActivatedUserCreated4DaysAgo("purge-1");
+        userRepository.findOneWithAuthoritiesByLogin(second.getLogin());
+        doThrow(new TransientDataAccessResourceException("Connection lost"))
+            .when(jobCheckpointRepository)
+            .save(argThat(checkpoint -> checkpoint.getLastId() == second.getId()));
+
+        assertThatThrownBy(() -> userService.removeNotActivatedUsers()).isInstanceOf(TransientDataAccessResourceException.class);
+
+        // The first chunk was committed with its checkpoint, the second one was rolled back
+        assertThat(userRepository.findOneByLogin(first.getLogin())).isEmpty();
+        assertThat(userRepository.findOneByLogin(second.getLogin())).isPresent();
+        assertThat(usersByLogin().get(second.getLogin())).isNotNull();
+        assertThat(jobCheckpointRepository.findById(UserService.REMOVE_NOT_ACTIVATED_USERS_JOB))
+            .map(JobCheckpoint::getLastId)
+            .contains(first.getId());
+        reset(jobCheckpointRepository);
+
+        userService.removeNotActivatedUsers();
+
+        assertThat(userRepository.findOneByLogin(second.getLogin())).isEmpty();
+        assertThat(usersByLogin().get(second.getLogin())).isNull();
+        assertThat(jobCheckpointRepository.findById(UserService.REMOVE_NOT_ACTIVATED_USERS_JOB)).isEmpty();
+    }
+
+    @Test
+    @Transactional
+    void assertThatBulkDeleteKeepsUsersActivatedSinceSelected() {
+        Long id = userRepository.findOneByLogin("user").orElseThrow().getId();
+
+        assertThat(userRepository.deleteAllNotActivatedWithAuthoritiesByIdIn(List.of(id))).isZero();
+
+        assertThat(
+            em.createQuery("select count(user) from User user where user.id = :id", Long.class).setParameter("id", id).getSingleResult()
+        )
+            .isEqualTo(1);
+        Number authorities = (Number) em
+            .createNativeQuery("select count(*) from jhi_user_authority where user_id = :id")
+            .setParameter("id", id)
+            .getSingleResult();
+        assertThat(authorities.longValue()).isPositive();
+    }
+
+    private List<Long> notActivatedUserIds(Instant createdBefore) {
+        return userRepository
+            .findNotActivatedUserKeys(0, createdBefore, PageRequest.of(0, Integer.MAX_VALUE))
+            .stream()
+            .map(UserRepository.UserKeys::getId)
+            .collect(Collectors.toList());
+    }
+
+    private Cache usersByLogin() {
+        return Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE));
+    }
+
+    private User saveNotActivatedUserCreated4DaysAgo(String login) {
+        Instant created = Instant.now().minus(4, ChronoUnit.DAYS);
+        when(dateTimeProvider.getNow()).thenReturn(Optional.of(created));
+        User notActivatedUser = new User();
+        notActivatedUser.setLogin(login);
+        notActivatedUser.setPassword(RandomStringUtils.random(60));
+        notActivatedUser.setActivated(false);
+        notActivatedUser.setActivationKey(RandomStringUtils.random(20));
+        notActivatedUser.setEmail(login + "@localhost");
+        notActivatedUser.setLangKey(DEFAULT_LANGKEY);
+        notActivatedUser = userRepository.saveAndFlush(notActivatedUser);
+        notActivatedUser.setCreatedDate(created);
+        return userRepository.saveAndFlush(notActivatedUser);
+    }
 }
@@ -0,0 +1,136 @@
+package com.strongmind.todo.web.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.strongmind.todo.config.ApplicationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * Test class for the {@link ConcurrencyLimitFilter}.
+ */
+class ConcurrencyLimitFilterTest {
+
+    private MeterRegistry meterRegistry;
+
+    private ConcurrencyLimitFilter filter;
+
+    @BeforeEach
+    public void setup() {
+        ApplicationProperties.ConcurrencyLimit properties = new ApplicationProperties.ConcurrencyLimit();
+        properties.setInitialLimit(1);
+        properties.setMinLimit(1);
+        properties.setMaxLimit(1);
+        properties.setRetryAfterSeconds(3);
+        meterRegistry = new SimpleMeterRegistry();
+        filter =
+            new ConcurrencyLimitFilter(
+                Map.of(
+                    "todo",
+                    List.of("/api/to-do-items"),
+                    "export",
+                    List.of("/api/to-do-items/export"),
+                    "admin",
+                    List.of("/api/admin")
+                ),
+                properties,
+                meterRegistry
+            );
+    }
+
+    @Test
+    void testRequestWithinLimitIsServed() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request("/api/to-do-items/1"), response, new MockFilterChain());
+
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(meterRegistry.get(ConcurrencyLimitFilter.INFLIGHT_METER_NAME).tag("group", "todo").gauge().value()).isZero();
+    }
+
+    @Test
+    void testRequestBeyondLimitOfItsGroupIsRejected() throws Exception {
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        MockHttpServletResponse otherGroup = new MockHttpServletResponse();
+
+        // A second request to the same group while the first one is in flight
+        filter.doFilter(
+            request("/api/to-do-items"),
+            new MockHttpServletResponse(),
+            (request, response) -> {
+                filter.doFilter(request("/api/to-do-items/2"), rejected, new MockFilterChain());
+                filter.doFilter(request("/api/admin/users"), otherGroup, new MockFilterChain());
+            }
+        );
+
+        assertThat(rejected.getStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE.value());
+        assertThat(rejected.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("3");
+        assertThat(otherGroup.getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(meterRegistry.get(ConcurrencyLimitFilter.REJECTED_METER_NAME).tag("group", "todo").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(ConcurrencyLimitFilter.REJECTED_METER_NAME).tag("group", "admin").counter().count()).isZero();
+        assertThat(meterRegistry.get(ConcurrencyLimitFilter.LIMIT_METER_NAME).tag("group", "todo").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void testAsyncRequestIsInFlightUntilComplete() throws Exception {
+        MockHttpServletRequest export = request("/api/to-do-items/export");
+        export.setAsyncSupported(true);
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+
+        filter.doFilter(export, new MockHttpServletResponse(), (request, response) -> request.startAsync());
+
+        assertThat(meterRegistry.get(ConcurrencyLimitFilter.INFLIGHT_METER_NAME).tag("group", "export").gauge().value()).isEqualTo(1);
+        filter.doFilter(request("/api/to-do-items/export"), rejected, new MockFilterChain());
+        assertThat(rejected.getStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE.value());
+
+        ((MockAsyncContext) export.getAsyncContext()).complete();
+
+        assertThat(meterRegistry.get(ConcurrencyLimitFilter.INFLIGHT_METER_NAME).tag("group", "export").gauge().value()).isZero();
+    }
+
+    @Test
+    void testExportDoesNotTakeLimitOfOtherToDoItemRequests() throws Exception {
+        MockHttpServletRequest export = request("/api/to-do-items/export");
+        export.setAsyncSupported(true);
+        MockHttpServletResponse served = new MockHttpServletResponse();
+
+        filter.doFilter(export, new MockHttpServletResponse(), (request, response) -> request.startAsync());
+        filter.doFilter(request("/api/to-do-items/2"), served, new MockFilterChain());
+
+        assertThat(served.getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(meterRegistry.get(ConcurrencyLimitFilter.REJECTED_METER_NAME).tag("group", "todo").counter().count()).isZero();
+    }
+
+    @Test
+    void testOtherRequestsMakeDefaultGroup() throws Exception {
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+
+        filter.doFilter(
+            request("/api/account"),
+            new MockHttpServletResponse(),
+            (request, response) -> filter.doFilter(request("/api/users"), rejected, new MockFilterChain())
+        );
+
+        assertThat(rejected.getStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE.value());
+        assertThat(
+            meterRegistry.get(ConcurrencyLimitFilter.REJECTED_METER_NAME).tag("group", ConcurrencyLimitFilter.DEFAULT_GROUP).counter().count()
+        )
+            .isEqualTo(1);
+    }
+
+    private static MockHttpServletRequest request(String uri) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.setRequestURI(uri);
+        return request;
+    }
+}
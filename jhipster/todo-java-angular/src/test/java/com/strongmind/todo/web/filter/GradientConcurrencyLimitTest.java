@@ -0,0 +1,63 @@
+package com.strongmind.todo.web.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the {@link GradientConcurrencyLimit}.
+ */
+class GradientConcurrencyLimitTest {
+
+    private static final long RTT = 10_000_000;
+
+    @Test
+    void testLimitGrowsWhileLatencyIsSteady() {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(20, 4, 200, 1.5, 0.2, 600);
+
+        for (int i = 0; i < 100; i++) {
+            limit.onSample(RTT, limit.getLimit());
+        }
+
+        assertThat(limit.getLimit()).isGreaterThan(20).isLessThanOrEqualTo(200);
+    }
+
+    @Test
+    void testLimitShrinksWhenLatencyRises() {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(100, 4, 200, 1.5, 0.2, 600);
+        for (int i = 0; i < 50; i++) {
+            limit.onSample(RTT, limit.getLimit());
+        }
+        int steadyLimit = limit.getLimit();
+
+        for (int i = 0; i < 20; i++) {
+            limit.onSample(RTT * 10, limit.getLimit());
+        }
+
+        assertThat(limit.getLimit()).isLessThan(steadyLimit / 2).isGreaterThanOrEqualTo(4);
+    }
+
+    @Test
+    void testLimitIgnoresSamplesWhenMostlyIdle() {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(20, 4, 200, 1.5, 0.2, 600);
+        limit.onSample(RTT, 1);
+
+        for (int i = 0; i < 20; i++) {
+            limit.onSample(RTT * 10, 1);
+        }
+
+        assertThat(limit.getLimit()).isEqualTo(20);
+    }
+
+    @Test
+    void testLimitStaysWithinBounds() {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(500, 4, 50, 1.5, 0.2, 600);
+        assertThat(limit.getLimit()).isEqualTo(50);
+
+        for (int i = 0; i < 100; i++) {
+            limit.onSample(RTT * (i + 1), limit.getLimit());
+        }
+
+        assertThat(limit.getLimit()).isGreaterThanOrEqualTo(4);
+    }
+}
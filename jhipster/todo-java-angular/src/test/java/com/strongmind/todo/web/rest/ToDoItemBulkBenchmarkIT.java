@@ -0,0 +1,125 @@
+package com.strongmind.todo.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.strongmind.todo.IntegrationTest;
+import com.strongmind.todo.domain.ToDoItem;
+import com.strongmind.todo.domain.enumeration.ItemStatus;
+import com.strongmind.todo.repository.ToDoItemRepository;
+import com.strongmind.todo.service.dto.ToDoItemBulkDTO;
+import com.strongmind.todo.service.dto.ToDoItemDTO;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Throughput comparison between the per-item and the bulk {@link ToDoItemResource} endpoints.
+ * <p>
+ * Each request commits its own transaction, as in production. Run it with {@code -Dbenchmark=true}.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@Timeout(value = 5, unit = TimeUnit.MINUTES)
+class ToDoItemBulkBenchmarkIT {
+
+    private static final int ROWS = 1000;
+
+    private static final String ENTITY_API_URL = "/api/to-do-items";
+
+    private final Logger log = LoggerFactory.getLogger(ToDoItemBulkBenchmarkIT.class);
+
+    @Autowired
+    private ToDoItemRepository toDoItemRepository;
+
+    @Autowired
+    private MockMvc restToDoItemMockMvc;
+
+    @AfterEach
+    public void cleanup() {
+        toDoItemRepository.deleteAll();
+    }
+
+    @Test
+    void compareRowsPerSecond() throws Exception {
+        // Warm up both paths
+        createPerItem(100);
+        createInBulk(100);
+        toDoItemRepository.deleteAll();
+
+        long start = System.nanoTime();
+        createPerItem(ROWS);
+        double perItemRowsPerSecond = rowsPerSecond(start);
+
+        List<Long> ids = toDoItemRepository.findAll().stream().map(ToDoItem::getId).collect(Collectors.toList());
+        start = System.nanoTime();
+        for (Long id : ids) {
+            restToDoItemMockMvc.perform(delete(ENTITY_API_URL + "/{id}", id)).andExpect(status().isNoContent());
+        }
+        double perItemDeleteRowsPerSecond = rowsPerSecond(start);
+
+        start = System.nanoTime();
+        createInBulk(ROWS);
+        double bulkRowsPerSecond = rowsPerSecond(start);
+
+        ToDoItemBulkDTO bulkDelete = new ToDoItemBulkDTO();
+        bulkDelete.setDelete(toDoItemRepository.findAll().stream().map(ToDoItem::getId).collect(Collectors.toList()));
+        start = System.nanoTime();
+        restToDoItemMockMvc
+            .perform(
+                post(ENTITY_API_URL + "/bulk").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(bulkDelete))
+            )
+            .andExpect(status().isOk());
+        double bulkDeleteRowsPerSecond = rowsPerSecond(start);
+
+        log.info("Create: per-item {} rows/s, bulk {} rows/s", Math.round(perItemRowsPerSecond), Math.round(bulkRowsPerSecond));
+        log.info("Delete: per-item {} rows/s, bulk {} rows/s", Math.round(perItemDeleteRowsPerSecond), Math.round(bulkDeleteRowsPerSecond));
+        assertThat(toDoItemRepository.count()).isZero();
+    }
+
+    private void createPerItem(int rows) throws Exception {
+        for (int i = 0; i < rows; i++) {
+            restToDoItemMockMvc
+                .perform(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(newToDoItem(i))))
+                .andExpect(status().isCreated());
+        }
+    }
+
+    private void createInBulk(int rows) throws Exception {
+        ToDoItemBulkDTO bulk = new ToDoItemBulkDTO();
+        List<ToDoItemDTO> toDoItems = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            toDoItems.add(newToDoItem(i));
+        }
+        bulk.setCreate(toDoItems);
+        restToDoItemMockMvc
+            .perform(post(ENTITY_API_URL + "/bulk").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(bulk)))
+            .andExpect(status().isOk());
+    }
+
+    private static ToDoItemDTO newToDoItem(int i) {
+        ToDoItemDTO toDoItemDTO = new ToDoItemDTO();
+        toDoItemDTO.setDescription("benchmark " + i);
+        toDoItemDTO.setStatus(ItemStatus.ToDo);
+        return toDoItemDTO;
+    }
+
+    private static double rowsPerSecond(long start) {
+        return ROWS / ((System.nanoTime() - start) / 1_000_000_000d);
+    }
+}
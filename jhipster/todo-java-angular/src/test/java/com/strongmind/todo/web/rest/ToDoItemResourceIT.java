@@ -1,20 +1,38 @@
 package com.strongmind.todo.web.rest;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.everyItem;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
 import static org.mockito.Mockito.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import com.strongmind.todo.IntegrationTest;
 import com.strongmind.todo.domain.ToDoItem;
+import com.strongmind.todo.domain.User;
 import com.strongmind.todo.domain.enumeration.ItemStatus;
 import com.strongmind.todo.repository.ToDoItemRepository;
+import com.strongmind.todo.security.AuthoritiesConstants;
+import com.strongmind.todo.security.DomainUser;
+import com.strongmind.todo.service.dto.ToDoItemBulkDTO;
+import com.strongmind.todo.service.dto.ToDoItemDTO;
+import com.strongmind.todo.service.dto.UserDTO;
+import com.strongmind.todo.service.mapper.ToDoItemMapper;
+import com.strongmind.todo.web.rest.util.CursorPaginationUtil;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
 import javax.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -24,9 +42,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -56,12 +77,18 @@ class ToDoItemResourceIT {
     @Mock
     private ToDoItemRepository toDoItemRepositoryMock;
 
+    @Autowired
+    private ToDoItemMapper toDoItemMapper;
+
     @Autowired
     private EntityManager em;
 
     @Autowired
     private MockMvc restToDoItemMockMvc;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     private ToDoItem toDoItem;
 
     /**
@@ -91,6 +118,21 @@ class ToDoItemResourceIT {
         toDoItem = createEntity(em);
     }
 
+    private ToDoItem persistWithUser() {
+        User user = UserResourceIT.createEntity(em);
+        em.persist(user);
+        ToDoItem result = toDoItemRepository.saveAndFlush(createEntity(em).user(user));
+        em.clear();
+        return result;
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        statistics.setStatisticsEnabled(true);
+        return statistics;
+    }
+
     @Test
     @Transactional
     void createToDoItem() throws Exception {
@@ -126,6 +168,87 @@ class ToDoItemResourceIT {
         assertThat(toDoItemList).hasSize(databaseSizeBeforeCreate);
     }
 
+    @Test
+    @Transactional
+    void bulkToDoItems() throws Exception {
+        // Initialize the database
+        ToDoItem toDoItemToUpdate = toDoItemRepository.saveAndFlush(createEntity(em));
+        ToDoItem toDoItemToDelete = toDoItemRepository.saveAndFlush(createEntity(em));
+        int databaseSizeBeforeBulk = toDoItemRepository.findAll().size();
+        em.detach(toDoItemToUpdate);
+
+        ToDoItemBulkDTO bulk = new ToDoItemBulkDTO();
+        bulk.setCreate(toDoItemMapper.toDto(List.of(createUpdatedEntity(em), createEntity(em).id(1L), createUpdatedEntity(em))));
+        bulk.setUpdate(
+            toDoItemMapper.toDto(List.of(toDoItemToUpdate.description(UPDATED_DESCRIPTION).status(UPDATED_STATUS), createEntity(em)))
+        );
+        bulk.setDelete(List.of(toDoItemToDelete.getId(), count.incrementAndGet()));
+
+        restToDoItemMockMvc
+            .perform(post(ENTITY_API_URL + "/bulk").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(bulk)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.created[*].status").value(contains(201, 400, 201)))
+            .andExpect(jsonPath("$.created[*].index").value(contains(0, 1, 2)))
+            .andExpect(jsonPath("$.updated[*].status").value(contains(200, 400)))
+            .andExpect(jsonPath("$.deleted[*].status").value(contains(204, 404)))
+            .andExpect(jsonPath("$.deleted[1].error").value("idnotfound"));
+
+        // Validate the ToDoItems in the database
+        List<ToDoItem> toDoItemList = toDoItemRepository.findAll();
+        assertThat(toDoItemList).hasSize(databaseSizeBeforeBulk + 2 - 1);
+        assertThat(toDoItemList).doesNotContain(toDoItemToDelete);
+        ToDoItem testToDoItem = toDoItemRepository.findById(toDoItemToUpdate.getId()).get();
+        assertThat(testToDoItem.getDescription()).isEqualTo(UPDATED_DESCRIPTION);
+        assertThat(testToDoItem.getStatus()).isEqualTo(UPDATED_STATUS);
+    }
+
+    @Test
+    @Transactional
+    void bulkUpdateToDoItemWithUser() throws Exception {
+        // Initialize the database
+        ToDoItem persistedToDoItem = persistWithUser();
+        User user = em.find(User.class, persistedToDoItem.getUser().getId());
+
+        // The user is sent by id only
+        ToDoItemDTO updatedToDoItemDTO = toDoItemMapper.toDto(persistedToDoItem.description(UPDATED_DESCRIPTION));
+        updatedToDoItemDTO.setUser(new UserDTO(user.getId(), null));
+        ToDoItemBulkDTO bulk = new ToDoItemBulkDTO();
+        bulk.setUpdate(List.of(updatedToDoItemDTO));
+
+        restToDoItemMockMvc
+            .perform(post(ENTITY_API_URL + "/bulk").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(bulk)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.updated[0].status").value(200));
+
+        // The updated toDoItem, still in the persistence context, has the login of its user
+        restToDoItemMockMvc
+            .perform(get(ENTITY_API_URL_ID, persistedToDoItem.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.description").value(UPDATED_DESCRIPTION))
+            .andExpect(jsonPath("$.user.login").value(user.getLogin()));
+    }
+
+    @Test
+    @Transactional
+    void bulkCreateToDoItemWithVersion() throws Exception {
+        int databaseSizeBeforeBulk = toDoItemRepository.findAll().size();
+        ToDoItemBulkDTO bulk = new ToDoItemBulkDTO();
+        bulk.setCreate(toDoItemMapper.toDto(List.of(createEntity(em).version(0L))));
+
+        restToDoItemMockMvc
+            .perform(post(ENTITY_API_URL + "/bulk").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(bulk)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.created[0].status").value(201))
+            .andExpect(jsonPath("$.created[0].id").isNumber());
+
+        // Validate the ToDoItem in the database
+        List<ToDoItem> toDoItemList = toDoItemRepository.findAll();
+        assertThat(toDoItemList).hasSize(databaseSizeBeforeBulk + 1);
+        ToDoItem testToDoItem = toDoItemList.get(toDoItemList.size() - 1);
+        assertThat(testToDoItem.getDescription()).isEqualTo(DEFAULT_DESCRIPTION);
+        assertThat(testToDoItem.getVersion()).isZero();
+    }
+
     @Test
     @Transactional
     void getAllToDoItems() throws Exception {
@@ -142,6 +265,143 @@ class ToDoItemResourceIT {
             .andExpect(jsonPath("$.[*].status").value(hasItem(DEFAULT_STATUS.toString())));
     }
 
+    @Test
+    @Transactional
+    void getAllToDoItemsByCursor() throws Exception {
+        // Initialize the database
+        ToDoItem first = toDoItemRepository.saveAndFlush(createEntity(em));
+        ToDoItem second = toDoItemRepository.saveAndFlush(createEntity(em));
+        ToDoItem third = toDoItemRepository.saveAndFlush(createEntity(em));
+        String afterFirst = CursorPaginationUtil.encodeCursor(first.getId() - 1);
+
+        // Get the first page and follow its next link
+        MvcResult firstPage = restToDoItemMockMvc
+            .perform(get(ENTITY_API_URL + "?size=2&cursor=" + afterFirst))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(2)))
+            .andExpect(jsonPath("$.[0].id").value(first.getId().intValue()))
+            .andExpect(jsonPath("$.[1].id").value(second.getId().intValue()))
+            .andExpect(header().string(HttpHeaders.LINK, containsString("rel=\"next\"")))
+            .andReturn();
+        String nextLink = firstPage.getResponse().getHeader(HttpHeaders.LINK);
+        String nextUrl = nextLink.substring(nextLink.indexOf('<') + 1, nextLink.indexOf('>'));
+
+        restToDoItemMockMvc
+            .perform(get(nextUrl))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(1)))
+            .andExpect(jsonPath("$.[0].id").value(third.getId().intValue()))
+            .andExpect(header().doesNotExist(HttpHeaders.LINK));
+    }
+
+    @Test
+    @Transactional
+    void getAllToDoItemsIfNoneMatch() throws Exception {
+        // Initialize the database
+        ToDoItem first = toDoItemRepository.saveAndFlush(createEntity(em));
+        String url = ENTITY_API_URL + "?size=2&cursor=" + CursorPaginationUtil.encodeCursor(first.getId() - 1);
+
+        String eTag = restToDoItemMockMvc
+            .perform(get(url))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+        assertThat(eTag).startsWith("W/");
+
+        restToDoItemMockMvc
+            .perform(get(url).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, eTag));
+
+        // Add an item to the page
+        toDoItemRepository.saveAndFlush(createEntity(em));
+
+        restToDoItemMockMvc
+            .perform(get(url).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(2)))
+            .andExpect(header().string(HttpHeaders.ETAG, is(not(eTag))));
+    }
+
+    @Test
+    @Transactional
+    void getAllToDoItemsWithSingleQuery() throws Exception {
+        // Initialize the database with items belonging to distinct users
+        ToDoItem first = persistWithUser();
+        persistWithUser();
+        persistWithUser();
+        String url = ENTITY_API_URL + "?cursor=" + CursorPaginationUtil.encodeCursor(first.getId() - 1);
+
+        Statistics statistics = statistics();
+        try {
+            restToDoItemMockMvc.perform(get(url)).andExpect(status().isOk()).andExpect(jsonPath("$[*].user.login", hasSize(3)));
+
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
+    @Test
+    @Transactional
+    void getMyToDoItems() throws Exception {
+        // Initialize the database with items of the current user and of another one
+        User owner = UserResourceIT.createEntity(em);
+        em.persist(owner);
+        ToDoItem mine = toDoItemRepository.saveAndFlush(createEntity(em).user(owner));
+        ToDoItem mineInProgress = toDoItemRepository.saveAndFlush(createUpdatedEntity(em).user(owner));
+        persistWithUser();
+        List<SimpleGrantedAuthority> authorities = List.of(new SimpleGrantedAuthority(AuthoritiesConstants.USER));
+        DomainUser principal = new DomainUser(owner.getId(), owner.getLogin(), "", authorities);
+
+        Statistics statistics = statistics();
+        try {
+            restToDoItemMockMvc
+                .perform(get(ENTITY_API_URL + "/mine").with(user(principal)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id").value(contains(mine.getId().intValue(), mineInProgress.getId().intValue())))
+                .andExpect(jsonPath("$[*].user.login").value(everyItem(is(owner.getLogin()))));
+
+            // The user id comes from the principal: the user is not looked up
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+
+        // Principals without the user id fall back to a lookup by login
+        restToDoItemMockMvc
+            .perform(get(ENTITY_API_URL + "/mine?status=" + UPDATED_STATUS).with(user(owner.getLogin())))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[*].id").value(contains(mineInProgress.getId().intValue())));
+    }
+
+    @Test
+    @Transactional
+    void getAllToDoItemsByStatus() throws Exception {
+        // Initialize the database
+        toDoItemRepository.saveAndFlush(toDoItem);
+        ToDoItem otherToDoItem = toDoItemRepository.saveAndFlush(createUpdatedEntity(em));
+
+        restToDoItemMockMvc
+            .perform(get(ENTITY_API_URL + "?status=" + UPDATED_STATUS))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(hasItem(otherToDoItem.getId().intValue())))
+            .andExpect(jsonPath("$.[*].status").value(everyItem(is(UPDATED_STATUS.toString()))));
+    }
+
+    @Test
+    @Transactional
+    void getAllToDoItemsWithInvalidCursor() throws Exception {
+        restToDoItemMockMvc.perform(get(ENTITY_API_URL + "?cursor=notacursor")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void getAllToDoItemsWithInvalidSize() throws Exception {
+        restToDoItemMockMvc.perform(get(ENTITY_API_URL + "?size=0")).andExpect(status().isBadRequest());
+    }
+
     @SuppressWarnings({ "unchecked" })
     void getAllToDoItemsWithEagerRelationshipsIsEnabled() throws Exception {
         when(toDoItemRepositoryMock.findAllWithEagerRelationships(any())).thenReturn(new PageImpl(new ArrayList<>()));
@@ -160,6 +420,27 @@ class ToDoItemResourceIT {
         verify(toDoItemRepositoryMock, times(1)).findAllWithEagerRelationships(any());
     }
 
+    @Test
+    @Transactional
+    void exportToDoItems() throws Exception {
+        long mvcAsyncTasks = meterRegistry.get("executor.idle").tag("name", "mvcAsyncExecutor").timer().count();
+
+        MvcResult mvcResult = restToDoItemMockMvc
+            .perform(get(ENTITY_API_URL + "/export"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        // In flight until streamed
+        assertThat(meterRegistry.get("http.server.concurrency.inflight").tag("group", "export").gauge().value()).isEqualTo(1);
+
+        restToDoItemMockMvc
+            .perform(asyncDispatch(mvcResult))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_NDJSON));
+        // Streamed on the bounded executor of the asynchronous requests
+        assertThat(meterRegistry.get("executor.idle").tag("name", "mvcAsyncExecutor").timer().count()).isEqualTo(mvcAsyncTasks + 1);
+        assertThat(meterRegistry.get("http.server.concurrency.inflight").tag("group", "export").gauge().value()).isZero();
+    }
+
     @Test
     @Transactional
     void getToDoItem() throws Exception {
@@ -176,6 +457,58 @@ class ToDoItemResourceIT {
             .andExpect(jsonPath("$.status").value(DEFAULT_STATUS.toString()));
     }
 
+    @Test
+    @Transactional
+    void getToDoItemWithCompactUser() throws Exception {
+        // Initialize the database
+        ToDoItem persistedToDoItem = persistWithUser();
+        User user = em.find(User.class, persistedToDoItem.getUser().getId());
+
+        byte[] body = restToDoItemMockMvc
+            .perform(get(ENTITY_API_URL_ID, persistedToDoItem.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.user.*", hasSize(2)))
+            .andExpect(jsonPath("$.user.id").value(user.getId().intValue()))
+            .andExpect(jsonPath("$.user.login").value(user.getLogin()))
+            .andExpect(jsonPath("$.user.email").doesNotExist())
+            .andReturn()
+            .getResponse()
+            .getContentAsByteArray();
+
+        // The whole item is now smaller than its user alone used to be
+        assertThat(body.length).isLessThan(TestUtil.convertObjectToJsonBytes(user).length);
+    }
+
+    @Test
+    @Transactional
+    void getToDoItemIfNoneMatch() throws Exception {
+        // Initialize the database
+        toDoItemRepository.saveAndFlush(toDoItem);
+
+        String eTag = restToDoItemMockMvc
+            .perform(get(ENTITY_API_URL_ID, toDoItem.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("no-cache")))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+        assertThat(eTag).isNotNull();
+
+        restToDoItemMockMvc
+            .perform(get(ENTITY_API_URL_ID, toDoItem.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, eTag))
+            .andExpect(content().string(""));
+
+        // Update the toDoItem
+        toDoItemRepository.saveAndFlush(toDoItem.description(UPDATED_DESCRIPTION));
+
+        restToDoItemMockMvc
+            .perform(get(ENTITY_API_URL_ID, toDoItem.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.description").value(UPDATED_DESCRIPTION));
+    }
+
     @Test
     @Transactional
     void getNonExistingToDoItem() throws Exception {
@@ -213,6 +546,54 @@ class ToDoItemResourceIT {
         assertThat(testToDoItem.getStatus()).isEqualTo(UPDATED_STATUS);
     }
 
+    @Test
+    @Transactional
+    void putToDoItemWithUser() throws Exception {
+        // Initialize the database
+        ToDoItem persistedToDoItem = persistWithUser();
+        User user = em.find(User.class, persistedToDoItem.getUser().getId());
+
+        // The user is sent by id only
+        ToDoItemDTO updatedToDoItemDTO = toDoItemMapper.toDto(persistedToDoItem.description(UPDATED_DESCRIPTION));
+        updatedToDoItemDTO.setUser(new UserDTO(user.getId(), null));
+
+        restToDoItemMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, persistedToDoItem.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(updatedToDoItemDTO))
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.description").value(UPDATED_DESCRIPTION))
+            .andExpect(jsonPath("$.user.id").value(user.getId().intValue()))
+            .andExpect(jsonPath("$.user.login").value(user.getLogin()));
+    }
+
+    @Test
+    @Transactional
+    void putToDoItemWithStaleVersion() throws Exception {
+        // Initialize the database
+        toDoItemRepository.saveAndFlush(toDoItem);
+
+        // Update the toDoItem from an outdated version
+        ToDoItem updatedToDoItem = toDoItemRepository.findById(toDoItem.getId()).get();
+        em.detach(updatedToDoItem);
+        updatedToDoItem.description(UPDATED_DESCRIPTION).status(UPDATED_STATUS).version(toDoItem.getVersion() - 1);
+
+        restToDoItemMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, updatedToDoItem.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(updatedToDoItem))
+            )
+            .andExpect(status().isConflict());
+
+        // Validate the ToDoItem in the database
+        ToDoItem testToDoItem = toDoItemRepository.findById(toDoItem.getId()).get();
+        assertThat(testToDoItem.getDescription()).isEqualTo(DEFAULT_DESCRIPTION);
+        assertThat(testToDoItem.getStatus()).isEqualTo(DEFAULT_STATUS);
+    }
+
     @Test
     @Transactional
     void putNonExistingToDoItem() throws Exception {
@@ -327,6 +708,41 @@ class ToDoItemResourceIT {
         assertThat(testToDoItem.getStatus()).isEqualTo(UPDATED_STATUS);
     }
 
+    @Test
+    @Transactional
+    void patchToDoItemIncrementsVersion() throws Exception {
+        // Initialize the database
+        toDoItemRepository.saveAndFlush(toDoItem);
+        long versionBeforeUpdate = toDoItem.getVersion();
+
+        ToDoItem partialUpdatedToDoItem = new ToDoItem();
+        partialUpdatedToDoItem.setId(toDoItem.getId());
+        partialUpdatedToDoItem.status(UPDATED_STATUS).version(versionBeforeUpdate);
+
+        restToDoItemMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, partialUpdatedToDoItem.getId())
+                    .contentType("application/merge-patch+json")
+                    .content(TestUtil.convertObjectToJsonBytes(partialUpdatedToDoItem))
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.status").value(UPDATED_STATUS.toString()))
+            .andExpect(jsonPath("$.version").value(versionBeforeUpdate + 1));
+
+        // The same patch is now based on an outdated version
+        restToDoItemMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, partialUpdatedToDoItem.getId())
+                    .contentType("application/merge-patch+json")
+                    .content(TestUtil.convertObjectToJsonBytes(partialUpdatedToDoItem.status(DEFAULT_STATUS)))
+            )
+            .andExpect(status().isConflict());
+
+        ToDoItem testToDoItem = toDoItemRepository.findById(toDoItem.getId()).get();
+        assertThat(testToDoItem.getStatus()).isEqualTo(UPDATED_STATUS);
+        assertThat(testToDoItem.getVersion()).isEqualTo(versionBeforeUpdate + 1);
+    }
+
     @Test
     @Transactional
     void patchNonExistingToDoItem() throws Exception {
@@ -400,4 +816,22 @@ class ToDoItemResourceIT {
         List<ToDoItem> toDoItemList = toDoItemRepository.findAll();
         assertThat(toDoItemList).hasSize(databaseSizeBeforeDelete - 1);
     }
+
+    @Test
+    @Transactional
+    void deleteToDoItemWithoutLoadingUser() throws Exception {
+        // Initialize the database
+        ToDoItem persistedToDoItem = persistWithUser();
+
+        Statistics statistics = statistics();
+        try {
+            restToDoItemMockMvc
+                .perform(delete(ENTITY_API_URL_ID, persistedToDoItem.getId()).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNoContent());
+
+            assertThat(statistics.getEntityStatistics(User.class.getName()).getLoadCount()).isZero();
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
 }
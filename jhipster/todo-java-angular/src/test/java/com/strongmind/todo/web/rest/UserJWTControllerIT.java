@@ -4,22 +4,29 @@ import static org.hamcrest.Matchers.emptyString;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.nullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.strongmind.todo.IntegrationTest;
 import com.strongmind.todo.domain.User;
 import com.strongmind.todo.repository.UserRepository;
 import com.strongmind.todo.web.rest.vm.LoginVM;
+import com.strongmind.todo.web.rest.errors.ErrorConstants;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
 
 /**
  * Integration tests for the {@link UserJWTController} REST controller.
@@ -34,11 +41,21 @@ class UserJWTControllerIT {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private CacheManager cacheManager;
+
     @Autowired
     private MockMvc mockMvc;
 
+    @AfterEach
+    public void cleanup() {
+        // The passwords are checked on another thread: the users are committed, and deleted after each test
+        userRepository.findOneByLogin("user-jwt-controller").ifPresent(userRepository::delete);
+        userRepository.findOneByLogin("user-jwt-controller-remember-me").ifPresent(userRepository::delete);
+        cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE).clear();
+    }
+
     @Test
-    @Transactional
     void testAuthorize() throws Exception {
         User user = new User();
         user.setLogin("user-jwt-controller");
@@ -51,8 +68,7 @@ class UserJWTControllerIT {
         LoginVM login = new LoginVM();
         login.setUsername("user-jwt-controller");
         login.setPassword("test");
-        mockMvc
-            .perform(post("/api/authenticate").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(login)))
+        authenticate(login)
             .andExpect(status().isOk())
             .andExpect(jsonPath("$.id_token").isString())
             .andExpect(jsonPath("$.id_token").isNotEmpty())
@@ -61,7 +77,6 @@ class UserJWTControllerIT {
     }
 
     @Test
-    @Transactional
     void testAuthorizeWithRememberMe() throws Exception {
         User user = new User();
         user.setLogin("user-jwt-controller-remember-me");
@@ -75,8 +90,7 @@ class UserJWTControllerIT {
         login.setUsername("user-jwt-controller-remember-me");
         login.setPassword("test");
         login.setRememberMe(true);
-        mockMvc
-            .perform(post("/api/authenticate").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(login)))
+        authenticate(login)
             .andExpect(status().isOk())
             .andExpect(jsonPath("$.id_token").isString())
             .andExpect(jsonPath("$.id_token").isNotEmpty())
@@ -89,10 +103,35 @@ class UserJWTControllerIT {
         LoginVM login = new LoginVM();
         login.setUsername("wrong-user");
         login.setPassword("wrong password");
-        mockMvc
-            .perform(post("/api/authenticate").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(login)))
+        authenticate(login)
             .andExpect(status().isUnauthorized())
             .andExpect(jsonPath("$.id_token").doesNotExist())
             .andExpect(header().doesNotExist("Authorization"));
     }
+
+    @Test
+    void testAuthorizeIsThrottledAfterRepeatedFailures() throws Exception {
+        LoginVM login = new LoginVM();
+        login.setUsername("throttled-user");
+        login.setPassword("wrong password");
+        // The default burst of failures per login
+        for (int i = 0; i < 5; i++) {
+            authenticate(login).andExpect(status().isUnauthorized());
+        }
+        mockMvc
+            .perform(post("/api/authenticate").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(login)))
+            .andExpect(status().isTooManyRequests())
+            .andExpect(header().exists(HttpHeaders.RETRY_AFTER))
+            .andExpect(jsonPath("$.message").value(ErrorConstants.ERR_TOO_MANY_LOGIN_ATTEMPTS))
+            .andExpect(header().doesNotExist("Authorization"));
+    }
+
+    private ResultActions authenticate(LoginVM login) throws Exception {
+        // The password is checked asynchronously
+        MvcResult mvcResult = mockMvc
+            .perform(post("/api/authenticate").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(login)))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        return mockMvc.perform(asyncDispatch(mvcResult));
+    }
 }
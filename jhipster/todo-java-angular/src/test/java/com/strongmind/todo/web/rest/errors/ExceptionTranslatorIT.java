@@ -35,6 +35,15 @@ class ExceptionTranslatorIT {
             .andExpect(jsonPath("$.message").value(ErrorConstants.ERR_CONCURRENCY_FAILURE));
     }
 
+    @Test
+    void testTaskRejected() throws Exception {
+        mockMvc
+            .perform(get("/api/exception-translator-test/task-rejected"))
+            .andExpect(status().isServiceUnavailable())
+            .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+            .andExpect(jsonPath("$.title").value("Service Unavailable"));
+    }
+
     @Test
     void testMethodArgumentNotValid() throws Exception {
         mockMvc
@@ -2,6 +2,7 @@ package com.strongmind.todo.web.rest.errors;
 
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.AccessDeniedException;
@@ -17,6 +18,11 @@ public class ExceptionTranslatorTestController {
         throw new ConcurrencyFailureException("test concurrency failure");
     }
 
+    @GetMapping("/task-rejected")
+    public void taskRejected() {
+        throw new TaskRejectedException("test task rejected");
+    }
+
     @PostMapping("/method-argument")
     public void methodArgument(@Valid @RequestBody TestDTO testDTO) {}
 